@@ -0,0 +1,35 @@
+package com.example.test.config;
+
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.engine.jdbc.dialect.spi.DialectResolutionInfo;
+
+/**
+ * H2 understands {@code FOR UPDATE SKIP LOCKED} since 2.0, but Hibernate's {@link H2Dialect} still
+ * renders a plain {@code FOR UPDATE} for it. Without this, claim queries would block on rows another
+ * dispatcher holds instead of skipping them, unlike on PostgreSQL.
+ */
+public class H2SkipLockedDialect extends H2Dialect {
+
+    public H2SkipLockedDialect() {
+        super();
+    }
+
+    public H2SkipLockedDialect(DialectResolutionInfo info) {
+        super(info);
+    }
+
+    @Override
+    public boolean supportsSkipLocked() {
+        return true;
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString() {
+        return " for update skip locked";
+    }
+
+    @Override
+    public String getForUpdateSkipLockedString(String aliases) {
+        return getForUpdateSkipLockedString();
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.test.controllers.cart;
 
 import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.ReplaceCartRequest;
 import com.example.test.services.cartService.CartService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -77,6 +79,25 @@ public class CartController {
         return ResponseEntity.ok(cartService.updateItem(userDetails.getUser().getId(), id, quantity));
     }
 
+    @Operation(
+            summary = "Replace cart contents",
+            description = "Sets the cart to exactly the given items in one request, e.g. for a reorder. " +
+                    "Items not listed are removed and their stock is released."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Cart replaced successfully",
+                    content = @Content(schema = @Schema(implementation = CartDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid items, closed restaurant or not enough stock", content = @Content),
+            @ApiResponse(responseCode = "404", description = "Menu item not found", content = @Content)
+    })
+    @PutMapping
+    public ResponseEntity<CartDto> replaceCart(
+            @Valid @RequestBody ReplaceCartRequest request,
+            @AuthenticationPrincipal UserDetailsImpl userDetails
+    ) {
+        return ResponseEntity.ok(cartService.replaceCart(userDetails.getUser().getId(), request.items()));
+    }
+
     @Operation(summary = "Remove item from cart")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Item removed successfully",
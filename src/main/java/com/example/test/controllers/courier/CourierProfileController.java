@@ -1,6 +1,7 @@
 package com.example.test.controllers.courier;
 
 import com.example.test.models.dtos.courierDto.CourierDto;
+import com.example.test.models.dtos.courierDto.CourierLocationDto;
 import com.example.test.models.dtos.courierDto.CourierStatusDto;
 import com.example.test.models.dtos.courierDto.CourierVehicleDto;
 import com.example.test.services.courierService.CourierService;
@@ -66,4 +67,22 @@ public class CourierProfileController {
         CourierDto updatedCourier = courierService.updateStatus(principal.getUser().getId(), dto.getStatus());
         return ResponseEntity.ok(updatedCourier);
     }
+
+    @Operation(summary = "Update courier location")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Location updated successfully",
+                    content = @Content(schema = @Schema(implementation = CourierDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid coordinates"),
+            @ApiResponse(responseCode = "403", description = "Access denied: Courier role required")
+    })
+    @PatchMapping("/location")
+    public ResponseEntity<CourierDto> updateLocation(
+            @Valid @RequestBody CourierLocationDto dto,
+            Authentication auth
+    ) {
+        UserDetailsImpl principal = (UserDetailsImpl) auth.getPrincipal();
+        CourierDto updatedCourier = courierService.updateLocation(
+                principal.getUser().getId(), dto.getLatitude(), dto.getLongitude());
+        return ResponseEntity.ok(updatedCourier);
+    }
 }
@@ -1,9 +1,13 @@
 package com.example.test.controllers.order;
 
+import com.example.test.models.dtos.orderDto.BulkStatusUpdateRequest;
 import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.dtos.orderDto.OrderFilter;
+import com.example.test.models.dtos.orderDto.OrderSliceDto;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.services.idempotencyService.IdempotencyService;
 import com.example.test.services.orderService.OrderService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -13,6 +17,9 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
@@ -36,6 +43,7 @@ import java.util.Map;
 public class OrderController {
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(
             summary = "Create order from cart",
@@ -45,15 +53,21 @@ public class OrderController {
             @ApiResponse(responseCode = "201", description = "Order created successfully",
                     content = @Content(schema = @Schema(implementation = OrderDto.class))),
             @ApiResponse(responseCode = "400", description = "Invalid request parameters or empty cart"),
-            @ApiResponse(responseCode = "404", description = "Restaurant not found")
+            @ApiResponse(responseCode = "404", description = "Restaurant not found"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress")
     })
     @PostMapping
     public ResponseEntity<OrderDto> create(
             @Parameter(description = "ID of the restaurant", example = "1") @RequestParam @NotNull @Positive Long restaurantId,
             @Parameter(description = "Method of payment") @RequestParam @NotNull PaymentMethod paymentMethod,
+            @Parameter(description = "Client-generated key; retries with the same key replay the first response")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Parameter(hidden = true) Authentication auth
     ) {
-        OrderDto order = orderService.createOrderFromCart(getUserId(auth), restaurantId, paymentMethod);
+        Long userId = getUserId(auth);
+        OrderDto order = idempotencyService.execute(idempotencyKey, userId, "POST /api/v1/orders",
+                "restaurantId=" + restaurantId + "&paymentMethod=" + paymentMethod, OrderDto.class,
+                () -> orderService.createOrderFromCart(userId, restaurantId, paymentMethod));
         return ResponseEntity.status(HttpStatus.CREATED).body(order);
     }
 
@@ -90,6 +104,22 @@ public class OrderController {
         return ResponseEntity.ok(orderService.findAllByFilter(filter, pageable, authentication));
     }
 
+    @Operation(
+            summary = "Scroll orders with filtering (keyset pagination)",
+            description = "Returns the next slice of orders after the given cursor, newest first. Same visibility rules as GET /api/v1/orders, without a total count."
+    )
+    @GetMapping("/scroll")
+    public ResponseEntity<OrderSliceDto> scroll(
+            @Parameter(description = "Filter by User ID") @RequestParam(required = false) Long userId,
+            @Parameter(description = "Filter by Order Status") @RequestParam(required = false) OrderStatus status,
+            @Parameter(description = "Opaque cursor from the previous slice") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Slice size", example = "20") @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size,
+            @Parameter(hidden = true) Authentication authentication
+    ) {
+        OrderFilter filter = new OrderFilter(userId, status);
+        return ResponseEntity.ok(orderService.findAllByFilterAfter(filter, cursor, size, authentication));
+    }
+
     @Operation(
             summary = "Update order status",
             description = "Updates the status of an existing order."
@@ -109,6 +139,23 @@ public class OrderController {
         return ResponseEntity.ok(orderService.updateStatus(authentication, id, status));
     }
 
+    @Operation(
+            summary = "Update status of several orders",
+            description = "Applies a batch of status changes in one transaction and reports the outcome per order."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed, see per-order outcomes"),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch"),
+            @ApiResponse(responseCode = "403", description = "Access denied: Restaurant owner or admin role required")
+    })
+    @PatchMapping("/status")
+    public ResponseEntity<List<OrderStatusChangeResult>> updateStatuses(
+            @Valid @RequestBody BulkStatusUpdateRequest request,
+            @Parameter(hidden = true) Authentication authentication
+    ) {
+        return ResponseEntity.ok(orderService.updateStatuses(authentication, request.changes()));
+    }
+
     @Operation(
             summary = "Cancel order",
             description = "Cancels an order. Only accessible by the order owner or administration."
@@ -0,0 +1,65 @@
+package com.example.test.controllers.order;
+
+import com.example.test.models.dtos.orderDto.OrderExportFormat;
+import com.example.test.services.orderService.OrderExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+@Validated
+@RestController
+@RequestMapping("/api/v1/admin/orders")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(name = "Admin Order Export", description = "Bulk export of orders for reporting")
+public class OrderExportController {
+
+    private final OrderExportService orderExportService;
+
+    @Operation(
+            summary = "Export orders [ADMIN]",
+            description = "Streams all orders created in [from, to) as NDJSON or CSV, optionally one line per order item."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "400", description = "Invalid date range or format"),
+            @ApiResponse(responseCode = "403", description = "Forbidden: Admin role required")
+    })
+    @GetMapping("/export")
+    public void export(
+            @Parameter(description = "Output format") @RequestParam(defaultValue = "NDJSON") OrderExportFormat format,
+            @Parameter(description = "Flatten order items into the output") @RequestParam(defaultValue = "false") boolean includeItems,
+            @Parameter(description = "Start date, inclusive", example = "2024-05-01") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "End date, exclusive", example = "2024-06-01") @RequestParam @NotNull @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        String extension = format == OrderExportFormat.CSV ? "csv" : "ndjson";
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(format == OrderExportFormat.CSV ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"orders-" + from + "-" + to + "." + extension + "\"");
+
+        orderExportService.export(format, includeItems, from, to, response.getWriter());
+    }
+}
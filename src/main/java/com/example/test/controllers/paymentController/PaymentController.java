@@ -3,6 +3,7 @@ package com.example.test.controllers.paymentController;
 import com.example.test.models.dtos.payment.CreatePaymentDto;
 import com.example.test.models.dtos.payment.PaymentDto;
 import com.example.test.models.dtos.payment.UpdatePaymentStatusDto;
+import com.example.test.services.idempotencyService.IdempotencyService;
 import com.example.test.services.paymentService.PaymentService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -31,19 +32,26 @@ import org.springframework.web.bind.annotation.*;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
 
     @Operation(summary = "Initiate a new payment", description = "Creates a payment record for a specific order.")
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Payment initiated successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid payment data provided")
+            @ApiResponse(responseCode = "400", description = "Invalid payment data provided"),
+            @ApiResponse(responseCode = "409", description = "A request with the same Idempotency-Key is still in progress")
     })
     @PostMapping
     public ResponseEntity<PaymentDto> create(
             @RequestBody @Valid CreatePaymentDto dto,
+            @Parameter(description = "Client-generated key; retries with the same key replay the first response")
+            @RequestHeader(name = IdempotencyService.HEADER, required = false) String idempotencyKey,
             @Parameter(hidden = true) Authentication auth
     ) {
+        Long userId = getUserId(auth);
         return ResponseEntity.status(HttpStatus.CREATED)
-                .body(paymentService.createPayment(dto, getUserId(auth)));
+                .body(idempotencyService.execute(idempotencyKey, userId, "POST /api/v1/payments",
+                        "orderId=" + dto.getOrderId(), PaymentDto.class,
+                        () -> paymentService.createPayment(dto, userId)));
     }
 
     @Operation(summary = "Get payment details by ID", description = "Retrieves payment information if the user is the owner or admin.")
@@ -0,0 +1,11 @@
+package com.example.test.models.dtos.cartDto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record CartLineRequest(
+        @NotNull @Positive Long menuItemId,
+        @NotNull @Min(1) Integer quantity
+) {
+}
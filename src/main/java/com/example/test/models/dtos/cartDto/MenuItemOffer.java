@@ -0,0 +1,12 @@
+package com.example.test.models.dtos.cartDto;
+
+import com.example.test.models.entities.cart.MenuItem;
+
+/**
+ * Menu item together with whether its restaurant currently takes orders.
+ */
+public record MenuItemOffer(
+        MenuItem menuItem,
+        boolean restaurantOpen
+) {
+}
@@ -0,0 +1,12 @@
+package com.example.test.models.dtos.cartDto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ReplaceCartRequest(
+        @NotNull @Size(max = 100) List<@Valid CartLineRequest> items
+) {
+}
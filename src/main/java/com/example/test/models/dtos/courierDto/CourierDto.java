@@ -16,4 +16,8 @@ public class CourierDto {
     private VehicleType vehicleType;
 
     private CourierStatus status;
+
+    private Double latitude;
+
+    private Double longitude;
 }
@@ -0,0 +1,4 @@
+package com.example.test.models.dtos.courierDto;
+
+public record CourierLoad(Long courierId, long activeOrders) {
+}
@@ -0,0 +1,9 @@
+package com.example.test.models.dtos.courierDto;
+
+import com.example.test.models.entities.enums.VehicleType;
+
+/**
+ * A working courier whose active orders all come from one restaurant and are still waiting for pickup.
+ */
+public record CourierStack(Long courierId, VehicleType vehicleType, Long restaurantId, long orders) {
+}
@@ -0,0 +1,4 @@
+package com.example.test.models.dtos.notificationDto;
+
+public record OutgoingNotification(Long id, Long userId, String message) {
+}
@@ -0,0 +1,12 @@
+package com.example.test.models.dtos.orderDto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkStatusUpdateRequest(
+        @NotEmpty @Size(max = 100) List<@Valid OrderStatusChange> changes
+) {
+}
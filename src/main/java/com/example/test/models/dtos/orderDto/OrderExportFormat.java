@@ -0,0 +1,6 @@
+package com.example.test.models.dtos.orderDto;
+
+public enum OrderExportFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,34 @@
+package com.example.test.models.dtos.orderDto;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderExportRow(
+        Long orderId,
+        Long userId,
+        Long restaurantId,
+        Long courierId,
+        OrderStatus status,
+        PaymentMethod paymentMethod,
+        BigDecimal totalPrice,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long itemId,
+        Long menuItemId,
+        String menuItemName,
+        Integer quantity,
+        BigDecimal price
+) {
+
+    public OrderExportRow(Long orderId, Long userId, Long restaurantId, Long courierId,
+                          OrderStatus status, PaymentMethod paymentMethod, BigDecimal totalPrice,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(orderId, userId, restaurantId, courierId, status, paymentMethod, totalPrice,
+                createdAt, updatedAt, null, null, null, null, null);
+    }
+}
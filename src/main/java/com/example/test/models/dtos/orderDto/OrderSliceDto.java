@@ -0,0 +1,10 @@
+package com.example.test.models.dtos.orderDto;
+
+import java.util.List;
+
+public record OrderSliceDto(
+        List<OrderDto> content,
+        boolean hasNext,
+        String nextCursor
+) {
+}
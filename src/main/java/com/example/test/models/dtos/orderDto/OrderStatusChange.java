@@ -0,0 +1,11 @@
+package com.example.test.models.dtos.orderDto;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record OrderStatusChange(
+        @NotNull @Positive Long orderId,
+        @NotNull OrderStatus status
+) {
+}
@@ -0,0 +1,29 @@
+package com.example.test.models.dtos.orderDto;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record OrderStatusChangeResult(
+        Long orderId,
+        OrderStatus status,
+        Outcome outcome,
+        String message
+) {
+
+    public enum Outcome {
+        UPDATED,
+        NOT_FOUND,
+        FORBIDDEN,
+        REJECTED,
+        CONFLICT
+    }
+
+    public static OrderStatusChangeResult updated(OrderStatusChange change) {
+        return new OrderStatusChangeResult(change.orderId(), change.status(), Outcome.UPDATED, null);
+    }
+
+    public static OrderStatusChangeResult failed(OrderStatusChange change, Outcome outcome, String message) {
+        return new OrderStatusChangeResult(change.orderId(), change.status(), outcome, message);
+    }
+}
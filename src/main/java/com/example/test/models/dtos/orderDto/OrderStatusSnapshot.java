@@ -0,0 +1,14 @@
+package com.example.test.models.dtos.orderDto;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+
+public record OrderStatusSnapshot(
+        Long id,
+        Long userId,
+        Long ownerId,
+        OrderStatus status,
+        PaymentMethod paymentMethod,
+        Long courierId
+) {
+}
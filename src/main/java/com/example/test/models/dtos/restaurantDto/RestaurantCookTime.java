@@ -0,0 +1,8 @@
+package com.example.test.models.dtos.restaurantDto;
+
+public interface RestaurantCookTime {
+
+    Long getRestaurantId();
+
+    Integer getCookTime();
+}
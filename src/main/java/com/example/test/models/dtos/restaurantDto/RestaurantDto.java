@@ -13,9 +13,15 @@ public class RestaurantDto {
 
     private String address;
 
+    private Double latitude;
+
+    private Double longitude;
+
     private boolean open;
 
     private Integer avgCookingTimeMinutes;
 
     private Double rating;
+
+    private Integer etaMinutes;
 }
\ No newline at end of file
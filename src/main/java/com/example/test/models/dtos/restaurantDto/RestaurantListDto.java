@@ -21,4 +21,6 @@ public class RestaurantListDto {
 
     private Double rating;
 
+    private Integer etaMinutes;
+
 }
\ No newline at end of file
@@ -0,0 +1,6 @@
+package com.example.test.models.dtos.restaurantDto;
+
+import com.example.test.models.entities.restaurant.PrepTimeRing;
+
+public record RestaurantPrepTimeHistory(Long restaurantId, PrepTimeRing history) {
+}
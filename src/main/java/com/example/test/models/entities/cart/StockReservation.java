@@ -0,0 +1,40 @@
+package com.example.test.models.entities.cart;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock of a menu item held for a user's cart. The quantity has already been taken from
+ * {@code menu_items.quantity}; it is given back when the cart line shrinks or the reservation
+ * expires, and consumed when the cart is checked out.
+ */
+@Entity
+@Table(name = "stock_reservations",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stock_reservation_user_menu_item",
+                columnNames = {"user_id", "menu_item_id"}),
+        indexes = @Index(name = "idx_stock_reservation_expires_at", columnList = "expires_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long menuItemId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -31,4 +31,8 @@ public class Courier {
 
     @Enumerated(EnumType.STRING)
     private CourierStatus status = CourierStatus.OFFLINE;
+
+    private Double latitude;
+
+    private Double longitude;
 }
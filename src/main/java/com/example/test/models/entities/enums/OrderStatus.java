@@ -1,5 +1,11 @@
 package com.example.test.models.entities.enums;
 
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
 public enum OrderStatus {
 
     CREATED,
@@ -9,6 +15,27 @@ public enum OrderStatus {
     DELIVERED,
     CANCELLED;
 
+    /**
+     * Transition table: for each target status, the statuses an order may move from.
+     */
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(OrderStatus.class);
+
+    static {
+        SOURCES.put(CREATED, Collections.unmodifiableSet(EnumSet.noneOf(OrderStatus.class)));
+        SOURCES.put(CONFIRMED, Collections.unmodifiableSet(EnumSet.of(CREATED)));
+        SOURCES.put(COOKED, Collections.unmodifiableSet(EnumSet.of(CONFIRMED)));
+        SOURCES.put(IN_DELIVERY, Collections.unmodifiableSet(EnumSet.of(CONFIRMED, COOKED)));
+        SOURCES.put(DELIVERED, Collections.unmodifiableSet(EnumSet.of(CONFIRMED, COOKED, IN_DELIVERY)));
+        SOURCES.put(CANCELLED, Collections.unmodifiableSet(EnumSet.of(CREATED, CONFIRMED, COOKED, IN_DELIVERY)));
+    }
+
+
+    private static final Set<OrderStatus> ACTIVE_FOR_COURIER = Collections.unmodifiableSet(EnumSet.of(
+            CREATED, CONFIRMED, COOKED, IN_DELIVERY));
+
+    public static Set<OrderStatus> activeForCourier() {
+        return ACTIVE_FOR_COURIER;
+    }
 
     public boolean isActiveForCourier() {
         return this == CREATED
@@ -17,4 +44,11 @@ public enum OrderStatus {
                 || this == IN_DELIVERY;
     }
 
-    }
\ No newline at end of file
+    public Set<OrderStatus> allowedSources() {
+        return SOURCES.get(this);
+    }
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return SOURCES.get(target).contains(this);
+    }
+}
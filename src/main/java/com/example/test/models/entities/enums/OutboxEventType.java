@@ -0,0 +1,6 @@
+package com.example.test.models.entities.enums;
+
+public enum OutboxEventType {
+
+    ORDER_STATUS_CHANGED
+}
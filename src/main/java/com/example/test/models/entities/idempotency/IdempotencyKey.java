@@ -0,0 +1,55 @@
+package com.example.test.models.entities.idempotency;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of a request sent with an {@code Idempotency-Key} header. A row without
+ * {@code completedAt} is a request still in flight, leased to the handler holding the random
+ * {@code claimedBy} token since {@code claimedAt}; a completed row holds the JSON response that is
+ * replayed to retries.
+ */
+@Entity
+@Table(name = "idempotency_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_idempotency_user_endpoint_key",
+                columnNames = {"user_id", "endpoint", "idempotency_key"}),
+        indexes = @Index(name = "idx_idempotency_created_at", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false, length = 60)
+    private String endpoint;
+
+    @Column(name = "idempotency_key", nullable = false, length = 100)
+    private String key;
+
+    @Column(nullable = false)
+    private String requestFingerprint;
+
+    @Column(length = 4000)
+    private String responseBody;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(length = 36)
+    private String claimedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime claimedAt;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,52 @@
+package com.example.test.models.entities.order;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cold copy of a finished {@link Order}. Keeps the original id and plain foreign key
+ * values so the row can outlive its user, courier or restaurant.
+ */
+@Entity
+@Table(name = "orders_archive", indexes = {
+        @Index(name = "idx_orders_archive_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_orders_archive_created", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private Long courierId;
+
+    private Long restaurantId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    private BigDecimal totalPrice;
+
+    private Integer cookTime;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.test.models.entities.order;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Entity
+@Table(name = "order_items_archive", indexes = {
+        @Index(name = "idx_order_items_archive_order_id", columnList = "order_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedOrderItem {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    private Long menuItemId;
+
+    private int quantity;
+
+    private BigDecimal price;
+}
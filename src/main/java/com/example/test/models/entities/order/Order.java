@@ -7,6 +7,7 @@ import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -16,7 +17,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_orders_status_updated_at", columnList = "status, updated_at"),
+        @Index(name = "idx_orders_restaurant_id_id", columnList = "restaurant_id, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -61,4 +66,8 @@ public class Order {
     @UpdateTimestamp
     private LocalDateTime updatedAt;
 
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
 }
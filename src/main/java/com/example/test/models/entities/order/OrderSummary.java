@@ -0,0 +1,56 @@
+package com.example.test.models.entities.order;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read model of an order for listings. Shares its id with {@link Order}
+ * and is written by {@code OrderSummaryService} whenever the order changes.
+ */
+@Entity
+@Table(name = "order_summary", indexes = {
+        @Index(name = "idx_order_summary_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_order_summary_owner_created", columnList = "owner_id, created_at"),
+        @Index(name = "idx_order_summary_courier_status", columnList = "courier_id, status"),
+        @Index(name = "idx_order_summary_created_at_id", columnList = "created_at, id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderSummary {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    private Long restaurantId;
+
+    private String restaurantName;
+
+    private Long ownerId;
+
+    private Long courierId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    private PaymentMethod paymentMethod;
+
+    private BigDecimal totalPrice;
+
+    private int itemCount;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+}
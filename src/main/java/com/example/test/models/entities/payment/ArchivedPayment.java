@@ -0,0 +1,33 @@
+package com.example.test.models.entities.payment;
+
+import com.example.test.models.entities.enums.PaymentStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "payments_archive")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedPayment {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private Long orderId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private PaymentStatus status;
+
+    @Column(nullable = false)
+    private BigDecimal amount;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,99 @@
+package com.example.test.models.entities.restaurant;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Last {@link #CAPACITY} prep times of a restaurant in minutes, oldest overwritten first. Stored as
+ * one binary value: capacity, size and next write position as shorts, followed by the samples as
+ * unsigned shorts. Immutable; {@link #append(int)} returns a new ring.
+ */
+public final class PrepTimeRing {
+
+    public static final int CAPACITY = 256;
+    public static final int SERIALIZED_LENGTH = 3 * Short.BYTES + CAPACITY * Short.BYTES;
+
+    private static final int HEADER_BYTES = 3 * Short.BYTES;
+    private static final int MAX_MINUTES = 0xFFFF;
+
+    private final byte[] bytes;
+
+    private PrepTimeRing(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static PrepTimeRing empty() {
+        ByteBuffer buffer = ByteBuffer.allocate(SERIALIZED_LENGTH);
+        buffer.putShort((short) CAPACITY);
+        return new PrepTimeRing(buffer.array());
+    }
+
+    /**
+     * Appends to {@code ring}, starting a new ring if there is none yet.
+     */
+    public static PrepTimeRing append(PrepTimeRing ring, int minutes) {
+        return (ring != null ? ring : empty()).append(minutes);
+    }
+
+    public static PrepTimeRing fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int capacity = Short.toUnsignedInt(buffer.getShort());
+        int size = Short.toUnsignedInt(buffer.getShort());
+        int next = Short.toUnsignedInt(buffer.getShort());
+        if (capacity == 0 || bytes.length != HEADER_BYTES + capacity * Short.BYTES || size > capacity || next >= capacity) {
+            throw new IllegalArgumentException("Malformed prep time history");
+        }
+        return new PrepTimeRing(bytes.clone());
+    }
+
+    public PrepTimeRing append(int minutes) {
+        byte[] copy = bytes.clone();
+        ByteBuffer buffer = ByteBuffer.wrap(copy);
+        int capacity = capacity();
+        int next = Short.toUnsignedInt(buffer.getShort(2 * Short.BYTES));
+
+        buffer.putShort(HEADER_BYTES + next * Short.BYTES, (short) Math.min(Math.max(minutes, 0), MAX_MINUTES));
+        buffer.putShort(Short.BYTES, (short) Math.min(size() + 1, capacity));
+        buffer.putShort(2 * Short.BYTES, (short) ((next + 1) % capacity));
+        return new PrepTimeRing(copy);
+    }
+
+    public int capacity() {
+        return Short.toUnsignedInt(ByteBuffer.wrap(bytes).getShort(0));
+    }
+
+    public int size() {
+        return Short.toUnsignedInt(ByteBuffer.wrap(bytes).getShort(Short.BYTES));
+    }
+
+    /**
+     * Samples from oldest to newest.
+     */
+    public int[] toArray() {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int capacity = capacity();
+        int size = size();
+        int next = Short.toUnsignedInt(buffer.getShort(2 * Short.BYTES));
+        int oldest = (next - size + capacity) % capacity;
+
+        int[] samples = new int[size];
+        for (int i = 0; i < size; i++) {
+            samples[i] = Short.toUnsignedInt(buffer.getShort(HEADER_BYTES + ((oldest + i) % capacity) * Short.BYTES));
+        }
+        return samples;
+    }
+
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || other instanceof PrepTimeRing ring && Arrays.equals(bytes, ring.bytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+}
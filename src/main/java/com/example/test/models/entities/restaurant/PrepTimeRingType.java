@@ -0,0 +1,74 @@
+package com.example.test.models.entities.restaurant;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.usertype.UserType;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Objects;
+
+/**
+ * Maps {@link PrepTimeRing} to a single {@code VARBINARY} column.
+ */
+public class PrepTimeRingType implements UserType<PrepTimeRing> {
+
+    @Override
+    public int getSqlType() {
+        return Types.VARBINARY;
+    }
+
+    @Override
+    public Class<PrepTimeRing> returnedClass() {
+        return PrepTimeRing.class;
+    }
+
+    @Override
+    public boolean equals(PrepTimeRing x, PrepTimeRing y) {
+        return Objects.equals(x, y);
+    }
+
+    @Override
+    public int hashCode(PrepTimeRing x) {
+        return Objects.hashCode(x);
+    }
+
+    @Override
+    public PrepTimeRing nullSafeGet(ResultSet rs, int position, SharedSessionContractImplementor session, Object owner)
+            throws SQLException {
+        byte[] bytes = rs.getBytes(position);
+        return bytes == null ? null : PrepTimeRing.fromBytes(bytes);
+    }
+
+    @Override
+    public void nullSafeSet(PreparedStatement st, PrepTimeRing value, int index, SharedSessionContractImplementor session)
+            throws SQLException {
+        if (value == null) {
+            st.setNull(index, Types.VARBINARY);
+        } else {
+            st.setBytes(index, value.toBytes());
+        }
+    }
+
+    @Override
+    public PrepTimeRing deepCopy(PrepTimeRing value) {
+        return value;
+    }
+
+    @Override
+    public boolean isMutable() {
+        return false;
+    }
+
+    @Override
+    public Serializable disassemble(PrepTimeRing value) {
+        return value == null ? null : value.toBytes();
+    }
+
+    @Override
+    public PrepTimeRing assemble(Serializable cached, Object owner) {
+        return cached == null ? null : PrepTimeRing.fromBytes((byte[]) cached);
+    }
+}
@@ -4,13 +4,14 @@ import com.example.test.models.entities.cart.MenuItem;
 import com.example.test.models.entities.user.User;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Type;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Set;
 
 @Entity
 @Table(name = "restaurants")
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -40,18 +41,18 @@ public class Restaurant {
 
     private String address;
 
+    private Double latitude;
+
+    private Double longitude;
+
     @Builder.Default
     private boolean open = true;
 
 
     private Integer avgCookingTimeMinutes;
 
-    @ElementCollection
-    @CollectionTable(
-            name = "restaurant_prep_time",
-            joinColumns = @JoinColumn(name = "restaurant_id")
-    )
-    @Column(name = "prep_minutes")
-    private final List<Integer> prepTimeHistoryMinutes = new ArrayList<>();
+    @Type(PrepTimeRingType.class)
+    @Column(name = "prep_time_history", length = PrepTimeRing.SERIALIZED_LENGTH)
+    private PrepTimeRing prepTimeHistory;
 
 }
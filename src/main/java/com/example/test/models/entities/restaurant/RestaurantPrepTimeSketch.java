@@ -0,0 +1,32 @@
+package com.example.test.models.entities.restaurant;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Persisted copy of a restaurant's prep-time histogram, so percentiles survive a restart without
+ * replaying order history.
+ */
+@Entity
+@Table(name = "restaurant_prep_time_sketches")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RestaurantPrepTimeSketch {
+
+    @Id
+    private Long restaurantId;
+
+    @Column(nullable = false, length = 4096)
+    private byte[] histogram;
+
+    @Column(nullable = false)
+    private long sampleCount;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
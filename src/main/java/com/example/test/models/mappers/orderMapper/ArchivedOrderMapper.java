@@ -0,0 +1,11 @@
+package com.example.test.models.mappers.orderMapper;
+
+import com.example.test.models.dtos.orderDto.OrderDto;
+import com.example.test.models.entities.order.ArchivedOrder;
+import org.mapstruct.Mapper;
+
+@Mapper(componentModel = "spring")
+public interface ArchivedOrderMapper {
+
+    OrderDto toDto(ArchivedOrder order);
+}
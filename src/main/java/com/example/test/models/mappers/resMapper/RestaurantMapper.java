@@ -10,6 +10,7 @@ public interface RestaurantMapper {
 
     @Mapping(source = "owner.id", target = "ownerId")
     @Mapping(target = "rating", ignore = true)
+    @Mapping(target = "etaMinutes", ignore = true)
     RestaurantDto toDto(Restaurant restaurant);
 
     @Mapping(source = "ownerId", target = "owner.id")
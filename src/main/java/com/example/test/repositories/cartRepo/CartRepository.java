@@ -1,11 +1,41 @@
 package com.example.test.repositories.cartRepo;
 
 import com.example.test.models.entities.cart.Cart;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
 
+    @Query("SELECT DISTINCT c FROM Cart c LEFT JOIN FETCH c.items ci LEFT JOIN FETCH ci.menuItem WHERE c.user.id = :userId")
+    Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
+
+    /**
+     * Locks the next page of non-empty carts untouched since {@code cutoff}, walking by id.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT c FROM Cart c
+            WHERE c.id > :afterId AND c.updatedAt < :cutoff
+              AND EXISTS (SELECT 1 FROM CartItem i WHERE i.cart = c)
+            ORDER BY c.id
+            """)
+    List<Cart> lockIdleWithItems(@Param("cutoff") LocalDateTime cutoff,
+                                 @Param("afterId") Long afterId,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Cart c SET c.deliveryTime = null WHERE c.id IN :ids")
+    int clearDeliveryTimes(@Param("ids") Collection<Long> ids);
+
 }
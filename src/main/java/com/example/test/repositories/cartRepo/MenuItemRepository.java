@@ -1,13 +1,70 @@
 package com.example.test.repositories.cartRepo;
 
+import com.example.test.models.dtos.cartDto.MenuItemOffer;
 import com.example.test.models.entities.cart.MenuItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
 
     List<MenuItem> findByAvailableTrue();
 
+    @Query("SELECT new com.example.test.models.dtos.cartDto.MenuItemOffer(mi, r.open) FROM Restaurant r JOIN r.menuItems mi WHERE mi.id IN :ids")
+    List<MenuItemOffer> findOffersByIdIn(@Param("ids") Collection<Long> ids);
 
+    /**
+     * Takes {@code quantity} from stock if at least that much is left.
+     *
+     * @return 1 if the stock was taken, 0 if there is not enough
+     */
+    @Modifying
+    @Query("UPDATE MenuItem m SET m.quantity = m.quantity - :quantity WHERE m.id = :id AND m.quantity >= :quantity")
+    int claimStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE MenuItem m SET m.quantity = m.quantity + :quantity WHERE m.id = :id")
+    int returnStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    /**
+     * Returns the quantities of all items of the given orders to stock in one statement,
+     * summing quantities per menu item across orders.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE menu_items m
+            SET quantity = m.quantity + (
+                SELECT SUM(oi.quantity)
+                FROM order_items oi
+                JOIN order_item_menu_item link ON link.order_item_id = oi.id
+                WHERE link.menu_item_id = m.id AND oi.order_id IN (:orderIds))
+            WHERE m.id IN (
+                SELECT link.menu_item_id
+                FROM order_items oi
+                JOIN order_item_menu_item link ON link.order_item_id = oi.id
+                WHERE oi.order_id IN (:orderIds))
+            """, nativeQuery = true)
+    int restockFromOrders(@Param("orderIds") Collection<Long> orderIds);
+
+    /**
+     * Returns the stock held by the given reservations in one statement, summing quantities per
+     * menu item across reservations.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE menu_items m
+            SET quantity = m.quantity + (
+                SELECT SUM(r.quantity)
+                FROM stock_reservations r
+                WHERE r.menu_item_id = m.id AND r.id IN (:reservationIds))
+            WHERE m.id IN (
+                SELECT r.menu_item_id
+                FROM stock_reservations r
+                WHERE r.id IN (:reservationIds))
+            """, nativeQuery = true)
+    int restockFromReservations(@Param("reservationIds") Collection<Long> reservationIds);
 }
@@ -0,0 +1,92 @@
+package com.example.test.repositories.cartRepo;
+
+import com.example.test.models.entities.cart.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    List<StockReservation> findByUserId(Long userId);
+
+    Optional<StockReservation> findByUserIdAndMenuItemId(Long userId, Long menuItemId);
+
+    /**
+     * Adds to an existing reservation and restarts its TTL.
+     *
+     * @return 0 if the user holds no reservation for the item
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r SET r.quantity = r.quantity + :quantity, r.expiresAt = :expiresAt
+            WHERE r.userId = :userId AND r.menuItemId = :menuItemId
+            """)
+    int extend(@Param("userId") Long userId,
+               @Param("menuItemId") Long menuItemId,
+               @Param("quantity") int quantity,
+               @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Inserts a reservation unless the user already holds one for the item. A concurrent insert of
+     * the same pair makes this a no-op instead of a unique key violation.
+     *
+     * @return 1 if the row was inserted, 0 if one already existed
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO stock_reservations (user_id, menu_item_id, quantity, expires_at)
+            VALUES (:userId, :menuItemId, :quantity, :expiresAt)
+            ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int insertIfAbsent(@Param("userId") Long userId,
+                       @Param("menuItemId") Long menuItemId,
+                       @Param("quantity") int quantity,
+                       @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Takes {@code quantity} out of a reservation, provided it still holds that much.
+     *
+     * @return 1 if the quantity was taken, 0 if the reservation is gone or smaller
+     */
+    @Modifying
+    @Query("""
+            UPDATE StockReservation r SET r.quantity = r.quantity - :quantity
+            WHERE r.userId = :userId AND r.menuItemId = :menuItemId AND r.quantity >= :quantity
+            """)
+    int consume(@Param("userId") Long userId,
+                @Param("menuItemId") Long menuItemId,
+                @Param("quantity") int quantity);
+
+    /**
+     * Deletes a reservation only if it still holds the quantity the caller read, so its stock is
+     * handed over exactly once even when the expiry job races with the caller.
+     */
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id = :id AND r.quantity = :quantity")
+    int deleteIfHolding(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.userId = :userId AND r.menuItemId = :menuItemId AND r.quantity = 0")
+    int deleteEmpty(@Param("userId") Long userId, @Param("menuItemId") Long menuItemId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM StockReservation r WHERE r.expiresAt < :now ORDER BY r.id")
+    List<Long> lockExpiredIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r.id FROM StockReservation r WHERE r.userId IN :userIds")
+    List<Long> lockIdsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -3,7 +3,12 @@ package com.example.test.repositories.courierRepo;
 
 import com.example.test.models.entities.courier.Courier;
 import com.example.test.models.entities.enums.CourierStatus;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,6 +22,21 @@ public interface CourierRepository extends JpaRepository<Courier, Long> {
 
     List<Courier> findByAvailableTrue();
 
+    @Query("SELECT c.id FROM Courier c WHERE c.available = true")
+    List<Long> findIdsByAvailableTrue();
+
     List<Courier> findAll();
     List<Courier> findByStatus(CourierStatus status);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Courier> findWithLockByIdAndStatus(Long id, CourierStatus status);
+
+    /**
+     * Moves the courier from {@code from} to {@code to} unless another transaction got there first.
+     *
+     * @return 1 if the courier was claimed
+     */
+    @Modifying
+    @Query("UPDATE Courier c SET c.status = :to, c.available = false WHERE c.id = :id AND c.status = :from")
+    int claim(@Param("id") Long id, @Param("from") CourierStatus from, @Param("to") CourierStatus to);
 }
@@ -0,0 +1,47 @@
+package com.example.test.repositories.idempotencyRepo;
+
+import com.example.test.models.entities.idempotency.IdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    Optional<IdempotencyKey> findByUserIdAndEndpointAndKey(Long userId, String endpoint, String key);
+
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k SET k.responseBody = :body, k.completedAt = :completedAt
+            WHERE k.id = :id AND k.claimedBy = :claimedBy
+            """)
+    int complete(@Param("id") Long id,
+                 @Param("claimedBy") String claimedBy,
+                 @Param("body") String body,
+                 @Param("completedAt") LocalDateTime completedAt);
+
+    /**
+     * Takes over an in-flight row whose handler lost its lease, e.g. because the node died.
+     * Only one retry can win, since the lease token it saw must still be the current one.
+     */
+    @Modifying
+    @Query("""
+            UPDATE IdempotencyKey k SET k.claimedBy = :claimedBy, k.claimedAt = :claimedAt
+            WHERE k.id = :id AND k.completedAt IS NULL AND k.claimedBy = :previousClaimedBy
+            """)
+    int takeOver(@Param("id") Long id,
+                 @Param("previousClaimedBy") String previousClaimedBy,
+                 @Param("claimedBy") String claimedBy,
+                 @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.id = :id AND k.claimedBy = :claimedBy AND k.completedAt IS NULL")
+    int release(@Param("id") Long id, @Param("claimedBy") String claimedBy);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyKey k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -2,16 +2,45 @@ package com.example.test.repositories.notiRepo;
 
 import com.example.test.models.entities.enums.NotificationStatus;
 import com.example.test.models.entities.notification.Notification;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
-    List<Notification> findAllByStatusAndSendAtBefore(NotificationStatus status, LocalDateTime dateTime);
+    @Query("SELECT n.id FROM Notification n WHERE n.status = :status AND n.sendAt < :dueBefore AND n.id > :afterId ORDER BY n.id")
+    List<Long> findDueIds(@Param("status") NotificationStatus status,
+                          @Param("dueBefore") LocalDateTime dueBefore,
+                          @Param("afterId") Long afterId,
+                          Pageable pageable);
+
+    /**
+     * Locks those of {@code ids} that are still in {@code status}, skipping rows another transaction
+     * holds, so concurrent senders claim disjoint notifications. No ORDER BY or LIMIT here: H2 applies
+     * them before skipping locked rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT n FROM Notification n WHERE n.id IN :ids AND n.status = :status")
+    List<Notification> claim(@Param("ids") Collection<Long> ids, @Param("status") NotificationStatus status);
+
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.sentAt = :sentAt WHERE n.id IN :ids")
+    int updateStatuses(@Param("ids") Collection<Long> ids,
+                       @Param("status") NotificationStatus status,
+                       @Param("sentAt") LocalDateTime sentAt);
 
     @Query("SELECT n FROM Notification n WHERE n.user.id = :userId AND n.sendAt <= CURRENT_TIMESTAMP ORDER BY n.createdAt DESC")
     List<Notification> findVisibleNotifications(@Param("userId") Long userId);
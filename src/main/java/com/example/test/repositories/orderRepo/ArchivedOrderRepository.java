@@ -0,0 +1,103 @@
+package com.example.test.repositories.orderRepo;
+
+import com.example.test.models.dtos.orderDto.OrderExportRow;
+import com.example.test.models.entities.order.ArchivedOrder;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.stream.Stream;
+
+/**
+ * Moves finished orders between the hot tables and their {@code *_archive} copies.
+ * The copy statements must run before the matching deletes, inside one transaction.
+ * The export streams mirror the ones on {@link OrderRepository} for the archived rows.
+ */
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO orders_archive (id, user_id, courier_id, restaurant_id, status, payment_method,
+                                        total_price, cook_time, created_at, updated_at, archived_at)
+            SELECT o.id, o.user_id, o.courier_id, o.restaurant_id, o.status, o.payment_method,
+                   o.total_price, o.cook_time, o.created_at, o.updated_at, :archivedAt
+            FROM orders o
+            WHERE o.id IN (:ids)
+            """, nativeQuery = true)
+    int copyOrders(@Param("ids") Collection<Long> ids, @Param("archivedAt") LocalDateTime archivedAt);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_items_archive (id, order_id, menu_item_id, quantity, price)
+            SELECT oi.id, oi.order_id, link.menu_item_id, oi.quantity, oi.price
+            FROM order_items oi
+            LEFT JOIN order_item_menu_item link ON link.order_item_id = oi.id
+            WHERE oi.order_id IN (:ids)
+            """, nativeQuery = true)
+    int copyItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO payments_archive (id, order_id, status, amount, created_at)
+            SELECT p.id, p.order_id, p.status, p.amount, p.created_at
+            FROM payments p
+            WHERE p.order_id IN (:ids)
+            """, nativeQuery = true)
+    int copyPayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = """
+            DELETE FROM order_item_menu_item
+            WHERE order_item_id IN (SELECT oi.id FROM order_items oi WHERE oi.order_id IN (:ids))
+            """, nativeQuery = true)
+    int deleteItemLinks(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM order_items WHERE order_id IN (:ids)", nativeQuery = true)
+    int deleteItems(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM payments WHERE order_id IN (:ids)", nativeQuery = true)
+    int deletePayments(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM orders WHERE id IN (:ids)", nativeQuery = true)
+    int deleteOrders(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.example.test.models.dtos.orderDto.OrderExportRow(
+                o.id, o.userId, o.restaurantId, o.courierId, o.status, o.paymentMethod, o.totalPrice,
+                o.createdAt, o.updatedAt)
+            FROM ArchivedOrder o
+            WHERE o.createdAt >= :from AND o.createdAt < :to
+            ORDER BY o.id
+            """)
+    Stream<OrderExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.example.test.models.dtos.orderDto.OrderExportRow(
+                o.id, o.userId, o.restaurantId, o.courierId, o.status, o.paymentMethod, o.totalPrice,
+                o.createdAt, o.updatedAt,
+                oi.id, oi.menuItemId, mi.name, oi.quantity, oi.price)
+            FROM ArchivedOrder o
+            LEFT JOIN ArchivedOrderItem oi ON oi.orderId = o.id
+            LEFT JOIN MenuItem mi ON mi.id = oi.menuItemId
+            WHERE o.createdAt >= :from AND o.createdAt < :to
+            ORDER BY o.id, oi.id
+            """)
+    Stream<OrderExportRow> streamForExportWithItems(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
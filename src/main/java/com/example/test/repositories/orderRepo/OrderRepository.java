@@ -1,16 +1,32 @@
 package com.example.test.repositories.orderRepo;
 
+import com.example.test.models.dtos.courierDto.CourierLoad;
+import com.example.test.models.dtos.courierDto.CourierStack;
+import com.example.test.models.dtos.orderDto.OrderExportRow;
+import com.example.test.models.dtos.orderDto.OrderStatusSnapshot;
+import com.example.test.models.dtos.restaurantDto.RestaurantCookTime;
+import com.example.test.models.entities.enums.CourierStatus;
 import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
 import com.example.test.models.entities.order.Order;
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecificationExecutor<Order> {
 
@@ -21,9 +37,182 @@ public interface OrderRepository extends JpaRepository<Order, Long>, JpaSpecific
     List<Order> findByCourierIdAndStatusIn(Long courierId, Collection<OrderStatus> statuses);
 
 
+    @Query("SELECT o.id FROM Order o WHERE o.courier IS NULL AND o.status = :status AND o.id > :afterId ORDER BY o.id")
+    List<Long> findUnassignedIds(@Param("status") OrderStatus status, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Locks those of {@code ids} that are still unassigned in {@code status}, skipping rows another
+     * transaction holds, so concurrent dispatchers claim disjoint orders instead of queueing on each
+     * other. No ORDER BY or LIMIT here: H2 applies them before skipping locked rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT o FROM Order o WHERE o.id IN :ids AND o.courier IS NULL AND o.status = :status")
+    List<Order> claimUnassigned(@Param("ids") Collection<Long> ids, @Param("status") OrderStatus status);
+
+    /**
+     * Orders in {@code status} paid with {@code paymentMethod} whose payment has not gone through.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.status = :status AND o.paymentMethod = :paymentMethod AND o.createdAt < :cutoff
+              AND NOT EXISTS (SELECT p.id FROM Payment p WHERE p.order = o
+                              AND p.status = com.example.test.models.entities.enums.PaymentStatus.PAID)
+            ORDER BY o.id
+            """)
+    List<Long> lockUnpaidIdsCreatedBefore(@Param("status") OrderStatus status,
+                                          @Param("paymentMethod") PaymentMethod paymentMethod,
+                                          @Param("cutoff") LocalDateTime cutoff,
+                                          Pageable pageable);
+
+    @Query("""
+            SELECT o.id FROM Order o
+            WHERE o.status IN :statuses AND o.updatedAt < :cutoff
+              AND NOT EXISTS (SELECT 1 FROM Review r WHERE r.order = o)
+            ORDER BY o.id
+            """)
+    List<Long> findArchivableIds(@Param("statuses") Collection<OrderStatus> statuses,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+            WHERE o.id = :id AND o.status IN :sources
+            """)
+    int transitionStatus(@Param("id") Long id,
+                         @Param("sources") Collection<OrderStatus> sources,
+                         @Param("target") OrderStatus target,
+                         @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+            WHERE o.id = :id AND o.status IN :sources
+              AND o.restaurant.id IN (SELECT r.id FROM Restaurant r WHERE r.owner.id = :ownerId)
+              AND (:cardAllowed = true
+                   OR o.paymentMethod IS NULL
+                   OR o.paymentMethod <> com.example.test.models.entities.enums.PaymentMethod.CARD)
+            """)
+    int transitionStatusAsOwner(@Param("id") Long id,
+                                @Param("sources") Collection<OrderStatus> sources,
+                                @Param("target") OrderStatus target,
+                                @Param("ownerId") Long ownerId,
+                                @Param("cardAllowed") boolean cardAllowed,
+                                @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+            WHERE o.id = :id AND o.status IN :sources
+              AND o.courier.id IN (SELECT c.id FROM Courier c WHERE c.user.id = :courierUserId)
+            """)
+    int transitionStatusAsCourier(@Param("id") Long id,
+                                  @Param("sources") Collection<OrderStatus> sources,
+                                  @Param("target") OrderStatus target,
+                                  @Param("courierUserId") Long courierUserId,
+                                  @Param("now") LocalDateTime now);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+            UPDATE Order o SET o.status = :target, o.version = o.version + 1, o.updatedAt = :now
+            WHERE o.id IN :ids AND o.status IN :sources
+            """)
+    int transitionStatuses(@Param("ids") Collection<Long> ids,
+                           @Param("sources") Collection<OrderStatus> sources,
+                           @Param("target") OrderStatus target,
+                           @Param("now") LocalDateTime now);
+
+    @Query("""
+            SELECT new com.example.test.models.dtos.orderDto.OrderStatusSnapshot(
+                o.id, o.user.id, r.owner.id, o.status, o.paymentMethod, o.courier.id)
+            FROM Order o
+            LEFT JOIN o.restaurant r
+            WHERE o.id IN :ids
+            """)
+    List<OrderStatusSnapshot> findStatusSnapshots(@Param("ids") Collection<Long> ids);
+
     @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT o FROM Order o WHERE o.courier IS NULL AND o.status = :status")
-    List<Order> findByCourierIsNullAndStatus(@Param("status") OrderStatus status);
+    @Query("SELECT o.id FROM Order o WHERE o.id IN :ids ORDER BY o.id")
+    List<Long> lockIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Order o SET o.cookTime = :cookTime WHERE o.id = :id")
+    int updateCookTime(@Param("id") Long id, @Param("cookTime") int cookTime);
+
+    /**
+     * The latest {@code limit} stored cook times of each restaurant, oldest first per restaurant.
+     */
+    @Query(value = """
+            SELECT ranked.restaurant_id AS restaurantId, ranked.cook_time AS cookTime
+            FROM (SELECT o.id, o.restaurant_id, o.cook_time,
+                         ROW_NUMBER() OVER (PARTITION BY o.restaurant_id ORDER BY o.id DESC) AS position
+                  FROM orders o
+                  WHERE o.restaurant_id IN (:restaurantIds) AND o.cook_time IS NOT NULL) ranked
+            WHERE ranked.position <= :limit
+            ORDER BY ranked.restaurant_id, ranked.id
+            """, nativeQuery = true)
+    List<RestaurantCookTime> findRecentCookTimes(@Param("restaurantIds") Collection<Long> restaurantIds,
+                                                 @Param("limit") int limit);
+
+    @Query("""
+            SELECT new com.example.test.models.dtos.courierDto.CourierLoad(o.courier.id, COUNT(o))
+            FROM Order o
+            WHERE o.courier IS NOT NULL AND o.status IN :statuses
+            GROUP BY o.courier.id
+            """)
+    List<CourierLoad> findCourierLoads(@Param("statuses") Collection<OrderStatus> statuses);
+
+    /**
+     * Working couriers that can still take more orders from one of {@code restaurantIds}: every
+     * active order they carry comes from that restaurant and none is out for delivery yet.
+     */
+    @Query("""
+            SELECT new com.example.test.models.dtos.courierDto.CourierStack(c.id, c.vehicleType, MIN(o.restaurant.id), COUNT(o))
+            FROM Order o JOIN o.courier c
+            WHERE c.status = :courierStatus AND o.status IN :active
+            GROUP BY c.id, c.vehicleType
+            HAVING COUNT(DISTINCT o.restaurant.id) = 1
+               AND SUM(CASE WHEN o.status = :pickedUp THEN 1 ELSE 0 END) = 0
+               AND MIN(o.restaurant.id) IN :restaurantIds
+            """)
+    List<CourierStack> findOpenStacks(@Param("restaurantIds") Collection<Long> restaurantIds,
+                                      @Param("active") Collection<OrderStatus> active,
+                                      @Param("pickedUp") OrderStatus pickedUp,
+                                      @Param("courierStatus") CourierStatus courierStatus);
+
+    @Query("SELECT DISTINCT o.restaurant.id FROM Order o WHERE o.id IN :ids")
+    List<Long> findRestaurantIdsByIdIn(@Param("ids") Collection<Long> ids);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.example.test.models.dtos.orderDto.OrderExportRow(
+                o.id, o.user.id, o.restaurant.id, c.id, o.status, o.paymentMethod, o.totalPrice, o.createdAt, o.updatedAt)
+            FROM Order o
+            LEFT JOIN o.courier c
+            WHERE o.createdAt >= :from AND o.createdAt < :to
+            ORDER BY o.id
+            """)
+    Stream<OrderExportRow> streamForExport(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("""
+            SELECT new com.example.test.models.dtos.orderDto.OrderExportRow(
+                o.id, o.user.id, o.restaurant.id, c.id, o.status, o.paymentMethod, o.totalPrice, o.createdAt, o.updatedAt,
+                oi.id, mi.id, mi.name, oi.quantity, oi.price)
+            FROM Order o
+            LEFT JOIN o.courier c
+            LEFT JOIN o.orderItems oi
+            LEFT JOIN oi.menuItem mi
+            WHERE o.createdAt >= :from AND o.createdAt < :to
+            ORDER BY o.id, oi.id
+            """)
+    Stream<OrderExportRow> streamForExportWithItems(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
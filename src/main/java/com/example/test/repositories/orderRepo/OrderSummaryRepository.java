@@ -0,0 +1,57 @@
+package com.example.test.repositories.orderRepo;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.order.OrderSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long>, JpaSpecificationExecutor<OrderSummary> {
+
+    List<OrderSummary> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    List<OrderSummary> findByCourierIdAndStatusIn(Long courierId, Collection<OrderStatus> statuses);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.id = :orderId")
+    int updateStatus(@Param("orderId") Long orderId,
+                     @Param("status") OrderStatus status,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status, s.updatedAt = :updatedAt WHERE s.id IN :orderIds")
+    int updateStatuses(@Param("orderIds") Collection<Long> orderIds,
+                       @Param("status") OrderStatus status,
+                       @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.courierId = :courierId, s.status = :status, s.updatedAt = :updatedAt WHERE s.id = :orderId")
+    int updateCourier(@Param("orderId") Long orderId,
+                      @Param("courierId") Long courierId,
+                      @Param("status") OrderStatus status,
+                      @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.restaurantName = :name WHERE s.restaurantId = :restaurantId")
+    int updateRestaurantName(@Param("restaurantId") Long restaurantId, @Param("name") String name);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO order_summary (id, user_id, restaurant_id, restaurant_name, owner_id, courier_id,
+                                       status, payment_method, total_price, item_count, created_at, updated_at)
+            SELECT o.id, o.user_id, o.restaurant_id, r.name, r.owner_user_id, o.courier_id,
+                   o.status, o.payment_method, o.total_price,
+                   COALESCE((SELECT SUM(oi.quantity) FROM order_items oi WHERE oi.order_id = o.id), 0),
+                   o.created_at, o.updated_at
+            FROM orders o
+            LEFT JOIN restaurants r ON r.id = o.restaurant_id
+            WHERE NOT EXISTS (SELECT 1 FROM order_summary s WHERE s.id = o.id)
+            """, nativeQuery = true)
+    int backfillMissing();
+}
@@ -0,0 +1,50 @@
+package com.example.test.repositories.outboxRepo;
+
+import com.example.test.models.entities.outbox.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.LockOptions;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("""
+            SELECT e.id FROM OutboxEvent e
+            WHERE e.processedAt IS NULL AND e.attempts < :maxAttempts AND e.id > :afterId
+            ORDER BY e.id
+            """)
+    List<Long> findPendingIds(@Param("maxAttempts") int maxAttempts, @Param("afterId") long afterId, Pageable pageable);
+
+    /**
+     * Locks those of {@code ids} that are still pending, skipping rows another dispatcher holds, so
+     * instances running side by side deliver disjoint events. No ORDER BY or LIMIT here: H2 applies
+     * them before skipping locked rows.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "" + LockOptions.SKIP_LOCKED))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id IN :ids AND e.processedAt IS NULL AND e.attempts < :maxAttempts")
+    List<OutboxEvent> claim(@Param("ids") Collection<Long> ids, @Param("maxAttempts") int maxAttempts);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.processedAt = :processedAt WHERE e.id IN :ids")
+    int markProcessed(@Param("ids") Collection<Long> ids, @Param("processedAt") LocalDateTime processedAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1, e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") LocalDateTime before);
+}
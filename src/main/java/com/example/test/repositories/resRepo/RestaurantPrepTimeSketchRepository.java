@@ -0,0 +1,9 @@
+package com.example.test.repositories.resRepo;
+
+import com.example.test.models.entities.restaurant.RestaurantPrepTimeSketch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface RestaurantPrepTimeSketchRepository extends JpaRepository<RestaurantPrepTimeSketch, Long> {
+}
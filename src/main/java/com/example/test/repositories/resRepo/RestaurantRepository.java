@@ -1,14 +1,18 @@
 package com.example.test.repositories.resRepo;
 
+import com.example.test.models.dtos.restaurantDto.RestaurantPrepTimeHistory;
+import com.example.test.models.entities.restaurant.PrepTimeRing;
 import com.example.test.models.entities.restaurant.Restaurant;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
@@ -17,8 +21,25 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
 
     Optional<Restaurant> findByIdAndOwnerId(Long id, Long ownerId);
 
-    @Query("SELECT o.cookTime FROM Order o WHERE o.restaurant.id = :restaurantId AND o.cookTime IS NOT NULL ORDER BY o.createdAt DESC")
-    List<Integer> prepTimeHistoryMinutes(@Param("restaurantId") Long restaurantId, Pageable pageable);
+    @Query("""
+            SELECT new com.example.test.models.dtos.restaurantDto.RestaurantPrepTimeHistory(r.id, r.prepTimeHistory)
+            FROM Restaurant r
+            WHERE r.id IN :restaurantIds AND r.prepTimeHistory IS NOT NULL
+            """)
+    List<RestaurantPrepTimeHistory> findPrepTimeHistories(@Param("restaurantIds") Collection<Long> restaurantIds);
+
+    @Modifying
+    @Query("""
+            UPDATE Restaurant r SET r.prepTimeHistory = :next
+            WHERE r.id = :id AND r.prepTimeHistory = :current
+            """)
+    int replacePrepTimeHistory(@Param("id") Long id,
+                               @Param("current") PrepTimeRing current,
+                               @Param("next") PrepTimeRing next);
+
+    @Modifying
+    @Query("UPDATE Restaurant r SET r.prepTimeHistory = :next WHERE r.id = :id AND r.prepTimeHistory IS NULL")
+    int initPrepTimeHistory(@Param("id") Long id, @Param("next") PrepTimeRing next);
 
     @Query("SELECT r FROM Restaurant r JOIN r.menuItems mi WHERE mi.id = :menuItemId")
     Optional<Restaurant> findByMenuItemId(@Param("menuItemId") Long menuItemId);
@@ -26,6 +47,10 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     @Query("SELECT r FROM Restaurant r LEFT JOIN FETCH r.menuItems WHERE r.id = :id")
     Optional<Restaurant> findByIdWithMenuItems(@Param("id") Long id);
 
+    @Query("SELECT mi.id FROM Restaurant r JOIN r.menuItems mi WHERE r.id = :restaurantId AND mi.id IN :menuItemIds")
+    Set<Long> findMenuItemIdsInRestaurant(@Param("restaurantId") Long restaurantId,
+                                          @Param("menuItemIds") Collection<Long> menuItemIds);
+
 
 }
 
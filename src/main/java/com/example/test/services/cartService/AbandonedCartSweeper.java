@@ -0,0 +1,89 @@
+package com.example.test.services.cartService;
+
+import com.example.test.models.entities.cart.Cart;
+import com.example.test.repositories.cartRepo.CartItemRepository;
+import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.cartService.cartConfig.AbandonedCartProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Empties carts that have not been touched for {@code abandoned-cart.idle-minutes} and gives back
+ * whatever stock their owners still hold. Each run stops after {@code time-budget-ms}; the rest is
+ * picked up by the next run.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AbandonedCartSweeper {
+
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final StockReservationRepository reservationRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final CartStore cartStore;
+    private final AbandonedCartProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${abandoned-cart.check-delay-ms:600000}")
+    public void sweepAbandoned() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getIdleMinutes());
+        long deadline = System.currentTimeMillis() + properties.getTimeBudgetMs();
+        long afterId = 0;
+        int total = 0;
+        SweepResult chunk;
+        do {
+            chunk = sweepChunk(cutoff, afterId);
+            total += chunk.swept();
+            afterId = chunk.lastCartId();
+        } while (chunk.scanned() == properties.getChunkSize() && System.currentTimeMillis() < deadline);
+
+        if (total > 0) {
+            log.info("Emptied {} carts idle since before {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Sweeps the next chunk of idle carts after {@code afterId} in its own transaction. Each swept
+     * cart stays locked in {@link CartStore} until commit, so no edit can slip in between the check
+     * and the delete. Carts with an edit in memory are skipped; their database timestamp only lags
+     * until the next flush.
+     */
+    public SweepResult sweepChunk(LocalDateTime cutoff, long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Cart> carts = cartRepository.lockIdleWithItems(cutoff, afterId,
+                    PageRequest.of(0, properties.getChunkSize()));
+            if (carts.isEmpty()) {
+                return new SweepResult(0, 0, afterId);
+            }
+
+            Map<Long, Long> cartIdByUserId = carts.stream()
+                    .filter(cart -> cartStore.lockIfIdle(cart.getUser().getId()))
+                    .collect(Collectors.toMap(cart -> cart.getUser().getId(), Cart::getId));
+            if (!cartIdByUserId.isEmpty()) {
+                List<Long> reservationIds = reservationRepository.lockIdsByUserIdIn(cartIdByUserId.keySet());
+                if (!reservationIds.isEmpty()) {
+                    menuItemRepository.restockFromReservations(reservationIds);
+                    reservationRepository.deleteByIds(reservationIds);
+                }
+                cartItemRepository.deleteByCartIds(cartIdByUserId.values());
+                cartRepository.clearDeliveryTimes(cartIdByUserId.values());
+            }
+            return new SweepResult(carts.size(), cartIdByUserId.size(), carts.get(carts.size() - 1).getId());
+        });
+    }
+
+    public record SweepResult(int scanned, int swept, long lastCartId) {
+    }
+}
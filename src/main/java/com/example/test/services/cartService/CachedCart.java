@@ -0,0 +1,178 @@
+package com.example.test.services.cartService;
+
+import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartItemDto;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of one user's cart held by {@link CartStore}. Lines are keyed by their
+ * {@code cart_items} id. Every change bumps {@link #getVersion()}; the cart is dirty until
+ * the store has written that version back to the database.
+ * <p>
+ * The mutators and {@link #toDto()} are for the holder of the per-cart lock. Lock-free readers
+ * use {@link #view()}, which reads the immutable snapshot published when the last edit committed.
+ */
+@Getter
+public class CachedCart {
+
+    @Getter(AccessLevel.NONE)
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Long userId;
+    private Long cartId;
+    @Getter(AccessLevel.NONE)
+    private Map<Long, CartItemDto> lines;
+    private LocalDateTime updatedAt;
+    private LocalDateTime deliveryTime;
+    private volatile long version;
+    private volatile long flushedVersion;
+    @Getter(AccessLevel.NONE)
+    private volatile Snapshot published;
+
+    public CachedCart(Long userId, CartDto loaded) {
+        this.userId = userId;
+        this.lines = new LinkedHashMap<>();
+        if (loaded != null) {
+            this.cartId = loaded.getId();
+            this.updatedAt = loaded.getUpdatedAt();
+            this.deliveryTime = loaded.getDeliveryTime();
+            if (loaded.getItems() != null) {
+                loaded.getItems().forEach(item -> lines.put(item.getId(), copy(item)));
+            }
+        }
+        this.published = snapshot();
+    }
+
+    void lock() {
+        lock.lock();
+    }
+
+    boolean tryLock() {
+        return lock.tryLock();
+    }
+
+    void unlock() {
+        lock.unlock();
+    }
+
+    boolean isBusy() {
+        return isDirty() || lock.isLocked();
+    }
+
+    public boolean isDirty() {
+        return version != flushedVersion;
+    }
+
+    public Optional<CartItemDto> findLine(Long cartItemId) {
+        return Optional.ofNullable(lines.get(cartItemId));
+    }
+
+    public Optional<CartItemDto> findLineByMenuItem(Long menuItemId) {
+        return lines.values().stream()
+                .filter(line -> line.getMenuItemDto().getId().equals(menuItemId))
+                .findFirst();
+    }
+
+    public Optional<Long> firstMenuItemId() {
+        return lines.values().stream().findFirst().map(line -> line.getMenuItemDto().getId());
+    }
+
+    public void attach(Long cartId) {
+        this.cartId = cartId;
+    }
+
+    public void putLine(CartItemDto line) {
+        lines.put(line.getId(), copy(line));
+        changed();
+    }
+
+    public void setQuantity(Long cartItemId, int quantity) {
+        lines.get(cartItemId).setQuantity(quantity);
+        changed();
+    }
+
+    public void removeLine(Long cartItemId) {
+        lines.remove(cartItemId);
+        changed();
+    }
+
+    public void clear() {
+        lines.clear();
+        deliveryTime = null;
+        changed();
+    }
+
+    public void setDeliveryTime(LocalDateTime deliveryTime) {
+        this.deliveryTime = deliveryTime;
+        changed();
+    }
+
+    public CartDto toDto() {
+        return toDto(cartId, lines, updatedAt, deliveryTime);
+    }
+
+    /**
+     * The cart as of the last committed edit. Safe to call without the lock.
+     */
+    public CartDto view() {
+        Snapshot state = published;
+        return toDto(state.cartId(), state.lines(), state.updatedAt(), state.deliveryTime());
+    }
+
+    void publish() {
+        published = snapshot();
+    }
+
+    Snapshot snapshot() {
+        Map<Long, CartItemDto> copied = new LinkedHashMap<>();
+        lines.forEach((id, line) -> copied.put(id, copy(line)));
+        return new Snapshot(cartId, copied, updatedAt, deliveryTime, version);
+    }
+
+    void restore(Snapshot snapshot) {
+        cartId = snapshot.cartId();
+        lines = snapshot.lines();
+        updatedAt = snapshot.updatedAt();
+        deliveryTime = snapshot.deliveryTime();
+        version = snapshot.version();
+    }
+
+    void markFlushed(long flushed) {
+        flushedVersion = Math.max(flushedVersion, flushed);
+    }
+
+    private void changed() {
+        version++;
+        updatedAt = LocalDateTime.now();
+    }
+
+    private CartDto toDto(Long cartId, Map<Long, CartItemDto> lines, LocalDateTime updatedAt,
+                          LocalDateTime deliveryTime) {
+        CartDto dto = new CartDto();
+        dto.setId(cartId);
+        dto.setUserId(userId);
+        dto.setItems(new ArrayList<>(lines.values().stream().map(CachedCart::copy).toList()));
+        dto.setUpdatedAt(updatedAt);
+        dto.setDeliveryTime(deliveryTime);
+        return dto;
+    }
+
+    private static CartItemDto copy(CartItemDto line) {
+        CartItemDto copy = new CartItemDto();
+        copy.setId(line.getId());
+        copy.setMenuItemDto(line.getMenuItemDto());
+        copy.setQuantity(line.getQuantity());
+        return copy;
+    }
+
+    record Snapshot(Long cartId, Map<Long, CartItemDto> lines, LocalDateTime updatedAt,
+                    LocalDateTime deliveryTime, long version) {
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.test.services.cartService;
 
 import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartLineRequest;
+
+import java.util.List;
 
 public interface CartService {
 
@@ -13,4 +16,10 @@ public interface CartService {
     void removeItem(Long userId, Long cartItemId);
 
     void clearCart(Long userId);
+
+    /**
+     * Makes the cart contain exactly the given items, e.g. for a reorder or an offline sync.
+     * All new and increased items are validated with one query and reserved with one update.
+     */
+    CartDto replaceCart(Long userId, List<CartLineRequest> items);
 }
\ No newline at end of file
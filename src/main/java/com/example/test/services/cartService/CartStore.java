@@ -0,0 +1,248 @@
+package com.example.test.services.cartService;
+
+import com.example.test.models.entities.cart.CartItem;
+import com.example.test.models.mappers.cartMapper.CartMapper;
+import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.services.cartService.cartConfig.CartStoreProperties;
+import com.example.test.services.support.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind store of carts keyed by user id. Reads are served from memory and loaded from
+ * {@code carts}/{@code cart_items} on a miss; edits are applied in memory and written back by
+ * {@link #flushDirty()}. Dirty or locked carts are never evicted, so {@code max-size} is exceeded
+ * only until the next flush.
+ * <p>
+ * The store is per instance: it assumes a user's cart requests are served by one node.
+ */
+@Component
+@Slf4j
+public class CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartMapper cartMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final CartStoreProperties properties;
+    private final Map<Long, CachedCart> carts;
+    private final Set<Long> dirtyUserIds = ConcurrentHashMap.newKeySet();
+
+    public CartStore(CartRepository cartRepository,
+                     CartMapper cartMapper,
+                     TransactionTemplate transactionTemplate,
+                     CartStoreProperties properties) {
+        this.cartRepository = cartRepository;
+        this.cartMapper = cartMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.carts = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedCart> eldest) {
+                trim();
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the user's cart, loading it on a miss. A user without a cart gets an empty one
+     * that only reaches the database once an item is added. Callers that do not hold the cart
+     * through {@link #edit(Long)} must read it via {@link CachedCart#view()}.
+     */
+    public CachedCart get(Long userId) {
+        CachedCart cached;
+        synchronized (carts) {
+            cached = carts.get(userId);
+        }
+        if (cached != null) {
+            return cached;
+        }
+
+        CachedCart loaded = new CachedCart(userId,
+                cartRepository.findByUserIdWithItems(userId).map(cartMapper::toDto).orElse(null));
+        synchronized (carts) {
+            CachedCart raced = carts.putIfAbsent(userId, loaded);
+            return raced != null ? raced : loaded;
+        }
+    }
+
+    /**
+     * Locks the user's cart for the current transaction. Changes made to it become visible to the
+     * flusher on commit and are rolled back in memory if the transaction rolls back.
+     */
+    public CachedCart edit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cart edits must run inside a transaction");
+        }
+
+        CachedCart cart;
+        while (true) {
+            cart = get(userId);
+            cart.lock();
+            synchronized (carts) {
+                if (carts.get(userId) == cart) {
+                    break;
+                }
+            }
+            cart.unlock();
+        }
+
+        CachedCart locked = cart;
+        CachedCart.Snapshot before = cart.snapshot();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    locked.restore(before);
+                } else {
+                    locked.publish();
+                    if (locked.isDirty()) {
+                        dirtyUserIds.add(userId);
+                    }
+                }
+                locked.unlock();
+            }
+        });
+        return cart;
+    }
+
+    /**
+     * Writes the user's pending changes now, joining the caller's transaction if there is one.
+     */
+    public void flush(Long userId) {
+        CachedCart cart;
+        synchronized (carts) {
+            cart = carts.get(userId);
+        }
+        if (cart == null || !cart.isDirty()) {
+            return;
+        }
+
+        cart.lock();
+        try {
+            CachedCart.Snapshot state = cart.snapshot();
+            transactionTemplate.executeWithoutResult(status -> {
+                write(userId, state);
+                AfterCommit.run(() -> {
+                    cart.markFlushed(state.version());
+                    if (cart.isDirty()) {
+                        dirtyUserIds.add(userId);
+                    }
+                });
+            });
+        } finally {
+            cart.unlock();
+        }
+    }
+
+    /**
+     * Drops the user's cart from memory once the current transaction commits, e.g. after checkout
+     * has emptied it in the database.
+     */
+    public void evict(Long userId) {
+        AfterCommit.run(() -> {
+            synchronized (carts) {
+                carts.remove(userId);
+            }
+            dirtyUserIds.remove(userId);
+        });
+    }
+
+    /**
+     * Locks the user's cart for the current transaction if it is idle, i.e. neither being edited
+     * nor waiting to be written back, and drops it from memory when the transaction completes.
+     * Returns {@code false} without waiting if the cart is busy. A cart that is not in memory is
+     * held by an empty placeholder, so an edit that starts meanwhile waits and then reloads it.
+     */
+    public boolean lockIfIdle(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Cart locks must be taken inside a transaction");
+        }
+
+        CachedCart cart;
+        synchronized (carts) {
+            cart = carts.computeIfAbsent(userId, id -> new CachedCart(id, null));
+            if (!cart.tryLock()) {
+                return false;
+            }
+        }
+        if (cart.isDirty()) {
+            cart.unlock();
+            return false;
+        }
+
+        CachedCart locked = cart;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                // The cart is clean either way, so dropping it after a rollback only costs a reload.
+                synchronized (carts) {
+                    carts.remove(userId, locked);
+                }
+                locked.unlock();
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${cart-store.flush-delay-ms:2000}")
+    public void flushDirty() {
+        List<Long> userIds = new ArrayList<>(dirtyUserIds);
+        dirtyUserIds.removeAll(userIds);
+        for (Long userId : userIds) {
+            try {
+                flush(userId);
+            } catch (RuntimeException e) {
+                log.warn("Flushing cart of user {} failed, will retry", userId, e);
+                dirtyUserIds.add(userId);
+            }
+        }
+        trim();
+    }
+
+    public int size() {
+        synchronized (carts) {
+            return carts.size();
+        }
+    }
+
+    private void write(Long userId, CachedCart.Snapshot state) {
+        cartRepository.findByUserIdWithItems(userId).ifPresent(cart -> {
+            cart.getItems().removeIf(item -> !state.lines().containsKey(item.getId()));
+            for (CartItem item : cart.getItems()) {
+                item.setQuantity(state.lines().get(item.getId()).getQuantity());
+            }
+            cart.setDeliveryTime(state.deliveryTime());
+        });
+        // Removed lines must be gone before a re-added item inserts the same (cart, menu item) pair.
+        cartRepository.flush();
+    }
+
+    /**
+     * Evicts least recently used carts that are neither dirty nor locked. The most recent entry is
+     * always kept, since it may have just been handed out by {@link #get(Long)}.
+     */
+    private void trim() {
+        synchronized (carts) {
+            int remaining = carts.size();
+            Iterator<CachedCart> eldestFirst = carts.values().iterator();
+            while (carts.size() > properties.getMaxSize() && remaining-- > 1) {
+                if (!eldestFirst.next().isBusy()) {
+                    eldestFirst.remove();
+                }
+            }
+        }
+    }
+}
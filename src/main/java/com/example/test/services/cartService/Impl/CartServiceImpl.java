@@ -2,25 +2,36 @@ package com.example.test.services.cartService.Impl;
 
 import com.example.test.exceptions.NotFoundException;
 import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartItemDto;
+import com.example.test.models.dtos.cartDto.CartLineRequest;
+import com.example.test.models.dtos.cartDto.MenuItemOffer;
 import com.example.test.models.entities.cart.Cart;
 import com.example.test.models.entities.cart.CartItem;
 import com.example.test.models.entities.cart.MenuItem;
 import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
-import com.example.test.models.mappers.cartMapper.CartMapper;
+import com.example.test.models.mappers.cartMapper.CartItemMapper;
 import com.example.test.repositories.cartRepo.CartItemRepository;
 import com.example.test.repositories.cartRepo.CartRepository;
 import com.example.test.repositories.cartRepo.MenuItemRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.cartService.CachedCart;
 import com.example.test.services.cartService.CartService;
-import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.cartService.CartStore;
+import com.example.test.services.etaService.EtaSnapshotService;
+import com.example.test.services.stockService.StockReservationService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,14 +43,17 @@ public class CartServiceImpl implements CartService {
     private final MenuItemRepository menuItemRepository;
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
-    private final EtaCalculationService etaService;
-    private final CartMapper cartMapper;
+    private final EtaSnapshotService etaSnapshotService;
+    private final CartItemMapper cartItemMapper;
+    private final CartStore cartStore;
+    private final StockReservationService stockReservationService;
 
     @Transactional(readOnly = true)
     public CartDto getCurrentCart(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> createAndSaveNewCart(userId));
-        return cartMapper.toDto(cart);
+        CartDto dto = cartStore.get(userId).view();
+        dto.getItems().stream().findFirst().ifPresent(line -> dto.setDeliveryTime(
+                estimateDelivery(etaSnapshotService.etaMinutesForMenuItem(line.getMenuItemDto().getId()))));
+        return dto;
     }
 
 
@@ -49,7 +63,6 @@ public class CartServiceImpl implements CartService {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
 
-        Cart cart = getOrCreateCart(userId);
         MenuItem menuItem = menuItemRepository.findById(menuItemId)
                 .orElseThrow(() -> new NotFoundException("Menu item not found"));
 
@@ -64,30 +77,33 @@ public class CartServiceImpl implements CartService {
             throw new IllegalStateException("Menu item is not available");
         }
 
-        if (menuItem.getQuantity() < quantity) {
+        if (!stockReservationService.reserve(userId, menuItemId, quantity)) {
             throw new IllegalStateException("Not enough stock!");
         }
 
-        menuItem.setQuantity(menuItem.getQuantity() - quantity);
-        menuItemRepository.save(menuItem);
-
-        CartItem item = cart.getItems().stream()
-                .filter(ci -> ci.getMenuItem().getId().equals(menuItemId))
-                .findFirst()
-                .orElseGet(() -> {
-                    CartItem newItem = new CartItem();
-                    newItem.setCart(cart);
-                    newItem.setMenuItem(menuItem);
-                    newItem.setQuantity(0);
-                    cart.getItems().add(newItem);
-                    return newItem;
-                });
-
-        item.setQuantity(item.getQuantity() + quantity);
-        cartItemRepository.save(item);
+        CachedCart cart = cartStore.edit(userId);
+        CartItemDto existing = cart.findLineByMenuItem(menuItemId).orElse(null);
+        if (existing != null) {
+            cart.setQuantity(existing.getId(), existing.getQuantity() + quantity);
+        } else {
+            // New lines are inserted right away because the API addresses them by id.
+            // Pending removals are written first so the (cart, menu item) key is free again.
+            cartStore.flush(userId);
+            CartItem item = new CartItem();
+            item.setCart(cart.getCartId() != null
+                    ? cartRepository.getReferenceById(cart.getCartId())
+                    : createCart(cart));
+            item.setMenuItem(menuItem);
+            item.setQuantity(quantity);
+            cart.putLine(cartItemMapper.toDto(cartItemRepository.save(item)));
+        }
 
-        recalculateEta(cart);
-        return cartMapper.toDto(cartRepository.save(cart));
+        if (cart.firstMenuItemId().filter(menuItemId::equals).isPresent()) {
+            cart.setDeliveryTime(estimateDelivery(etaSnapshotService.etaMinutes(restaurant)));
+        } else {
+            recalculateEta(cart);
+        }
+        return cart.toDto();
     }
 
     @Override
@@ -96,101 +112,160 @@ public class CartServiceImpl implements CartService {
             throw new IllegalArgumentException("Quantity must be greater than 0");
         }
 
-        Cart cart = getCart(userId);
-        CartItem item = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new NotFoundException("Cart item not found"));
+        CachedCart cart = cartStore.edit(userId);
+        CartItemDto line = getLine(cart, cartItemId, "Item does not belong to your cart");
 
-        if (!item.getCart().getId().equals(cart.getId())) {
-            throw new AccessDeniedException("Item does not belong to your cart");
-        }
-
-        MenuItem menuItem = item.getMenuItem();
-        int oldQuantity = item.getQuantity();
-        int diff = newQuantity - oldQuantity;
+        Long menuItemId = line.getMenuItemDto().getId();
+        int diff = newQuantity - line.getQuantity();
 
-        if (diff > 0) {
-            if (menuItem.getQuantity() < diff) {
-                throw new IllegalStateException("Not enough stock to increase quantity!");
-            }
-            menuItem.setQuantity(menuItem.getQuantity() - diff);
+        if (diff > 0 && !stockReservationService.reserve(userId, menuItemId, diff)) {
+            throw new IllegalStateException("Not enough stock to increase quantity!");
         } else if (diff < 0) {
-            menuItem.setQuantity(menuItem.getQuantity() + Math.abs(diff));
+            stockReservationService.release(userId, menuItemId, -diff);
         }
 
-        item.setQuantity(newQuantity);
-        menuItemRepository.save(menuItem);
-        cartItemRepository.save(item);
-
+        cart.setQuantity(cartItemId, newQuantity);
         recalculateEta(cart);
-        return cartMapper.toDto(cart);
+        return cart.toDto();
     }
 
     @Override
     public void removeItem(Long userId, Long cartItemId) {
-        Cart cart = getCart(userId);
-        CartItem item = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new NotFoundException("Cart item not found"));
+        CachedCart cart = cartStore.edit(userId);
+        CartItemDto line = getLine(cart, cartItemId, "Access denied");
 
-        if (!item.getCart().getId().equals(cart.getId())) {
-            throw new AccessDeniedException("Access denied");
-        }
-
-        MenuItem menuItem = item.getMenuItem();
-        menuItem.setQuantity(menuItem.getQuantity() + item.getQuantity());
-        menuItemRepository.save(menuItem);
-
-        cart.getItems().remove(item);
-        cartItemRepository.delete(item);
+        stockReservationService.release(userId, line.getMenuItemDto().getId(), line.getQuantity());
 
+        cart.removeLine(cartItemId);
         recalculateEta(cart);
-        cartRepository.save(cart);
     }
 
     @Override
     public void clearCart(Long userId) {
-        Cart cart = getCart(userId);
+        CachedCart cart = cartStore.edit(userId);
+        if (cart.getCartId() == null) {
+            throw new NotFoundException("Cart not found");
+        }
+
+        stockReservationService.releaseAll(userId);
+        cart.clear();
+    }
+
+    @Override
+    public CartDto replaceCart(Long userId, List<CartLineRequest> items) {
+        Map<Long, Integer> desired = new LinkedHashMap<>();
+        for (CartLineRequest item : items) {
+            if (desired.put(item.menuItemId(), item.quantity()) != null) {
+                throw new IllegalArgumentException("Menu item " + item.menuItemId() + " is listed more than once");
+            }
+        }
+
+        CachedCart cart = cartStore.edit(userId);
+        Map<Long, CartItemDto> current = cart.toDto().getItems().stream()
+                .collect(Collectors.toMap(line -> line.getMenuItemDto().getId(), Function.identity()));
 
-        for (CartItem item : cart.getItems()) {
-            MenuItem menuItem = item.getMenuItem();
-            menuItem.setQuantity(menuItem.getQuantity() + item.getQuantity());
-            menuItemRepository.save(menuItem);
+        Map<Long, Integer> increases = new LinkedHashMap<>();
+        desired.forEach((menuItemId, quantity) -> {
+            CartItemDto line = current.get(menuItemId);
+            int held = line == null ? 0 : line.getQuantity();
+            if (quantity > held) {
+                increases.put(menuItemId, quantity - held);
+            }
+        });
+        Map<Long, MenuItem> menuItems = checkOffers(increases);
+        stockReservationService.reserveAll(userId, increases);
+
+        current.forEach((menuItemId, line) -> {
+            Integer quantity = desired.getOrDefault(menuItemId, 0);
+            if (quantity < line.getQuantity()) {
+                stockReservationService.release(userId, menuItemId, line.getQuantity() - quantity);
+            }
+            if (quantity == 0) {
+                cart.removeLine(line.getId());
+            } else if (!quantity.equals(line.getQuantity())) {
+                cart.setQuantity(line.getId(), quantity);
+            }
+        });
+
+        List<CartItem> added = desired.entrySet().stream()
+                .filter(entry -> !current.containsKey(entry.getKey()))
+                .map(entry -> {
+                    CartItem item = new CartItem();
+                    item.setMenuItem(menuItems.get(entry.getKey()));
+                    item.setQuantity(entry.getValue());
+                    return item;
+                })
+                .toList();
+        if (!added.isEmpty()) {
+            cartStore.flush(userId);
+            Cart cartRef = cart.getCartId() != null
+                    ? cartRepository.getReferenceById(cart.getCartId())
+                    : createCart(cart);
+            added.forEach(item -> item.setCart(cartRef));
+            cartItemRepository.saveAll(added).forEach(item -> cart.putLine(cartItemMapper.toDto(item)));
         }
 
-        cartItemRepository.deleteAll(cart.getItems());
-        cart.getItems().clear();
-        cart.setDeliveryTime(null);
-        cartRepository.save(cart);
+        recalculateEta(cart);
+        return cart.toDto();
     }
 
-    private Cart getCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseThrow(() -> new NotFoundException("Cart not found"));
+    /**
+     * Loads the items whose quantity grows, checking availability and stock in one query.
+     */
+    private Map<Long, MenuItem> checkOffers(Map<Long, Integer> increases) {
+        if (increases.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, MenuItemOffer> offers = menuItemRepository.findOffersByIdIn(increases.keySet()).stream()
+                .collect(Collectors.toMap(offer -> offer.menuItem().getId(), Function.identity()));
+        Map<Long, MenuItem> menuItems = new LinkedHashMap<>();
+        increases.forEach((menuItemId, quantity) -> {
+            MenuItemOffer offer = offers.get(menuItemId);
+            if (offer == null) {
+                throw new NotFoundException("Menu item not found");
+            }
+            MenuItem menuItem = offer.menuItem();
+            if (!offer.restaurantOpen()) {
+                throw new IllegalStateException("Restaurant is currently closed");
+            }
+            if (!menuItem.isAvailable()) {
+                throw new IllegalStateException("Menu item '" + menuItem.getName() + "' is not available");
+            }
+            if (menuItem.getQuantity() < quantity) {
+                throw new IllegalStateException("Not enough stock for '" + menuItem.getName() + "'");
+            }
+            menuItems.put(menuItemId, menuItem);
+        });
+        return menuItems;
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> createAndSaveNewCart(userId));
+    private CartItemDto getLine(CachedCart cart, Long cartItemId, String foreignItemMessage) {
+        if (cart.getCartId() == null) {
+            throw new NotFoundException("Cart not found");
+        }
+        return cart.findLine(cartItemId).orElseThrow(() -> cartItemRepository.existsById(cartItemId)
+                ? new AccessDeniedException(foreignItemMessage)
+                : new NotFoundException("Cart item not found"));
     }
 
-    private Cart createAndSaveNewCart(Long userId) {
-        User user = userRepository.findById(userId)
+    private Cart createCart(CachedCart cached) {
+        User user = userRepository.findById(cached.getUserId())
                 .orElseThrow(() -> new NotFoundException("User not found"));
         Cart cart = new Cart();
         cart.setUser(user);
-        return cartRepository.save(cart);
+        cart = cartRepository.save(cart);
+        cached.attach(cart.getId());
+        return cart;
     }
 
-    private void recalculateEta(Cart cart) {
-        if (cart.getItems().isEmpty()) {
-            cart.setDeliveryTime(null);
-            return;
-        }
-
-        Long firstMenuItemId = cart.getItems().get(0).getMenuItem().getId();
-        Restaurant restaurant = restaurantRepository.findByMenuItemId(firstMenuItemId)
-                .orElseThrow(() -> new IllegalStateException("Restaurant not found for menu item"));
+    private void recalculateEta(CachedCart cart) {
+        cart.setDeliveryTime(cart.firstMenuItemId()
+                .map(menuItemId -> estimateDelivery(etaSnapshotService.etaMinutesForMenuItem(menuItemId)))
+                .orElse(null));
+    }
 
-        int etaMinutes = etaService.calculateEtaMinutes(restaurant);
-        cart.setDeliveryTime(LocalDateTime.now().plusMinutes(etaMinutes));
+    private LocalDateTime estimateDelivery(int etaMinutes) {
+        return LocalDateTime.now().plusMinutes(etaMinutes);
     }
 }
@@ -0,0 +1,21 @@
+package com.example.test.services.cartService.cartConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "abandoned-cart")
+@Getter
+@Setter
+public class AbandonedCartProperties {
+
+    private int idleMinutes = 1440;
+
+    private int chunkSize = 200;
+
+    private long timeBudgetMs = 5000;
+
+    private long checkDelayMs = 600_000;
+}
@@ -0,0 +1,17 @@
+package com.example.test.services.cartService.cartConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "cart-store")
+@Getter
+@Setter
+public class CartStoreProperties {
+
+    private int maxSize = 10_000;
+
+    private long flushDelayMs = 2000;
+}
@@ -8,4 +8,6 @@ public interface CourierAssignmentService {
     void assignOrderToCourier(Long courierId, Long orderId);
 
     List<OrderDto> getActiveOrders(Long courierId);
+
+    void assignCouriers();
 }
@@ -1,22 +1,43 @@
 package com.example.test.services.courierService;
 
 import com.example.test.exceptions.NotFoundException;
+import com.example.test.models.dtos.courierDto.CourierLoad;
+import com.example.test.models.dtos.courierDto.CourierStack;
 import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.entities.courier.Courier;
 import com.example.test.models.entities.enums.CourierStatus;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.order.Order;
-import com.example.test.models.mappers.orderMapper.OrderMapper;
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
 import com.example.test.repositories.courierRepo.CourierRepository;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import com.example.test.services.courierService.assignment.CourierAssignmentStrategy;
+import com.example.test.services.courierService.assignment.DispatchCourier;
+import com.example.test.services.courierService.assignment.DispatchOrder;
+import com.example.test.services.etaService.EtaSnapshotService;
+import com.example.test.services.orderService.OrderSummaryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.Iterator;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,7 +46,14 @@ public class CourierAssignmentServiceImpl implements CourierAssignmentService {
 
     private final OrderRepository orderRepository;
     private final CourierRepository courierRepository;
-    private final OrderMapper orderMapper;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryMapper orderSummaryMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final EtaSnapshotService etaSnapshotService;
+    private final CourierDispatchProperties dispatchProperties;
+    private final CourierAssignmentStrategy assignmentStrategy;
+    private final TransactionTemplate transactionTemplate;
+    private final CourierWorkloadRegistry workloadRegistry;
 
 
     @Override
@@ -53,67 +81,228 @@ public class CourierAssignmentServiceImpl implements CourierAssignmentService {
 
         orderRepository.save(order);
         courierRepository.save(courier);
+        orderSummaryService.onCourierAssigned(order.getId(), courier.getId(), order.getStatus());
+        workloadRegistry.orderAssigned(courier.getId());
+        workloadRegistry.availabilityChanged(courier.getId(), false);
+        etaSnapshotService.invalidateCourierLoad();
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getActiveOrders(Long courierId) {
 
-        return orderRepository
+        return orderSummaryRepository
                 .findByCourierIdAndStatusIn(
                         courierId,
                         List.of(
                                 OrderStatus.CONFIRMED,
+                                OrderStatus.COOKED,
                                 OrderStatus.IN_DELIVERY
                         )
                 )
                 .stream()
-                .map(orderMapper::toDto)
+                .map(orderSummaryMapper::toDto)
                 .toList();
 
     }
 
-    @Scheduled(fixedDelay = 60_000)
-    @Transactional
+    /**
+     * Matches unassigned orders, oldest first, to couriers. Orders from the same restaurant are
+     * stacked on one courier up to its vehicle's capacity: they first join a working courier who is
+     * still waiting for pickup there, and the rest go to available couriers chosen by the configured
+     * {@link CourierAssignmentStrategy} for the oldest order of each restaurant.
+     * <p>
+     * Orders are claimed in id windows of {@code courier-dispatch.claim-chunk-size} with
+     * {@code FOR UPDATE SKIP LOCKED}, and each window commits on its own, so several nodes can
+     * dispatch disjoint orders at the same time. Couriers are locked in id order and re-checked, so
+     * one courier never ends up over capacity or on two nodes' orders. Triggered through
+     * {@link CourierDispatchQueue}.
+     */
+    @Override
     public void assignCouriers() {
+        int chunkSize = dispatchProperties.getClaimChunkSize();
+        long afterId = 0;
+        int assigned = 0;
 
-        List<Order> orders = orderRepository.findByCourierIsNullAndStatus(OrderStatus.CONFIRMED);
+        while (true) {
+            long cursor = afterId;
+            ClaimResult chunk = transactionTemplate.execute(status -> claimChunk(cursor, chunkSize));
+            assigned += chunk.assigned();
+            if (chunk.scanned() < chunkSize || !chunk.couriersLeft()) {
+                break;
+            }
+            afterId = chunk.lastOrderId();
+        }
 
-        if (orders.isEmpty()) {
-            return;
+        if (assigned > 0) {
+            etaSnapshotService.invalidateCourierLoad();
         }
+    }
 
-        List<Courier> couriers = courierRepository.findByStatus(CourierStatus.AVAILABLE);
+    private ClaimResult claimChunk(long afterId, int chunkSize) {
+        List<Long> orderIds = orderRepository.findUnassignedIds(OrderStatus.CONFIRMED, afterId, PageRequest.of(0, chunkSize));
 
-        if (couriers.isEmpty()) {
-            log.info("No available couriers");
-            return;
+        if (orderIds.isEmpty()) {
+            return new ClaimResult(0, afterId, 0, true);
         }
+        long lastOrderId = orderIds.get(orderIds.size() - 1);
+
+        List<Order> orders = new ArrayList<>(orderRepository.claimUnassigned(orderIds, OrderStatus.CONFIRMED));
+        orders.sort(Comparator.comparing(Order::getId));
 
-        Iterator<Courier> courierIterator = couriers.iterator();
+        if (orders.isEmpty()) {
+            return new ClaimResult(orderIds.size(), lastOrderId, 0, true);
+        }
 
+        // One stack per restaurant, oldest first; orders without a restaurant travel alone.
+        Map<Long, Deque<Order>> stacksByRestaurant = new HashMap<>();
+        List<Deque<Order>> waiting = new ArrayList<>();
         for (Order order : orders) {
+            Long restaurantId = order.getRestaurant() == null ? null : order.getRestaurant().getId();
+            Deque<Order> stack = restaurantId == null ? null : stacksByRestaurant.get(restaurantId);
+            if (stack == null) {
+                stack = new ArrayDeque<>();
+                waiting.add(stack);
+                if (restaurantId != null) {
+                    stacksByRestaurant.put(restaurantId, stack);
+                }
+            }
+            stack.add(order);
+        }
+
+        // Planned orders by courier id; applied in id order so concurrent dispatchers lock couriers consistently.
+        Map<Long, List<Order>> planned = new TreeMap<>();
+        Set<Long> joining = new HashSet<>();
+
+        if (!stacksByRestaurant.isEmpty()) {
+            for (CourierStack open : orderRepository.findOpenStacks(stacksByRestaurant.keySet(), OrderStatus.activeForCourier(),
+                    OrderStatus.IN_DELIVERY, CourierStatus.WORKING)) {
+                int spare = dispatchProperties.capacity(open.vehicleType()) - (int) open.orders();
+                Deque<Order> stack = stacksByRestaurant.get(open.restaurantId());
+                if (spare > 0 && stack != null && !stack.isEmpty()) {
+                    planned.put(open.courierId(), take(stack, spare));
+                    joining.add(open.courierId());
+                }
+            }
+            waiting.removeIf(Deque::isEmpty);
+        }
+
+        // Only a chunk that needed available couriers and ran out of them stops the walk.
+        boolean needsCouriers = !waiting.isEmpty();
+        List<Courier> couriers = needsCouriers ? courierRepository.findByStatus(CourierStatus.AVAILABLE) : List.of();
+        Map<Long, Courier> couriersById = new HashMap<>();
+        List<DispatchCourier> candidates = new ArrayList<>();
+        if (!couriers.isEmpty()) {
+            Map<Long, Long> loadByCourierId = orderRepository.findCourierLoads(OrderStatus.activeForCourier()).stream()
+                    .collect(Collectors.toMap(CourierLoad::courierId, CourierLoad::activeOrders));
+            for (Courier courier : couriers) {
+                long activeOrders = loadByCourierId.getOrDefault(courier.getId(), 0L);
+                if (activeOrders >= dispatchProperties.capacity(courier.getVehicleType())) {
+                    continue;
+                }
+                couriersById.put(courier.getId(), courier);
+                candidates.add(new DispatchCourier(courier.getId(), courier.getLatitude(), courier.getLongitude(),
+                        courier.getVehicleType(), activeOrders));
+            }
+        } else if (!waiting.isEmpty()) {
+            log.info("No available couriers");
+        }
 
-            if (!courierIterator.hasNext()) {
-                log.info("Not enough couriers for remaining orders");
+        // Stacks are handed to the strategy by their oldest order, in batches no larger than the
+        // number of couriers left, so every stack of a batch is served and older orders never lose
+        // their courier to newer ones.
+        while (!waiting.isEmpty() && !candidates.isEmpty()) {
+            int batchSize = Math.min(Math.min(dispatchProperties.getMaxBatchOrders(), candidates.size()), waiting.size());
+            Map<Long, Deque<Order>> stacksByLeadId = new HashMap<>();
+            List<DispatchOrder> batch = new ArrayList<>();
+            for (Deque<Order> stack : waiting.subList(0, batchSize)) {
+                stacksByLeadId.put(stack.peekFirst().getId(), stack);
+                batch.add(toDispatchOrder(stack.peekFirst()));
+            }
+
+            Map<Long, Long> assignments = assignmentStrategy.assign(batch, List.copyOf(candidates));
+            if (assignments.isEmpty()) {
                 break;
             }
+            Map<Long, DispatchCourier> candidatesById = candidates.stream()
+                    .collect(Collectors.toMap(DispatchCourier::courierId, Function.identity()));
+            assignments.forEach((orderId, courierId) -> {
+                DispatchCourier courier = candidatesById.get(courierId);
+                int room = dispatchProperties.capacity(courier.vehicleType()) - (int) courier.activeOrders();
+                if (room > 0) {
+                    planned.put(courierId, take(stacksByLeadId.get(orderId), room));
+                }
+            });
+            Set<Long> taken = new HashSet<>(assignments.values());
+            candidates.removeIf(candidate -> taken.contains(candidate.courierId()));
+            waiting.removeIf(Deque::isEmpty);
+        }
 
-            Courier courier = courierIterator.next();
+        if (!waiting.isEmpty()) {
+            log.info("Not enough couriers for remaining orders");
+        }
 
-            order.setCourier(courier);
+        int assigned = 0;
+        for (Map.Entry<Long, List<Order>> plan : planned.entrySet()) {
+            assigned += joining.contains(plan.getKey())
+                    ? join(plan.getKey(), plan.getValue())
+                    : start(couriersById.get(plan.getKey()), plan.getValue());
+        }
+        return new ClaimResult(orderIds.size(), lastOrderId, assigned, !needsCouriers || !candidates.isEmpty());
+    }
 
-            courier.setStatus(CourierStatus.WORKING);
-            courier.setAvailable(false);
+    /**
+     * Adds orders to a working courier's stack, re-checking its load under the courier's row lock.
+     */
+    private int join(Long courierId, List<Order> orders) {
+        Courier courier = courierRepository.findWithLockByIdAndStatus(courierId, CourierStatus.WORKING).orElse(null);
+        if (courier == null) {
+            return 0;
+        }
+        long load = orderRepository.countByCourierIdAndStatusIn(courierId, OrderStatus.activeForCourier());
+        int spare = (int) Math.max(0, Math.min(orders.size(), dispatchProperties.capacity(courier.getVehicleType()) - load));
+        orders.subList(0, spare).forEach(order -> assign(order, courier));
+        return spare;
+    }
 
-            orderRepository.save(order);
-            courierRepository.save(courier);
+    private int start(Courier courier, List<Order> orders) {
+        if (courierRepository.claim(courier.getId(), CourierStatus.AVAILABLE, CourierStatus.WORKING) == 0) {
+            log.debug("Courier {} was taken by another dispatcher", courier.getId());
+            return 0;
+        }
+        workloadRegistry.availabilityChanged(courier.getId(), false);
+        orders.forEach(order -> assign(order, courier));
+        return orders.size();
+    }
 
-            log.info(
-                    "Courier {} assigned to order {}",
-                    courier.getId(),
-                    order.getId()
-            );
+    private void assign(Order order, Courier courier) {
+        order.setCourier(courier);
+        orderRepository.save(order);
+        orderSummaryService.onCourierAssigned(order.getId(), courier.getId(), order.getStatus());
+        workloadRegistry.orderAssigned(courier.getId());
+
+        log.info(
+                "Courier {} assigned to order {}",
+                courier.getId(),
+                order.getId()
+        );
+    }
+
+    private static List<Order> take(Deque<Order> stack, int count) {
+        List<Order> taken = new ArrayList<>();
+        while (taken.size() < count && !stack.isEmpty()) {
+            taken.add(stack.pollFirst());
         }
+        return taken;
+    }
+
+    private static DispatchOrder toDispatchOrder(Order order) {
+        Restaurant restaurant = order.getRestaurant();
+        return restaurant == null
+                ? new DispatchOrder(order.getId(), null, null)
+                : new DispatchOrder(order.getId(), restaurant.getLatitude(), restaurant.getLongitude());
+    }
+
+    private record ClaimResult(int scanned, long lastOrderId, int assigned, boolean couriersLeft) {
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,78 @@
+package com.example.test.services.courierService;
+
+import com.example.test.services.support.AfterCommit;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs courier assignment as soon as an order is confirmed or a courier becomes available, instead of
+ * waiting for the next scan. Signals are taken after the triggering transaction commits and coalesced,
+ * so a burst of confirmations costs one assignment pass. All passes, including the periodic safety-net
+ * scan, run on a single dispatch thread and therefore never race each other on this instance.
+ */
+@Component
+@Slf4j
+public class CourierDispatchQueue {
+
+    private final CourierAssignmentService courierAssignmentService;
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "courier-dispatch");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    public CourierDispatchQueue(CourierAssignmentService courierAssignmentService) {
+        this.courierAssignmentService = courierAssignmentService;
+    }
+
+    public void orderConfirmed(Long orderId) {
+        log.debug("Order {} confirmed, dispatch requested", orderId);
+        AfterCommit.run(this::request);
+    }
+
+    public void courierAvailable(Long courierId) {
+        log.debug("Courier {} available, dispatch requested", courierId);
+        AfterCommit.run(this::request);
+    }
+
+    /**
+     * Safety net for signals lost to a crash between commit and dispatch, or sent from another node.
+     */
+    @Scheduled(fixedDelayString = "${courier-dispatch.safety-net-delay-ms:300000}")
+    public void request() {
+        if (!pending.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            worker.execute(this::dispatch);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the committed change is picked up by the safety-net scan on restart or another node.
+            pending.set(false);
+            log.debug("Dispatch queue is shut down, signal dropped");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void dispatch() {
+        pending.set(false);
+        try {
+            courierAssignmentService.assignCouriers();
+        } catch (RuntimeException e) {
+            log.warn("Courier assignment failed, will retry on the next signal", e);
+        }
+    }
+}
@@ -12,6 +12,8 @@ public interface CourierService {
 
     CourierDto updateStatus(Long userId, String status);
 
+    CourierDto updateLocation(Long userId, Double latitude, Double longitude);
+
     CourierDto getCourier(Long id);
 
     List<CourierDto> getAllCouriers();
@@ -0,0 +1,114 @@
+package com.example.test.services.courierService;
+
+import com.example.test.models.dtos.courierDto.CourierLoad;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.repositories.courierRepo.CourierRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.support.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory count of active orders per courier and of the couriers currently available, so fleet-wide
+ * load is read without queries. Counters follow assignment, delivery, cancellation and availability
+ * changes once their transaction commits, and are rebuilt from the database on a schedule to pick up
+ * changes made by other nodes or missed by a crash.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourierWorkloadRegistry {
+
+    private final CourierRepository courierRepository;
+    private final OrderRepository orderRepository;
+
+    private final Map<Long, Integer> loadByCourierId = new HashMap<>();
+    private final Set<Long> availableCourierIds = new HashSet<>();
+    private long availableLoad;
+    // Null until the first reconcile; changes seen before that are already in the database it reads.
+    private volatile FleetLoad fleetLoad;
+
+    /**
+     * Available couriers and the active orders they carry.
+     */
+    public record FleetLoad(int availableCouriers, long activeOrders) {
+    }
+
+    public FleetLoad fleetLoad() {
+        FleetLoad current = fleetLoad;
+        if (current == null) {
+            reconcile();
+            current = fleetLoad;
+        }
+        return current;
+    }
+
+    public void orderAssigned(Long courierId) {
+        AfterCommit.run(() -> changeLoad(courierId, 1));
+    }
+
+    public void orderFinished(Long courierId) {
+        if (courierId != null) {
+            AfterCommit.run(() -> changeLoad(courierId, -1));
+        }
+    }
+
+    public void availabilityChanged(Long courierId, boolean available) {
+        AfterCommit.run(() -> setAvailable(courierId, available));
+    }
+
+    @Scheduled(fixedDelayString = "${courier-dispatch.workload-reconcile-delay-ms:60000}")
+    public void reconcile() {
+        Set<Long> available = new HashSet<>(courierRepository.findIdsByAvailableTrue());
+        Map<Long, Integer> loads = new HashMap<>();
+        for (CourierLoad load : orderRepository.findCourierLoads(OrderStatus.activeForCourier())) {
+            loads.put(load.courierId(), (int) load.activeOrders());
+        }
+
+        synchronized (this) {
+            loadByCourierId.clear();
+            loadByCourierId.putAll(loads);
+            availableCourierIds.clear();
+            availableCourierIds.addAll(available);
+            availableLoad = available.stream().mapToLong(id -> loads.getOrDefault(id, 0)).sum();
+            publish();
+        }
+    }
+
+    private synchronized void changeLoad(Long courierId, int delta) {
+        if (fleetLoad == null) {
+            return;
+        }
+        int current = loadByCourierId.getOrDefault(courierId, 0);
+        int updated = Math.max(0, current + delta);
+        if (updated == 0) {
+            loadByCourierId.remove(courierId);
+        } else {
+            loadByCourierId.put(courierId, updated);
+        }
+        if (availableCourierIds.contains(courierId)) {
+            availableLoad += updated - current;
+        }
+        publish();
+    }
+
+    private synchronized void setAvailable(Long courierId, boolean available) {
+        if (fleetLoad == null) {
+            return;
+        }
+        int load = loadByCourierId.getOrDefault(courierId, 0);
+        if (available ? availableCourierIds.add(courierId) : availableCourierIds.remove(courierId)) {
+            availableLoad += available ? load : -load;
+        }
+        publish();
+    }
+
+    private void publish() {
+        fleetLoad = new FleetLoad(availableCourierIds.size(), availableLoad);
+    }
+}
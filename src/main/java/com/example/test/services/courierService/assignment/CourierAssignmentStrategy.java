@@ -0,0 +1,17 @@
+package com.example.test.services.courierService.assignment;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matches a batch of waiting orders to available couriers. Selected with {@code courier-dispatch.strategy}.
+ */
+public interface CourierAssignmentStrategy {
+
+    /**
+     * @param orders   orders in priority order, oldest first
+     * @param couriers available couriers; each may be used at most once
+     * @return courier id by order id; orders left without a courier are absent
+     */
+    Map<Long, Long> assign(List<DispatchOrder> orders, List<DispatchCourier> couriers);
+}
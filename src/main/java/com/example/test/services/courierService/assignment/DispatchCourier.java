@@ -0,0 +1,14 @@
+package com.example.test.services.courierService.assignment;
+
+import com.example.test.models.entities.enums.VehicleType;
+
+/**
+ * An available courier as seen by an assignment strategy. Coordinates and vehicle may be null.
+ */
+public record DispatchCourier(Long courierId, Double latitude, Double longitude, VehicleType vehicleType,
+                              long activeOrders) {
+
+    public boolean located() {
+        return latitude != null && longitude != null;
+    }
+}
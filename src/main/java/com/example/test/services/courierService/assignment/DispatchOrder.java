@@ -0,0 +1,11 @@
+package com.example.test.services.courierService.assignment;
+
+/**
+ * An order waiting for a courier, located at its restaurant. Coordinates may be null.
+ */
+public record DispatchOrder(Long orderId, Double latitude, Double longitude) {
+
+    public boolean located() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.test.services.courierService.assignment;
+
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import com.example.test.services.courierService.geo.GeoDistance;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Matches the whole batch at once, minimising the total estimated pickup time. The cost of a pair is
+ * travel time to the restaurant at the courier's vehicle speed plus a penalty per order the courier
+ * already carries.
+ */
+@Component
+@ConditionalOnProperty(prefix = "courier-dispatch", name = "strategy", havingValue = "min-cost")
+@RequiredArgsConstructor
+public class MinCostCourierStrategy implements CourierAssignmentStrategy {
+
+    private final CourierDispatchProperties properties;
+
+    @Override
+    public Map<Long, Long> assign(List<DispatchOrder> orders, List<DispatchCourier> couriers) {
+        if (orders.isEmpty() || couriers.isEmpty()) {
+            return Map.of();
+        }
+
+        int[] courierIndexByOrder = MinCostMatching.solve(costMatrix(orders, couriers));
+
+        Map<Long, Long> assignments = new LinkedHashMap<>();
+        for (int i = 0; i < courierIndexByOrder.length; i++) {
+            if (courierIndexByOrder[i] >= 0) {
+                assignments.put(orders.get(i).orderId(), couriers.get(courierIndexByOrder[i]).courierId());
+            }
+        }
+        return assignments;
+    }
+
+    double[][] costMatrix(List<DispatchOrder> orders, List<DispatchCourier> couriers) {
+        double[][] cost = new double[orders.size()][];
+        IntStream rows = IntStream.range(0, orders.size());
+        if ((long) orders.size() * couriers.size() >= properties.getParallelCostCells()) {
+            rows = rows.parallel();
+        }
+        rows.forEach(i -> {
+            DispatchOrder order = orders.get(i);
+            double[] row = new double[couriers.size()];
+            for (int j = 0; j < row.length; j++) {
+                row[j] = pickupMinutes(order, couriers.get(j));
+            }
+            cost[i] = row;
+        });
+        return cost;
+    }
+
+    private double pickupMinutes(DispatchOrder order, DispatchCourier courier) {
+        double travel = order.located() && courier.located()
+                ? GeoDistance.haversineKm(order.latitude(), order.longitude(), courier.latitude(), courier.longitude())
+                / properties.speedKmh(courier.vehicleType()) * 60
+                : properties.getUnknownLocationMinutes();
+        return travel + courier.activeOrders() * properties.getLoadPenaltyMinutes();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.test.services.courierService.assignment;
+
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import com.example.test.services.courierService.geo.CourierGrid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Greedy matching: each order, in the given order, takes the nearest remaining courier to its
+ * restaurant. Orders and couriers without coordinates are paired with each other first and fall
+ * back to whatever is left.
+ */
+@Component
+@ConditionalOnProperty(prefix = "courier-dispatch", name = "strategy", havingValue = "nearest", matchIfMissing = true)
+@RequiredArgsConstructor
+public class NearestCourierStrategy implements CourierAssignmentStrategy {
+
+    private final CourierDispatchProperties properties;
+
+    @Override
+    public Map<Long, Long> assign(List<DispatchOrder> orders, List<DispatchCourier> couriers) {
+        Deque<Long> unlocated = new ArrayDeque<>();
+        CourierGrid grid = new CourierGrid(properties.getGridCellKm(), referenceLatitude(couriers));
+        for (DispatchCourier courier : couriers) {
+            if (courier.located()) {
+                grid.add(courier.courierId(), courier.latitude(), courier.longitude());
+            } else {
+                unlocated.add(courier.courierId());
+            }
+        }
+
+        Map<Long, Long> assignments = new LinkedHashMap<>();
+        for (DispatchOrder order : orders) {
+            Long courierId;
+            if (order.located() && grid.size() > 0) {
+                courierId = grid.takeNearest(order.latitude(), order.longitude()).getAsLong();
+            } else if (!unlocated.isEmpty()) {
+                courierId = unlocated.poll();
+            } else if (grid.size() > 0) {
+                courierId = grid.takeAny().getAsLong();
+            } else {
+                break;
+            }
+            assignments.put(order.orderId(), courierId);
+        }
+        return assignments;
+    }
+
+    private static double referenceLatitude(List<DispatchCourier> couriers) {
+        return couriers.stream()
+                .filter(DispatchCourier::located)
+                .mapToDouble(DispatchCourier::latitude)
+                .average()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.test.services.courierService.courierConfig;
+
+import com.example.test.models.entities.enums.VehicleType;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Configuration
+@ConfigurationProperties(prefix = "courier-dispatch")
+@Getter
+@Setter
+public class CourierDispatchProperties {
+
+    /**
+     * {@code nearest} (greedy, oldest order first) or {@code min-cost} (Hungarian matching per batch).
+     */
+    private String strategy = "nearest";
+
+    private double gridCellKm = 1.0;
+
+    private long safetyNetDelayMs = 300_000;
+
+    private long workloadReconcileDelayMs = 60_000;
+
+    private int maxBatchOrders = 200;
+
+    /**
+     * Orders locked and committed per transaction, so several nodes can dispatch disjoint chunks at once.
+     */
+    private int claimChunkSize = 200;
+
+    private long parallelCostCells = 100_000;
+
+    private double loadPenaltyMinutes = 10;
+
+    private double unknownLocationMinutes = 30;
+
+    private double defaultSpeedKmh = 15;
+
+    private Map<VehicleType, Double> speedKmh = new EnumMap<>(Map.of(
+            VehicleType.FOOT, 5.0,
+            VehicleType.BIKE, 15.0,
+            VehicleType.SCOOTER, 25.0,
+            VehicleType.CAR, 30.0));
+
+    /**
+     * Orders one courier may carry at once; orders from the same restaurant are stacked up to this.
+     */
+    private int defaultCapacity = 1;
+
+    private Map<VehicleType, Integer> capacity = new EnumMap<>(Map.of(
+            VehicleType.FOOT, 1,
+            VehicleType.BIKE, 2,
+            VehicleType.SCOOTER, 3,
+            VehicleType.CAR, 4));
+
+    public int capacity(VehicleType vehicleType) {
+        return vehicleType == null ? defaultCapacity : capacity.getOrDefault(vehicleType, defaultCapacity);
+    }
+
+    public double speedKmh(VehicleType vehicleType) {
+        return vehicleType == null ? defaultSpeedKmh : speedKmh.getOrDefault(vehicleType, defaultSpeedKmh);
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.test.services.courierService.geo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Uniform grid of courier positions for nearest-neighbour lookups. Coordinates are projected onto a
+ * plane in kilometres around {@code referenceLatitude}, which is accurate enough for distances
+ * within a city. Not thread-safe; build one per dispatch run.
+ */
+public class CourierGrid {
+
+    private static final double KM_PER_DEGREE = 111.32;
+
+    private final double cellKm;
+    private final double kmPerDegreeLongitude;
+    private final Map<Long, List<Entry>> cells = new HashMap<>();
+
+    private int minX = Integer.MAX_VALUE;
+    private int maxX = Integer.MIN_VALUE;
+    private int minY = Integer.MAX_VALUE;
+    private int maxY = Integer.MIN_VALUE;
+    private int size;
+
+    public CourierGrid(double cellKm, double referenceLatitude) {
+        if (cellKm <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive");
+        }
+        this.cellKm = cellKm;
+        this.kmPerDegreeLongitude = KM_PER_DEGREE * Math.cos(Math.toRadians(referenceLatitude));
+    }
+
+    public void add(long courierId, double latitude, double longitude) {
+        double x = longitude * kmPerDegreeLongitude;
+        double y = latitude * KM_PER_DEGREE;
+        int cellX = cell(x);
+        int cellY = cell(y);
+        cells.computeIfAbsent(key(cellX, cellY), k -> new ArrayList<>()).add(new Entry(courierId, x, y));
+        minX = Math.min(minX, cellX);
+        maxX = Math.max(maxX, cellX);
+        minY = Math.min(minY, cellY);
+        maxY = Math.max(maxY, cellY);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes and returns the courier closest to the given point. Rings of cells are scanned outwards
+     * until no unscanned cell can hold anything closer than the best match so far.
+     */
+    public OptionalLong takeNearest(double latitude, double longitude) {
+        if (size == 0) {
+            return OptionalLong.empty();
+        }
+
+        double x = longitude * kmPerDegreeLongitude;
+        double y = latitude * KM_PER_DEGREE;
+        int cellX = cell(x);
+        int cellY = cell(y);
+        int lastRing = Math.max(
+                Math.max(Math.abs(cellX - minX), Math.abs(cellX - maxX)),
+                Math.max(Math.abs(cellY - minY), Math.abs(cellY - maxY)));
+
+        Match best = new Match();
+        for (int ring = 0; ring <= lastRing; ring++) {
+            if (best.entries != null && best.distanceSquared <= square((ring - 1) * cellKm)) {
+                break;
+            }
+            if (ring == 0) {
+                scan(cellX, cellY, x, y, best);
+                continue;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                scan(cellX + dx, cellY - ring, x, y, best);
+                scan(cellX + dx, cellY + ring, x, y, best);
+            }
+            for (int dy = -ring + 1; dy < ring; dy++) {
+                scan(cellX - ring, cellY + dy, x, y, best);
+                scan(cellX + ring, cellY + dy, x, y, best);
+            }
+        }
+
+        Entry taken = best.entries.get(best.index);
+        best.entries.set(best.index, best.entries.get(best.entries.size() - 1));
+        best.entries.remove(best.entries.size() - 1);
+        size--;
+        return OptionalLong.of(taken.courierId());
+    }
+
+    /**
+     * Removes and returns an arbitrary courier, for orders without a location.
+     */
+    public OptionalLong takeAny() {
+        for (List<Entry> entries : cells.values()) {
+            if (!entries.isEmpty()) {
+                size--;
+                return OptionalLong.of(entries.remove(entries.size() - 1).courierId());
+            }
+        }
+        return OptionalLong.empty();
+    }
+
+    private void scan(int cellX, int cellY, double x, double y, Match best) {
+        if (cellX < minX || cellX > maxX || cellY < minY || cellY > maxY) {
+            return;
+        }
+        List<Entry> entries = cells.get(key(cellX, cellY));
+        if (entries == null) {
+            return;
+        }
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            double distanceSquared = square(entry.x() - x) + square(entry.y() - y);
+            if (distanceSquared < best.distanceSquared) {
+                best.distanceSquared = distanceSquared;
+                best.entries = entries;
+                best.index = i;
+            }
+        }
+    }
+
+    private int cell(double km) {
+        return (int) Math.floor(km / cellKm);
+    }
+
+    private static long key(int cellX, int cellY) {
+        return ((long) cellX << 32) | (cellY & 0xFFFFFFFFL);
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    private record Entry(long courierId, double x, double y) {
+    }
+
+    private static class Match {
+        double distanceSquared = Double.MAX_VALUE;
+        List<Entry> entries;
+        int index;
+    }
+}
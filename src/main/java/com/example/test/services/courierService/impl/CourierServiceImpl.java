@@ -7,7 +7,10 @@ import com.example.test.models.entities.enums.CourierStatus;
 import com.example.test.models.entities.enums.VehicleType;
 import com.example.test.models.mappers.courierMapper.CourierMapper;
 import com.example.test.repositories.courierRepo.CourierRepository;
+import com.example.test.services.courierService.CourierDispatchQueue;
 import com.example.test.services.courierService.CourierService;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.etaService.EtaSnapshotService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -22,6 +25,9 @@ public class CourierServiceImpl implements CourierService {
 
     private final CourierRepository courierRepository;
     private final CourierMapper courierMapper;
+    private final EtaSnapshotService etaSnapshotService;
+    private final CourierDispatchQueue courierDispatchQueue;
+    private final CourierWorkloadRegistry workloadRegistry;
 
     @Override
     @Transactional
@@ -65,6 +71,27 @@ public class CourierServiceImpl implements CourierService {
         courier.setStatus(newStatus);
 
         courier.setAvailable(newStatus == CourierStatus.AVAILABLE);
+        workloadRegistry.availabilityChanged(courier.getId(), newStatus == CourierStatus.AVAILABLE);
+        etaSnapshotService.invalidateCourierLoad();
+        if (newStatus == CourierStatus.AVAILABLE) {
+            courierDispatchQueue.courierAvailable(courier.getId());
+        }
+
+        return courierMapper.toDto(courierRepository.save(courier));
+    }
+
+    @Override
+    @Transactional
+    public CourierDto updateLocation(Long userId, Double latitude, Double longitude) {
+        if (latitude == null || longitude == null) {
+            throw new IllegalArgumentException("Latitude and longitude are required");
+        }
+
+        Courier courier = courierRepository.findByUserId(userId)
+                .orElseThrow(() -> new NotFoundException("Courier profile for user ID " + userId + " not found"));
+
+        courier.setLatitude(latitude);
+        courier.setLongitude(longitude);
 
         return courierMapper.toDto(courierRepository.save(courier));
     }
@@ -93,5 +120,6 @@ public class CourierServiceImpl implements CourierService {
             throw new NotFoundException("Cannot delete: Courier not found with ID: " + id);
         }
         courierRepository.deleteById(id);
+        workloadRegistry.availabilityChanged(id, false);
     }
 }
\ No newline at end of file
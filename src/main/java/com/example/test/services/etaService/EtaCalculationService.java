@@ -2,9 +2,20 @@ package com.example.test.services.etaService;
 
 import com.example.test.models.entities.restaurant.Restaurant;
 
+import java.util.Map;
+
 public interface EtaCalculationService {
 
     int calculateEtaMinutes(Restaurant restaurant);
 
+    /**
+     * ETAs keyed by restaurant id, computed in one pass against a single courier wait. Restaurants
+     * without prep-time history use their fallback, typically the declared average cooking time.
+     */
+    Map<Long, Integer> calculateEtaMinutes(Map<Long, Integer> fallbackPrepMinutesByRestaurantId);
 
+    /**
+     * Courier part of the ETA: the same for every restaurant, driven by the load of available couriers.
+     */
+    int courierWaitMinutes();
 }
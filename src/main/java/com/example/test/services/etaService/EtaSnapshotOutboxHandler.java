@@ -0,0 +1,41 @@
+package com.example.test.services.etaService;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.outboxService.OutboxEventHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the ETA snapshot in line with order status changes: any change moves courier load, and
+ * a DELIVERED order adds to its restaurant's prep-time history.
+ */
+@Component
+@RequiredArgsConstructor
+public class EtaSnapshotOutboxHandler implements OutboxEventHandler {
+
+    private final EtaSnapshotService etaSnapshotService;
+    private final OrderRepository orderRepository;
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        etaSnapshotService.invalidateCourierLoad();
+
+        List<Long> deliveredOrderIds = events.stream()
+                .filter(event -> event.getOrderStatus() == OrderStatus.DELIVERED)
+                .map(OutboxEvent::getOrderId)
+                .toList();
+        if (!deliveredOrderIds.isEmpty()) {
+            etaSnapshotService.invalidateRestaurants(orderRepository.findRestaurantIdsByIdIn(deliveredOrderIds));
+        }
+    }
+}
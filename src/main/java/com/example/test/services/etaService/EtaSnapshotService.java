@@ -0,0 +1,32 @@
+package com.example.test.services.etaService;
+
+import com.example.test.models.entities.restaurant.Restaurant;
+
+import java.util.Collection;
+
+/**
+ * Precomputed ETAs for cart operations. Each restaurant's prep time and the shared courier wait
+ * are kept in memory, refreshed every {@code eta.snapshot.refresh-delay-ms} and dropped when
+ * order or courier status changes make them stale. Reads hit the database only on a miss.
+ */
+public interface EtaSnapshotService {
+
+    int etaMinutes(Restaurant restaurant);
+
+    /**
+     * ETA of the restaurant that serves the menu item.
+     *
+     * @throws IllegalStateException if no restaurant serves the item
+     */
+    int etaMinutesForMenuItem(Long menuItemId);
+
+    /**
+     * Drops the prep times of the given restaurants once the current transaction commits.
+     */
+    void invalidateRestaurants(Collection<Long> restaurantIds);
+
+    /**
+     * Drops the courier wait once the current transaction commits.
+     */
+    void invalidateCourierLoad();
+}
@@ -2,7 +2,28 @@ package com.example.test.services.etaService;
 
 import com.example.test.models.entities.restaurant.Restaurant;
 
+import java.util.Map;
+
 public interface RestaurantPrepTimeService {
 
     int calculateP80PrepTime(Restaurant restaurant);
+
+    /**
+     * Prep time in minutes that the given fraction of the restaurant's recent orders stayed within,
+     * or its declared average while it has no history.
+     */
+    int calculatePrepTimePercentile(Restaurant restaurant, double fraction);
+
+    /**
+     * P80 prep times keyed by restaurant id, loading restaurants not yet in memory together.
+     * Restaurants without history get their fallback, and are left out if that is null.
+     */
+    Map<Long, Integer> calculateP80PrepTimes(Map<Long, Integer> fallbackMinutesByRestaurantId);
+
+    /**
+     * Appends a completed order's prep time to the restaurant's stored history in the current
+     * transaction, and to its in-memory percentiles once that transaction commits. The order's cook
+     * time must be stored first: a restaurant without history is seeded from its latest orders.
+     */
+    void recordPrepTime(Long restaurantId, int minutes);
 }
@@ -0,0 +1,15 @@
+package com.example.test.services.etaService.etaConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "eta.snapshot")
+@Getter
+@Setter
+public class EtaSnapshotProperties {
+
+    private long refreshDelayMs = 30_000;
+}
@@ -0,0 +1,17 @@
+package com.example.test.services.etaService.etaConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "eta.prep-time")
+@Getter
+@Setter
+public class PrepTimeProperties {
+
+    private int maxMinutes = 180;
+    private double halfLifeSamples = 500;
+    private long snapshotDelayMs = 60_000;
+}
@@ -1,25 +1,22 @@
 package com.example.test.services.etaService.impl;
 
-import com.example.test.models.entities.courier.Courier;
-import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.restaurant.Restaurant;
-import com.example.test.repositories.courierRepo.CourierRepository;
-import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.courierService.CourierWorkloadRegistry.FleetLoad;
 import com.example.test.services.etaService.EtaCalculationService;
 import com.example.test.services.etaService.RestaurantPrepTimeService;
 import com.example.test.services.etaService.etaConfig.EtaCourierProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 public class EtaCalculationServiceImpl implements EtaCalculationService {
 
-    private final CourierRepository courierRepository;
-    private final OrderRepository orderRepository;
+    private final CourierWorkloadRegistry workloadRegistry;
     private final RestaurantPrepTimeService prepTimeService;
     private final EtaCourierProperties props;
 
@@ -29,36 +26,35 @@ public class EtaCalculationServiceImpl implements EtaCalculationService {
         int prepTime =
                 prepTimeService.calculateP80PrepTime(restaurant);
 
-        List<Courier> couriers =
-                courierRepository.findByAvailableTrue();
+        return prepTime + courierWaitMinutes();
+    }
 
-        if (couriers.isEmpty()) {
-            return prepTime
-                    + props.getBaseTimeMinutes()
-                    * props.getNoCourierMultiplier();
+    @Override
+    public Map<Long, Integer> calculateEtaMinutes(Map<Long, Integer> fallbackPrepMinutesByRestaurantId) {
+        if (fallbackPrepMinutesByRestaurantId.isEmpty()) {
+            return Map.of();
         }
 
-        int totalLoad = 0;
+        int courierWait = courierWaitMinutes();
+        Map<Long, Integer> etaMinutes = new HashMap<>();
+        prepTimeService.calculateP80PrepTimes(fallbackPrepMinutesByRestaurantId)
+                .forEach((restaurantId, prepMinutes) -> etaMinutes.put(restaurantId, prepMinutes + courierWait));
+        return etaMinutes;
+    }
 
-        for (Courier courier : couriers) {
+    @Override
+    public int courierWaitMinutes() {
 
-            long activeOrders =
-                    orderRepository.countByCourierIdAndStatusIn(
-                            courier.getId(),
-                            Arrays.stream(OrderStatus.values())
-                                    .filter(OrderStatus::isActiveForCourier)
-                                    .toList()
-                    );
+        FleetLoad fleet = workloadRegistry.fleetLoad();
 
-            totalLoad += activeOrders;
+        if (fleet.availableCouriers() == 0) {
+            return props.getBaseTimeMinutes()
+                    * props.getNoCourierMultiplier();
         }
 
         int avgQueue =
-                Math.max(1, totalLoad / couriers.size());
-
-        int courierWaitTime =
-                props.getBaseTimeMinutes() * avgQueue;
+                (int) Math.max(1, fleet.activeOrders() / fleet.availableCouriers());
 
-        return prepTime + courierWaitTime;
+        return props.getBaseTimeMinutes() * avgQueue;
     }
 }
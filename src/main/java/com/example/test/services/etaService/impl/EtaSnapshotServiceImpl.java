@@ -0,0 +1,122 @@
+package com.example.test.services.etaService.impl;
+
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.repositories.resRepo.RestaurantRepository;
+import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.etaService.EtaSnapshotService;
+import com.example.test.services.etaService.RestaurantPrepTimeService;
+import com.example.test.services.support.AfterCommit;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+public class EtaSnapshotServiceImpl implements EtaSnapshotService {
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantPrepTimeService prepTimeService;
+    private final EtaCalculationService etaCalculationService;
+
+    private final Map<Long, Long> restaurantIdByMenuItemId = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> prepMinutesByRestaurantId = new ConcurrentHashMap<>();
+    /**
+     * Bumped by every invalidation. A value computed under an older generation is not stored, so a
+     * load that started before an invalidation cannot put the stale value back.
+     */
+    private final Map<Long, Long> generationByRestaurantId = new ConcurrentHashMap<>();
+    private final Object courierWaitLock = new Object();
+    private volatile Integer courierWaitMinutes;
+    private long courierWaitGeneration;
+
+    @Override
+    public int etaMinutes(Restaurant restaurant) {
+        Integer prepMinutes = prepMinutesByRestaurantId.get(restaurant.getId());
+        if (prepMinutes == null) {
+            prepMinutes = loadPrepMinutes(restaurant);
+        }
+        return prepMinutes + courierWaitMinutes();
+    }
+
+    @Override
+    public int etaMinutesForMenuItem(Long menuItemId) {
+        Long restaurantId = restaurantIdByMenuItemId.get(menuItemId);
+        Integer prepMinutes = restaurantId == null ? null : prepMinutesByRestaurantId.get(restaurantId);
+        if (prepMinutes != null) {
+            return prepMinutes + courierWaitMinutes();
+        }
+
+        Restaurant restaurant = restaurantRepository.findByMenuItemId(menuItemId)
+                .orElseThrow(() -> new IllegalStateException("Restaurant not found for menu item"));
+        restaurantIdByMenuItemId.put(menuItemId, restaurant.getId());
+        return etaMinutes(restaurant);
+    }
+
+    @Override
+    public void invalidateRestaurants(Collection<Long> restaurantIds) {
+        List<Long> ids = List.copyOf(restaurantIds);
+        AfterCommit.run(() -> ids.forEach(id -> generationByRestaurantId.compute(id, (key, generation) -> {
+            prepMinutesByRestaurantId.remove(key);
+            return generation == null ? 1L : generation + 1;
+        })));
+    }
+
+    @Override
+    public void invalidateCourierLoad() {
+        AfterCommit.run(() -> {
+            synchronized (courierWaitLock) {
+                courierWaitGeneration++;
+                courierWaitMinutes = null;
+            }
+        });
+    }
+
+    /**
+     * Recomputes the courier wait and the prep time of every restaurant in the snapshot, so
+     * entries that no event invalidated still follow the latest history.
+     */
+    @Scheduled(fixedDelayString = "${eta.snapshot.refresh-delay-ms:30000}")
+    public void refresh() {
+        loadCourierWaitMinutes();
+        for (Restaurant restaurant : restaurantRepository.findAllById(List.copyOf(prepMinutesByRestaurantId.keySet()))) {
+            loadPrepMinutes(restaurant);
+        }
+    }
+
+    private int loadPrepMinutes(Restaurant restaurant) {
+        Long restaurantId = restaurant.getId();
+        long generation = generationByRestaurantId.getOrDefault(restaurantId, 0L);
+        int prepMinutes = prepTimeService.calculateP80PrepTime(restaurant);
+        generationByRestaurantId.compute(restaurantId, (key, current) -> {
+            if ((current == null ? 0L : current) == generation) {
+                prepMinutesByRestaurantId.put(key, prepMinutes);
+            }
+            return current;
+        });
+        return prepMinutes;
+    }
+
+    private int courierWaitMinutes() {
+        Integer cached = courierWaitMinutes;
+        return cached != null ? cached : loadCourierWaitMinutes();
+    }
+
+    private int loadCourierWaitMinutes() {
+        long generation;
+        synchronized (courierWaitLock) {
+            generation = courierWaitGeneration;
+        }
+        int minutes = etaCalculationService.courierWaitMinutes();
+        synchronized (courierWaitLock) {
+            if (courierWaitGeneration == generation) {
+                courierWaitMinutes = minutes;
+            }
+        }
+        return minutes;
+    }
+}
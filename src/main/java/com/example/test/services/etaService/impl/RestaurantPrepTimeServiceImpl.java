@@ -1,40 +1,256 @@
 package com.example.test.services.etaService.impl;
 
+import com.example.test.models.dtos.restaurantDto.RestaurantCookTime;
+import com.example.test.models.dtos.restaurantDto.RestaurantPrepTimeHistory;
+import com.example.test.models.entities.restaurant.PrepTimeRing;
 import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.entities.restaurant.RestaurantPrepTimeSketch;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.resRepo.RestaurantPrepTimeSketchRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.services.etaService.RestaurantPrepTimeService;
+import com.example.test.services.etaService.etaConfig.PrepTimeProperties;
+import com.example.test.services.etaService.sketch.PrepTimeHistogram;
+import com.example.test.services.support.AfterCommit;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Keeps a decaying prep-time histogram per restaurant in memory. A restaurant's histogram is loaded
+ * from its snapshot on first use, or seeded from the restaurant's recent prep times if it has none, and is written
+ * back by {@link #flushSnapshots()} after new samples arrive. Restaurants delivered to before the
+ * prep-time ring was kept fall back to the cook times stored on their latest orders.
+ * <p>
+ * Histograms are per instance: each node learns from the deliveries it handles and starts from the
+ * last snapshot written by any node.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-@Transactional
 public class RestaurantPrepTimeServiceImpl implements RestaurantPrepTimeService {
 
+    private static final double P80 = 0.8;
+    private static final int MAX_APPEND_ATTEMPTS = 5;
+
     private final RestaurantRepository restaurantRepository;
+    private final OrderRepository orderRepository;
+    private final RestaurantPrepTimeSketchRepository sketchRepository;
+    private final PrepTimeProperties props;
+
+    private final Map<Long, PrepTimeHistogram> histograms = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyRestaurantIds = ConcurrentHashMap.newKeySet();
 
     @Override
     public int calculateP80PrepTime(Restaurant restaurant) {
+        return calculatePrepTimePercentile(restaurant, P80);
+    }
 
-        Pageable topOneHundred = PageRequest.of(0, 100);
-
-        List<Integer> history = restaurantRepository.prepTimeHistoryMinutes(restaurant.getId(), topOneHundred);
+    @Override
+    public int calculatePrepTimePercentile(Restaurant restaurant, double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]");
+        }
 
-        if (history.isEmpty()) {
+        if (restaurant.getId() == null) {
             return restaurant.getAvgCookingTimeMinutes();
         }
+        PrepTimeHistogram histogram = histogram(restaurant.getId());
+        synchronized (histogram) {
+            return histogram.isEmpty() ? restaurant.getAvgCookingTimeMinutes() : histogram.percentile(fraction);
+        }
+    }
+
+    @Override
+    public Map<Long, Integer> calculateP80PrepTimes(Map<Long, Integer> fallbackMinutesByRestaurantId) {
+        Map<Long, PrepTimeHistogram> loaded = histograms(fallbackMinutesByRestaurantId.keySet());
+        Map<Long, Integer> prepMinutes = new HashMap<>();
+        fallbackMinutesByRestaurantId.forEach((restaurantId, fallback) -> {
+            PrepTimeHistogram histogram = loaded.get(restaurantId);
+            synchronized (histogram) {
+                Integer minutes = histogram.isEmpty() ? fallback : Integer.valueOf(histogram.percentile(P80));
+                if (minutes != null) {
+                    prepMinutes.put(restaurantId, minutes);
+                }
+            }
+        });
+        return prepMinutes;
+    }
+
+    @Override
+    @Transactional
+    public void recordPrepTime(Long restaurantId, int minutes) {
+        appendToHistory(restaurantId, minutes);
+
+        AfterCommit.run(() -> addSample(restaurantId, minutes));
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${eta.prep-time.snapshot-delay-ms:60000}")
+    public void flushSnapshots() {
+        List<Long> restaurantIds = new ArrayList<>(dirtyRestaurantIds);
+        if (restaurantIds.isEmpty()) {
+            return;
+        }
+        dirtyRestaurantIds.removeAll(restaurantIds);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<RestaurantPrepTimeSketch> sketches = new ArrayList<>(restaurantIds.size());
+        for (Long restaurantId : restaurantIds) {
+            PrepTimeHistogram histogram = histograms.get(restaurantId);
+            synchronized (histogram) {
+                sketches.add(new RestaurantPrepTimeSketch(restaurantId, histogram.toBytes(),
+                        histogram.getSampleCount(), now));
+            }
+        }
+
+        try {
+            sketchRepository.saveAll(sketches);
+        } catch (RuntimeException e) {
+            log.warn("Saving prep time snapshots of {} restaurants failed, will retry", sketches.size(), e);
+            dirtyRestaurantIds.addAll(restaurantIds);
+        }
+    }
+
+    /**
+     * Appends to the stored ring with a compare-and-set on the column rather than a lock on the
+     * restaurant row, re-reading and retrying when a concurrent delivery got there first. A restaurant
+     * without a ring gets one seeded from its latest orders.
+     */
+    private void appendToHistory(Long restaurantId, int minutes) {
+        for (int attempt = 0; attempt < MAX_APPEND_ATTEMPTS; attempt++) {
+            PrepTimeRing current = restaurantRepository.findPrepTimeHistories(List.of(restaurantId)).stream()
+                    .findFirst()
+                    .map(RestaurantPrepTimeHistory::history)
+                    .orElse(null);
+            int updated = current != null
+                    ? restaurantRepository.replacePrepTimeHistory(restaurantId, current, current.append(minutes))
+                    : restaurantRepository.initPrepTimeHistory(restaurantId, seedHistory(restaurantId, minutes));
+            if (updated > 0) {
+                return;
+            }
+        }
+        log.warn("Prep time history of restaurant {} kept changing, sample of {} min not stored", restaurantId, minutes);
+    }
+
+    /**
+     * A ring of the restaurant's latest stored cook times. The caller stores the order's cook time
+     * before recording it, so the sample is normally among them already.
+     */
+    private PrepTimeRing seedHistory(Long restaurantId, int minutes) {
+        List<Integer> cookTimes = recentCookTimes(List.of(restaurantId)).getOrDefault(restaurantId, List.of());
+        PrepTimeRing ring = PrepTimeRing.empty();
+        for (int cookTime : cookTimes) {
+            ring = ring.append(cookTime);
+        }
+        return cookTimes.isEmpty() ? ring.append(minutes) : ring;
+    }
+
+    /**
+     * The restaurants' latest cook times from {@code orders}, oldest first, in one query.
+     */
+    private Map<Long, List<Integer>> recentCookTimes(Collection<Long> restaurantIds) {
+        Map<Long, List<Integer>> cookTimes = new HashMap<>();
+        for (RestaurantCookTime row : orderRepository.findRecentCookTimes(restaurantIds, PrepTimeRing.CAPACITY)) {
+            cookTimes.computeIfAbsent(row.getRestaurantId(), id -> new ArrayList<>()).add(row.getCookTime());
+        }
+        return cookTimes;
+    }
+
+    /**
+     * Adds a committed sample, loading the restaurant's histogram first if this node has none yet.
+     * A histogram seeded from stored history now already holds the sample; a restored snapshot does not.
+     */
+    private void addSample(Long restaurantId, int minutes) {
+        PrepTimeHistogram histogram = histograms.get(restaurantId);
+        if (histogram == null) {
+            Loaded loaded = load(List.of(restaurantId)).get(restaurantId);
+            histogram = histograms.putIfAbsent(restaurantId, loaded.histogram());
+            if (histogram == null) {
+                if (!loaded.restored()) {
+                    return;
+                }
+                histogram = loaded.histogram();
+            }
+        }
+        synchronized (histogram) {
+            histogram.add(minutes);
+        }
+        dirtyRestaurantIds.add(restaurantId);
+    }
+
+    private PrepTimeHistogram histogram(Long restaurantId) {
+        return histograms(List.of(restaurantId)).get(restaurantId);
+    }
+
+    private Map<Long, PrepTimeHistogram> histograms(Collection<Long> restaurantIds) {
+        Map<Long, PrepTimeHistogram> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long restaurantId : restaurantIds) {
+            PrepTimeHistogram histogram = histograms.get(restaurantId);
+            if (histogram != null) {
+                result.put(restaurantId, histogram);
+            } else {
+                missing.add(restaurantId);
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            load(missing).forEach((restaurantId, loaded) -> {
+                PrepTimeHistogram existing = histograms.putIfAbsent(restaurantId, loaded.histogram());
+                result.put(restaurantId, existing != null ? existing : loaded.histogram());
+            });
+        }
+        return result;
+    }
 
+    /**
+     * Restores the restaurants' snapshots, seeds the rest from their stored prep-time history and
+     * falls back to the cook times of their latest orders for any left.
+     */
+    private Map<Long, Loaded> load(List<Long> restaurantIds) {
+        Map<Long, Loaded> loaded = new HashMap<>();
+        for (RestaurantPrepTimeSketch sketch : sketchRepository.findAllById(restaurantIds)) {
+            loaded.put(sketch.getRestaurantId(), new Loaded(PrepTimeHistogram.fromBytes(sketch.getHistogram(),
+                    props.getMaxMinutes(), props.getHalfLifeSamples()), true));
+        }
+
+        List<Long> unseeded = restaurantIds.stream().filter(id -> !loaded.containsKey(id)).toList();
+        if (!unseeded.isEmpty()) {
+            for (RestaurantPrepTimeHistory row : restaurantRepository.findPrepTimeHistories(unseeded)) {
+                PrepTimeHistogram histogram = newHistogram();
+                for (int minutes : row.history().toArray()) {
+                    histogram.add(minutes);
+                }
+                loaded.put(row.restaurantId(), new Loaded(histogram, false));
+            }
+            List<Long> withoutHistory = unseeded.stream().filter(id -> !loaded.containsKey(id)).toList();
+            Map<Long, List<Integer>> cookTimes = withoutHistory.isEmpty() ? Map.of() : recentCookTimes(withoutHistory);
+            for (Long restaurantId : withoutHistory) {
+                PrepTimeHistogram histogram = newHistogram();
+                cookTimes.getOrDefault(restaurantId, List.of()).forEach(histogram::add);
+                loaded.put(restaurantId, new Loaded(histogram, false));
+            }
+        }
+        return loaded;
+    }
+
+    private PrepTimeHistogram newHistogram() {
+        return new PrepTimeHistogram(props.getMaxMinutes(), props.getHalfLifeSamples());
+    }
 
-        List<Integer> sorted = new ArrayList<>(history);
-        Collections.sort(sorted);
-        int index = (int) Math.ceil(0.8 * sorted.size()) - 1;
-        return sorted.get(Math.max(index, 0));
+    private record Loaded(PrepTimeHistogram histogram, boolean restored) {
     }
-}
\ No newline at end of file
+}
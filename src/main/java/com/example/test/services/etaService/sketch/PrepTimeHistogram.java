@@ -0,0 +1,119 @@
+package com.example.test.services.etaService.sketch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Histogram of preparation times in one-minute buckets with exponential decay, so recent orders
+ * weigh more than old ones without keeping the samples. Times at or above {@code maxMinutes} share
+ * the last bucket. Older samples are decayed lazily: each new sample gets a weight {@code 1 / decay}
+ * times the previous one, and all weights are rescaled before they overflow. Not thread-safe.
+ */
+public class PrepTimeHistogram {
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final double RESCALE_THRESHOLD = 1e100;
+
+    private final double[] weights;
+    private final double growth;
+    private double increment = 1;
+    private double total;
+    private long sampleCount;
+
+    /**
+     * @param halfLifeSamples number of newer samples after which a sample counts half as much
+     */
+    public PrepTimeHistogram(int maxMinutes, double halfLifeSamples) {
+        if (maxMinutes <= 0) {
+            throw new IllegalArgumentException("Max minutes must be positive");
+        }
+        if (halfLifeSamples <= 0) {
+            throw new IllegalArgumentException("Half-life must be positive");
+        }
+        this.weights = new double[maxMinutes + 1];
+        this.growth = Math.pow(2, 1 / halfLifeSamples);
+    }
+
+    public void add(int minutes) {
+        int bucket = Math.min(Math.max(minutes, 0), weights.length - 1);
+        weights[bucket] += increment;
+        total += increment;
+        sampleCount++;
+
+        increment *= growth;
+        if (increment > RESCALE_THRESHOLD) {
+            rescale();
+        }
+    }
+
+    public boolean isEmpty() {
+        return sampleCount == 0;
+    }
+
+    public long getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Smallest whole minute at or below which the given fraction of the weight lies.
+     */
+    public int percentile(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Percentile must be in (0, 1]");
+        }
+        if (isEmpty()) {
+            throw new IllegalStateException("Histogram is empty");
+        }
+
+        // Tolerates rounding in the decayed sums so exact ranks still land on their own bucket.
+        double target = fraction * total * (1 - 1e-9);
+        double cumulative = 0;
+        for (int minutes = 0; minutes < weights.length; minutes++) {
+            cumulative += weights[minutes];
+            if (cumulative >= target) {
+                return minutes;
+            }
+        }
+        return weights.length - 1;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + Long.BYTES + weights.length * Float.BYTES);
+        buffer.put(FORMAT_VERSION);
+        buffer.putInt(weights.length - 1);
+        buffer.putLong(sampleCount);
+        for (double weight : weights) {
+            buffer.putFloat((float) (weight / increment));
+        }
+        return buffer.array();
+    }
+
+    /**
+     * Restores a histogram written by {@link #toBytes()}. Buckets beyond {@code maxMinutes} are
+     * folded into the last one if the limit was lowered since.
+     */
+    public static PrepTimeHistogram fromBytes(byte[] bytes, int maxMinutes, double halfLifeSamples) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.get() != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported prep time histogram format");
+        }
+        int storedMaxMinutes = buffer.getInt();
+        long sampleCount = buffer.getLong();
+
+        PrepTimeHistogram histogram = new PrepTimeHistogram(maxMinutes, halfLifeSamples);
+        for (int minutes = 0; minutes <= storedMaxMinutes; minutes++) {
+            double weight = buffer.getFloat();
+            histogram.weights[Math.min(minutes, maxMinutes)] += weight;
+            histogram.total += weight;
+        }
+        histogram.sampleCount = sampleCount;
+        return histogram;
+    }
+
+    private void rescale() {
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] /= increment;
+        }
+        total /= increment;
+        increment = 1;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.test.services.idempotencyService;
+
+import java.util.function.Supplier;
+
+public interface IdempotencyService {
+
+    String HEADER = "Idempotency-Key";
+
+    /**
+     * Runs {@code action} at most once per user, endpoint and key. A retry with the same key
+     * gets the stored response back without running the action again.
+     *
+     * @param key         value of the {@value #HEADER} header; {@code null} runs the action unguarded
+     * @param fingerprint request parameters the key is bound to; a retry with other parameters is rejected
+     */
+    <T> T execute(String key, Long userId, String endpoint, String fingerprint,
+                  Class<T> responseType, Supplier<T> action);
+}
@@ -0,0 +1,23 @@
+package com.example.test.services.idempotencyService.idempotencyConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "idempotency")
+@Getter
+@Setter
+public class IdempotencyProperties {
+
+    private int cacheSize = 10_000;
+
+    private int retentionHours = 24;
+
+    /**
+     * How long an in-flight key stays leased to its handler. A retry arriving later takes the
+     * key over instead of getting 409, so keep this above the slowest request.
+     */
+    private int leaseSeconds = 120;
+}
@@ -0,0 +1,188 @@
+package com.example.test.services.idempotencyService.impl;
+
+import com.example.test.exceptions.ConflictException;
+import com.example.test.models.entities.idempotency.IdempotencyKey;
+import com.example.test.repositories.idempotencyRepo.IdempotencyKeyRepository;
+import com.example.test.services.idempotencyService.IdempotencyService;
+import com.example.test.services.idempotencyService.idempotencyConfig.IdempotencyProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, StoredResponse> recent;
+
+    public IdempotencyServiceImpl(IdempotencyKeyRepository repository,
+                                  IdempotencyProperties properties,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        int capacity = properties.getCacheSize();
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > capacity;
+            }
+        });
+    }
+
+    @Override
+    public <T> T execute(String key, Long userId, String endpoint, String fingerprint,
+                         Class<T> responseType, Supplier<T> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be 1-" + MAX_KEY_LENGTH + " characters");
+        }
+
+        String cacheKey = userId + ":" + endpoint + ":" + key;
+        StoredResponse cached = recent.get(cacheKey);
+        if (cached != null && !isExpired(cached.completedAt())) {
+            return replay(cached, fingerprint, responseType);
+        }
+
+        IdempotencyKey existing = repository.findByUserIdAndEndpointAndKey(userId, endpoint, key).orElse(null);
+        Claim claim;
+        if (existing != null && !isExpired(existing.getCreatedAt())) {
+            if (existing.getCompletedAt() == null) {
+                claim = takeOver(existing, fingerprint);
+            } else {
+                StoredResponse stored = new StoredResponse(
+                        existing.getRequestFingerprint(), existing.getResponseBody(), existing.getCompletedAt());
+                recent.put(cacheKey, stored);
+                return replay(stored, fingerprint, responseType);
+            }
+        } else {
+            if (existing != null) {
+                transactionTemplate.executeWithoutResult(status -> repository.deleteById(existing.getId()));
+            }
+            claim = claim(key, userId, endpoint, fingerprint);
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                T response = action.get();
+                String body = toJson(response);
+                LocalDateTime completedAt = LocalDateTime.now();
+                if (repository.complete(claim.id(), claim.token(), body, completedAt) == 0) {
+                    // The lease ran out and a retry took the key over; roll this attempt back.
+                    throw inFlight();
+                }
+                recent.put(cacheKey, new StoredResponse(fingerprint, body, completedAt));
+                return response;
+            });
+        } catch (RuntimeException e) {
+            recent.remove(cacheKey);
+            transactionTemplate.executeWithoutResult(status -> repository.release(claim.id(), claim.token()));
+            throw e;
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 15 * * * *}")
+    public void purgeExpired() {
+        Integer deleted = transactionTemplate.execute(status -> repository
+                .deleteCreatedBefore(LocalDateTime.now().minusHours(properties.getRetentionHours())));
+        log.info("Purged {} expired idempotency keys", deleted);
+    }
+
+    /**
+     * Inserts the in-flight row in its own transaction, so a concurrent retry with the same key
+     * hits the unique constraint instead of running the action twice.
+     */
+    private Claim claim(String key, Long userId, String endpoint, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        String token = UUID.randomUUID().toString();
+        try {
+            Long id = transactionTemplate.execute(status -> repository.saveAndFlush(IdempotencyKey.builder()
+                    .userId(userId)
+                    .endpoint(endpoint)
+                    .key(key)
+                    .requestFingerprint(fingerprint)
+                    .createdAt(now)
+                    .claimedBy(token)
+                    .claimedAt(now)
+                    .build()).getId());
+            return new Claim(id, token);
+        } catch (DataIntegrityViolationException e) {
+            throw inFlight();
+        }
+    }
+
+    /**
+     * Lets a retry resume a key whose handler never finished, typically because its node died,
+     * once the lease has run out. Until then the retry gets 409 as before.
+     */
+    private Claim takeOver(IdempotencyKey existing, String fingerprint) {
+        if (!existing.getRequestFingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        if (existing.getClaimedAt().isAfter(now.minusSeconds(properties.getLeaseSeconds()))) {
+            throw inFlight();
+        }
+        String token = UUID.randomUUID().toString();
+        Integer taken = transactionTemplate.execute(status ->
+                repository.takeOver(existing.getId(), existing.getClaimedBy(), token, now));
+        if (taken == null || taken == 0) {
+            throw inFlight();
+        }
+        return new Claim(existing.getId(), token);
+    }
+
+    private static ConflictException inFlight() {
+        return new ConflictException("A request with this " + HEADER + " is still being processed");
+    }
+
+    private <T> T replay(StoredResponse stored, String fingerprint, Class<T> responseType) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            throw new IllegalArgumentException(HEADER + " was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(stored.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response cannot be read", e);
+        }
+    }
+
+    private String toJson(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response cannot be stored", e);
+        }
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt.isBefore(LocalDateTime.now().minusHours(properties.getRetentionHours()));
+    }
+
+    private record StoredResponse(String fingerprint, String body, LocalDateTime completedAt) {
+    }
+
+    private record Claim(Long id, String token) {
+    }
+}
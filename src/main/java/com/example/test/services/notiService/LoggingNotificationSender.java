@@ -0,0 +1,16 @@
+package com.example.test.services.notiService;
+
+import com.example.test.models.dtos.notificationDto.OutgoingNotification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+@Component
+@Slf4j
+public class LoggingNotificationSender implements NotificationSender {
+
+    @Override
+    public void send(OutgoingNotification notification) {
+        log.info("Sending notification id={} to user {}: {}",
+                notification.id(), notification.userId(), notification.message());
+    }
+}
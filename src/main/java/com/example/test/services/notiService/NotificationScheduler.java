@@ -1,45 +1,170 @@
 package com.example.test.services.notiService;
 
+import com.example.test.models.dtos.notificationDto.OutgoingNotification;
 import com.example.test.models.entities.enums.NotificationStatus;
 import com.example.test.models.entities.notification.Notification;
 import com.example.test.repositories.notiRepo.NotificationRepository;
-import lombok.RequiredArgsConstructor;
+import com.example.test.services.notiService.notiConfig.NotificationDispatchProperties;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Sends due notifications in chunks. Each chunk is claimed with {@code SKIP LOCKED} in its own
+ * transaction, delivered on a fixed pool of {@code parallelism} threads and marked SENT with one
+ * UPDATE before the locks are released, so instances running side by side never send the same
+ * notification. Failed deliveries, including sends still running {@code send-timeout-ms} after they
+ * started, stay PENDING and are retried on the next run.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class NotificationScheduler {
 
     private final NotificationRepository notificationRepository;
-    private final NotificationService notificationService;
+    private final NotificationSender notificationSender;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationDispatchProperties props;
+    private final ExecutorService senders;
 
-    @Scheduled(fixedDelay = 60_000)
+    public NotificationScheduler(NotificationRepository notificationRepository,
+                                 NotificationSender notificationSender,
+                                 TransactionTemplate transactionTemplate,
+                                 NotificationDispatchProperties props) {
+        this.notificationRepository = notificationRepository;
+        this.notificationSender = notificationSender;
+        this.transactionTemplate = transactionTemplate;
+        this.props = props;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(props.getParallelism(), runnable -> {
+            Thread thread = new Thread(runnable, "notification-sender-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notification-dispatch.check-delay-ms:60000}")
     public void sendScheduledNotifications() {
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = props.getChunkSize();
+        long cursor = 0;
+        int sent = 0;
+        int failed = 0;
 
-        List<Notification> notifications =
-                notificationRepository.findAllByStatusAndSendAtBefore(
-                        NotificationStatus.PENDING,
-                        LocalDateTime.now()
-                );
+        while (true) {
+            long afterId = cursor;
+            ChunkResult result = transactionTemplate.execute(status -> sendChunk(now, afterId, chunkSize));
+            sent += result.sent();
+            failed += result.failed();
+            if (result.scanned() < chunkSize) {
+                break;
+            }
+            cursor = result.lastId();
+        }
 
-        for (Notification notification : notifications) {
-            try {
-                log.info("Sending notification id={}", notification.getMessage());
+        if (sent > 0 || failed > 0) {
+            log.info("Sent {} notifications, {} failed", sent, failed);
+        }
+    }
 
-                notificationService.updateStatus(
-                        notification.getId(),
-                        NotificationStatus.SENT
-                );
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        senders.shutdown();
+        senders.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private ChunkResult sendChunk(LocalDateTime now, long afterId, int chunkSize) {
+        List<Long> ids = notificationRepository.findDueIds(NotificationStatus.PENDING, now, afterId,
+                PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return new ChunkResult(0, afterId, 0, 0);
+        }
+
+        List<OutgoingNotification> claimed = notificationRepository.claim(ids, NotificationStatus.PENDING).stream()
+                .map(NotificationScheduler::toOutgoing)
+                .toList();
+        List<Long> delivered = deliver(claimed);
+        if (!delivered.isEmpty()) {
+            notificationRepository.updateStatuses(delivered, NotificationStatus.SENT, LocalDateTime.now());
+        }
+        return new ChunkResult(ids.size(), ids.get(ids.size() - 1), delivered.size(), claimed.size() - delivered.size());
+    }
 
-            } catch (Exception e) {
-                log.error("Failed to send notification {}", notification.getId(), e);
+    private List<Long> deliver(List<OutgoingNotification> notifications) {
+        List<Delivery> deliveries = notifications.stream()
+                .map(notification -> {
+                    AtomicLong startedAt = new AtomicLong();
+                    Future<?> future = senders.submit(() -> {
+                        startedAt.set(System.nanoTime());
+                        notificationSender.send(notification);
+                    });
+                    return new Delivery(notification.id(), future, startedAt);
+                })
+                .toList();
+
+        List<Long> delivered = new ArrayList<>();
+        for (Delivery delivery : deliveries) {
+            if (await(delivery)) {
+                delivered.add(delivery.id());
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * Waits for one send, timing it from when it started rather than from when it was queued. A send
+     * still running {@code send-timeout-ms} after it started is cancelled and its thread interrupted, so
+     * it gives up instead of sending a notification that has already been left PENDING for a retry.
+     */
+    private boolean await(Delivery delivery) {
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(props.getSendTimeoutMs());
+        while (true) {
+            long startedAt = delivery.startedAt().get();
+            long remaining = startedAt == 0 ? timeoutNanos : startedAt + timeoutNanos - System.nanoTime();
+            try {
+                delivery.future().get(Math.max(remaining, 0), TimeUnit.NANOSECONDS);
+                return true;
+            } catch (TimeoutException e) {
+                if (startedAt != 0 && delivery.future().cancel(true)) {
+                    log.error("Sending notification {} timed out after {} ms", delivery.id(), props.getSendTimeoutMs());
+                    return false;
+                }
+                // Still queued, or it finished just now: check again.
+            } catch (ExecutionException e) {
+                log.error("Failed to send notification {}", delivery.id(), e.getCause());
+                return false;
+            } catch (CancellationException e) {
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                delivery.future().cancel(true);
+                return false;
             }
         }
     }
+
+    private static OutgoingNotification toOutgoing(Notification notification) {
+        return new OutgoingNotification(notification.getId(), notification.getUser().getId(), notification.getMessage());
+    }
+
+    private record Delivery(Long id, Future<?> future, AtomicLong startedAt) {
+    }
+
+    private record ChunkResult(int scanned, long lastId, int sent, int failed) {
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.test.services.notiService;
+
+import com.example.test.models.dtos.notificationDto.OutgoingNotification;
+
+/**
+ * Delivers one notification to its user. Called concurrently from the dispatch pool; throwing leaves
+ * the notification pending for the next run.
+ */
+public interface NotificationSender {
+
+    void send(OutgoingNotification notification);
+}
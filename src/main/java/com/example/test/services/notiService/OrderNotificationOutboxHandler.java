@@ -0,0 +1,59 @@
+package com.example.test.services.notiService;
+
+import com.example.test.models.entities.enums.NotificationStatus;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.notification.Notification;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.notiRepo.NotificationRepository;
+import com.example.test.services.outboxService.OutboxEventHandler;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class OrderNotificationOutboxHandler implements OutboxEventHandler {
+
+    private static final String REVIEW_MESSAGE = "Как вам ваш заказ? Оцените ресторан!";
+    private static final long REVIEW_DELAY_MINUTES = 30;
+
+    private final NotificationRepository notificationRepository;
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean supports(OutboxEventType type) {
+        return type == OutboxEventType.ORDER_STATUS_CHANGED;
+    }
+
+    @Override
+    public void handle(List<OutboxEvent> events) {
+        List<Notification> notifications = new ArrayList<>(events.size());
+
+        for (OutboxEvent event : events) {
+            String message = String.format("Статус вашего заказа №%d изменился на: %s", event.getOrderId(), event.getOrderStatus());
+            notifications.add(notification(event.getUserId(), message, event.getCreatedAt()));
+
+            if (event.getOrderStatus() == OrderStatus.DELIVERED) {
+                notifications.add(notification(event.getUserId(), REVIEW_MESSAGE,
+                        event.getCreatedAt().plusMinutes(REVIEW_DELAY_MINUTES)));
+            }
+        }
+
+        notificationRepository.saveAll(notifications);
+    }
+
+    private Notification notification(Long userId, String message, LocalDateTime sendAt) {
+        return Notification.builder()
+                .user(entityManager.getReference(User.class, userId))
+                .message(message)
+                .status(NotificationStatus.PENDING)
+                .sendAt(sendAt)
+                .build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.test.services.notiService.notiConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "notification-dispatch")
+@Getter
+@Setter
+public class NotificationDispatchProperties {
+
+    private int chunkSize = 200;
+    private int parallelism = 4;
+    private long sendTimeoutMs = 10_000;
+}
@@ -0,0 +1,74 @@
+package com.example.test.services.orderService;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.orderConfig.OrderArchiveProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Moves finished orders, their items and payments out of the hot tables into the
+ * {@code *_archive} tables. Orders with a review stay hot because the review keeps a
+ * foreign key to them; the order_summary row is left in place so listings are unaffected.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    private static final Set<OrderStatus> ARCHIVABLE_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final OrderArchiveProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(cron = "${order-archive.cron:0 0 4 * * *}")
+    public void archiveFinished() {
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(properties.getAgeDays());
+        int total = 0;
+        for (int chunk = 0; chunk < properties.getMaxChunksPerRun(); chunk++) {
+            int moved = archiveChunk(cutoff);
+            total += moved;
+            if (moved < properties.getChunkSize()) {
+                break;
+            }
+        }
+        log.info("Archived {} orders finished before {}", total, cutoff);
+    }
+
+    /**
+     * Archives one chunk in its own transaction, so a long backlog never holds locks for the whole run.
+     *
+     * @return number of orders moved
+     */
+    public int archiveChunk(LocalDateTime cutoff) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<Long> ids = orderRepository.findArchivableIds(
+                    ARCHIVABLE_STATUSES, cutoff, PageRequest.of(0, properties.getChunkSize()));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            archivedOrderRepository.copyOrders(ids, LocalDateTime.now());
+            archivedOrderRepository.copyItems(ids);
+            archivedOrderRepository.copyPayments(ids);
+
+            archivedOrderRepository.deletePayments(ids);
+            archivedOrderRepository.deleteItemLinks(ids);
+            archivedOrderRepository.deleteItems(ids);
+            return archivedOrderRepository.deleteOrders(ids);
+        });
+        return moved == null ? 0 : moved;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.test.services.orderService;
+
+import com.example.test.models.dtos.orderDto.OrderStatusSnapshot;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.orderConfig.OrderExpiryProperties;
+import com.example.test.services.outboxService.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cancels CARD orders that stayed CREATED without a successful payment for longer than
+ * {@code order-expiry.timeout-minutes} and returns their items to stock. CASH orders are
+ * left alone: nothing is pending on them but the restaurant's confirmation.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExpiryJob {
+
+    private final OrderRepository orderRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final OrderSummaryService orderSummaryService;
+    private final OutboxService outboxService;
+    private final OrderExpiryProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${order-expiry.check-delay-ms:60000}")
+    public void expireStale() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(properties.getTimeoutMinutes());
+        int total = 0;
+        int expired;
+        do {
+            expired = expireChunk(cutoff);
+            total += expired;
+        } while (expired == properties.getChunkSize());
+
+        if (total > 0) {
+            log.info("Expired {} orders created before {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Cancels one chunk in its own transaction. The chunk is row-locked first, so a payment or a
+     * manual cancel racing with the job waits and then finds the order already CANCELLED.
+     *
+     * @return number of orders cancelled
+     */
+    public int expireChunk(LocalDateTime cutoff) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<Long> ids = orderRepository.lockUnpaidIdsCreatedBefore(
+                    OrderStatus.CREATED, PaymentMethod.CARD, cutoff, PageRequest.of(0, properties.getChunkSize()));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, Long> userIdsByOrderId = orderRepository.findStatusSnapshots(ids).stream()
+                    .collect(Collectors.toMap(OrderStatusSnapshot::id, OrderStatusSnapshot::userId));
+
+            int cancelled = orderRepository.transitionStatuses(
+                    ids, Set.of(OrderStatus.CREATED), OrderStatus.CANCELLED, LocalDateTime.now());
+            menuItemRepository.restockFromOrders(ids);
+            orderSummaryService.onStatusChanged(ids, OrderStatus.CANCELLED);
+            outboxService.publishOrderStatusChanged(userIdsByOrderId, OrderStatus.CANCELLED);
+            return cancelled;
+        });
+        return expired == null ? 0 : expired;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.test.services.orderService;
+
+import com.example.test.models.dtos.orderDto.OrderExportFormat;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+
+public interface OrderExportService {
+
+    long export(OrderExportFormat format, boolean includeItems, LocalDate from, LocalDate to, Writer out) throws IOException;
+}
@@ -2,6 +2,9 @@ package com.example.test.services.orderService;
 
 import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.dtos.orderDto.OrderFilter;
+import com.example.test.models.dtos.orderDto.OrderSliceDto;
+import com.example.test.models.dtos.orderDto.OrderStatusChange;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.enums.PaymentMethod;
 import org.springframework.data.domain.Page;
@@ -20,7 +23,11 @@ public interface OrderService {
 
     Page<OrderDto> findAllByFilter(OrderFilter filter, Pageable pageable, Authentication auth);
 
+    OrderSliceDto findAllByFilterAfter(OrderFilter filter, String cursor, int size, Authentication auth);
+
     OrderDto updateStatus(Authentication authentication, Long orderId, OrderStatus status);
 
+    List<OrderStatusChangeResult> updateStatuses(Authentication authentication, List<OrderStatusChange> changes);
+
     void cancel(Long orderId, Authentication auth);
 }
\ No newline at end of file
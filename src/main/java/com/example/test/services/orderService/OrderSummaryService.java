@@ -0,0 +1,19 @@
+package com.example.test.services.orderService;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.order.Order;
+
+import java.util.Collection;
+
+public interface OrderSummaryService {
+
+    void onCreated(Order order);
+
+    void onStatusChanged(Long orderId, OrderStatus status);
+
+    void onStatusChanged(Collection<Long> orderIds, OrderStatus status);
+
+    void onCourierAssigned(Long orderId, Long courierId, OrderStatus status);
+
+    void onRestaurantRenamed(Long restaurantId, String name);
+}
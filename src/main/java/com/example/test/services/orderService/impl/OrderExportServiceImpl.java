@@ -0,0 +1,128 @@
+package com.example.test.services.orderService.impl;
+
+import com.example.test.models.dtos.orderDto.OrderExportFormat;
+import com.example.test.models.dtos.orderDto.OrderExportRow;
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.OrderExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class OrderExportServiceImpl implements OrderExportService {
+
+    private static final int CLEAR_INTERVAL = 1000;
+
+    private static final String CSV_HEADER =
+            "orderId,userId,restaurantId,courierId,status,paymentMethod,totalPrice,createdAt,updatedAt";
+    private static final String CSV_ITEM_HEADER = ",itemId,menuItemId,menuItemName,quantity,price";
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Archived orders are written first, then the hot ones. REPEATABLE_READ gives both
+     * streams one snapshot, so an order archived mid-export is neither lost nor repeated.
+     */
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public long export(OrderExportFormat format, boolean includeItems, LocalDate from, LocalDate to, Writer out) throws IOException {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+
+        if (format == OrderExportFormat.CSV) {
+            out.write(CSV_HEADER);
+            if (includeItems) {
+                out.write(CSV_ITEM_HEADER);
+            }
+            out.write('\n');
+        }
+
+        LocalDateTime start = from.atStartOfDay();
+        LocalDateTime end = to.atStartOfDay();
+        long written;
+        try (Stream<OrderExportRow> rows = includeItems
+                ? archivedOrderRepository.streamForExportWithItems(start, end)
+                : archivedOrderRepository.streamForExport(start, end)) {
+            written = write(rows, format, includeItems, out, 0);
+        }
+        try (Stream<OrderExportRow> rows = includeItems
+                ? orderRepository.streamForExportWithItems(start, end)
+                : orderRepository.streamForExport(start, end)) {
+            written = write(rows, format, includeItems, out, written);
+        }
+
+        out.flush();
+        return written;
+    }
+
+    private long write(Stream<OrderExportRow> rows, OrderExportFormat format, boolean includeItems,
+                       Writer out, long written) throws IOException {
+        Iterator<OrderExportRow> it = rows.iterator();
+        while (it.hasNext()) {
+            OrderExportRow row = it.next();
+
+            if (format == OrderExportFormat.CSV) {
+                writeCsv(row, includeItems, out);
+            } else {
+                out.write(objectMapper.writeValueAsString(row));
+                out.write('\n');
+            }
+
+            if (++written % CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+                out.flush();
+            }
+        }
+        return written;
+    }
+
+    private void writeCsv(OrderExportRow row, boolean includeItems, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(160)
+                .append(csv(row.orderId())).append(',')
+                .append(csv(row.userId())).append(',')
+                .append(csv(row.restaurantId())).append(',')
+                .append(csv(row.courierId())).append(',')
+                .append(csv(row.status())).append(',')
+                .append(csv(row.paymentMethod())).append(',')
+                .append(csv(row.totalPrice())).append(',')
+                .append(csv(row.createdAt())).append(',')
+                .append(csv(row.updatedAt()));
+
+        if (includeItems) {
+            line.append(',').append(csv(row.itemId()))
+                    .append(',').append(csv(row.menuItemId()))
+                    .append(',').append(csv(row.menuItemName()))
+                    .append(',').append(csv(row.quantity()))
+                    .append(',').append(csv(row.price()));
+        }
+
+        out.write(line.append('\n').toString());
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -1,8 +1,14 @@
 package com.example.test.services.orderService.impl;
 
+import com.example.test.exceptions.ConflictException;
 import com.example.test.exceptions.NotFoundException;
+import com.example.test.models.dtos.orderDto.OrderCursor;
 import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.dtos.orderDto.OrderFilter;
+import com.example.test.models.dtos.orderDto.OrderSliceDto;
+import com.example.test.models.dtos.orderDto.OrderStatusChange;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult;
+import com.example.test.models.dtos.orderDto.OrderStatusSnapshot;
 import com.example.test.models.entities.cart.Cart;
 import com.example.test.models.entities.cart.CartItem;
 import com.example.test.models.entities.cart.MenuItem;
@@ -11,24 +17,37 @@ import com.example.test.models.entities.enums.PaymentMethod;
 import com.example.test.models.entities.enums.PaymentStatus;
 import com.example.test.models.entities.order.Order;
 import com.example.test.models.entities.order.OrderItem;
+import com.example.test.models.entities.order.OrderSummary;
 import com.example.test.models.entities.payment.Payment;
 import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
+import com.example.test.models.mappers.orderMapper.ArchivedOrderMapper;
 import com.example.test.models.mappers.orderMapper.OrderMapper;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
 import com.example.test.repositories.cartRepo.CartItemRepository;
 import com.example.test.repositories.cartRepo.CartRepository;
 import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
 import com.example.test.repositories.paymentRepo.PaymentRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
-import com.example.test.services.notiService.NotificationServiceImpl;
+import com.example.test.services.cartService.CartStore;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.etaService.RestaurantPrepTimeService;
 import com.example.test.services.orderService.OrderService;
+import com.example.test.services.orderService.OrderSummaryService;
+import com.example.test.services.outboxService.OutboxService;
+import com.example.test.services.stockService.StockReservationService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import jakarta.persistence.criteria.Predicate;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
@@ -39,9 +58,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
 import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -49,6 +74,13 @@ import java.util.stream.Collectors;
 @Transactional
 public class OrderServiceImpl implements OrderService {
 
+    private static final Set<OrderStatus> RESTAURANT_STATUSES = EnumSet.of(
+            OrderStatus.CONFIRMED,
+            OrderStatus.COOKED,
+            OrderStatus.IN_DELIVERY,
+            OrderStatus.CANCELLED
+    );
+
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
     private final CartItemRepository cartItemRepository;
@@ -57,7 +89,17 @@ public class OrderServiceImpl implements OrderService {
     private final OrderMapper orderMapper;
     private final MenuItemRepository menuItemRepository;
     private final PaymentRepository paymentRepository;
-    private final NotificationServiceImpl notificationService;
+    private final OrderSummaryRepository orderSummaryRepository;
+    private final OrderSummaryMapper orderSummaryMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final OutboxService outboxService;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final ArchivedOrderMapper archivedOrderMapper;
+    private final CartStore cartStore;
+    private final StockReservationService stockReservationService;
+    private final CourierDispatchQueue courierDispatchQueue;
+    private final CourierWorkloadRegistry workloadRegistry;
+    private final RestaurantPrepTimeService prepTimeService;
 
     @Override
     @Transactional
@@ -66,16 +108,23 @@ public class OrderServiceImpl implements OrderService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        Restaurant restaurant = restaurantRepository.findByIdWithMenuItems(restaurantId)
+        Restaurant restaurant = restaurantRepository.findById(restaurantId)
                 .orElseThrow(() -> new NotFoundException("Restaurant not found"));
 
-        Cart cart = cartRepository.findByUserId(userId)
+        cartStore.flush(userId);
+        Cart cart = cartRepository.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new NotFoundException("Cart is empty"));
 
         if (cart.getItems().isEmpty()) {
             throw new IllegalStateException("Cannot create order from empty cart");
         }
 
+        Set<Long> cartMenuItemIds = cart.getItems().stream()
+                .map(ci -> ci.getMenuItem().getId())
+                .collect(Collectors.toSet());
+
+        Set<Long> restaurantMenuItemIds = restaurantRepository.findMenuItemIdsInRestaurant(restaurantId, cartMenuItemIds);
+
         Order order = new Order();
         order.setUser(user);
         order.setRestaurant(restaurant);
@@ -83,15 +132,12 @@ public class OrderServiceImpl implements OrderService {
         order.setPaymentMethod(paymentMethod);
 
         BigDecimal totalPrice = BigDecimal.ZERO;
-        List<OrderItem> orderItems = new ArrayList<>();
+        List<OrderItem> orderItems = new ArrayList<>(cart.getItems().size());
 
         for (CartItem cartItem : cart.getItems()) {
             MenuItem menuItem = cartItem.getMenuItem();
 
-            boolean itemExistsInRestaurant = restaurant.getMenuItems().stream()
-                    .anyMatch(mi -> mi.getId().equals(menuItem.getId()));
-
-            if (!itemExistsInRestaurant) {
+            if (!restaurantMenuItemIds.contains(menuItem.getId())) {
                 throw new IllegalStateException("Блюдо '" + menuItem.getName() +
                         "' не найдено в меню ресторана " + restaurant.getName());
             }
@@ -110,34 +156,75 @@ public class OrderServiceImpl implements OrderService {
         order.setTotalPrice(totalPrice);
         order.setOrderItems(orderItems);
 
+        stockReservationService.convert(userId, cart.getItems().stream()
+                .collect(Collectors.toMap(ci -> ci.getMenuItem().getId(), CartItem::getQuantity, Integer::sum)));
+
         Order savedOrder = orderRepository.save(order);
+        orderSummaryService.onCreated(savedOrder);
 
         cartItemRepository.deleteAllByCartId(cart.getId());
         cart.getItems().clear();
+        cartStore.evict(userId);
 
         return orderMapper.toDto(savedOrder);
     }
 
 
     @Override
+    @Transactional(readOnly = true)
     public OrderDto getById(Long id) {
-        return orderMapper.toDto(
-                orderRepository.findById(id)
-                        .orElseThrow(() -> new NotFoundException("Order not found"))
-        );
+        return orderRepository.findById(id)
+                .map(orderMapper::toDto)
+                .or(() -> archivedOrderRepository.findById(id).map(archivedOrderMapper::toDto))
+                .orElseThrow(() -> new NotFoundException("Order not found"));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<OrderDto> getUserOrders(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
-                .map(orderMapper::toDto)
+        return orderSummaryRepository.findByUserIdOrderByCreatedAtDesc(userId).stream()
+                .map(orderSummaryMapper::toDto)
                 .toList();
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<OrderDto> findAllByFilter(OrderFilter filter, Pageable pageable, Authentication auth) {
+        return orderSummaryRepository.findAll(filterSpecification(filter, auth), pageable).map(orderSummaryMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderSliceDto findAllByFilterAfter(OrderFilter filter, String cursor, int size, Authentication auth) {
+        Specification<OrderSummary> spec = filterSpecification(filter, auth);
+
+        if (cursor != null && !cursor.isBlank()) {
+            OrderCursor after = OrderCursor.decode(cursor);
+            spec = spec.and((root, query, cb) -> cb.or(
+                    cb.lessThan(root.get("createdAt"), after.createdAt()),
+                    cb.and(
+                            cb.equal(root.get("createdAt"), after.createdAt()),
+                            cb.lessThan(root.get("id"), after.id())
+                    )
+            ));
+        }
+
+        Sort keysetOrder = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        List<OrderSummary> rows = orderSummaryRepository.findBy(spec, q -> q.sortBy(keysetOrder).limit(size + 1).all());
+
+        boolean hasNext = rows.size() > size;
+        List<OrderSummary> page = hasNext ? rows.subList(0, size) : rows;
+
+        String nextCursor = null;
+        if (hasNext) {
+            OrderSummary last = page.get(page.size() - 1);
+            nextCursor = new OrderCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return new OrderSliceDto(page.stream().map(orderSummaryMapper::toDto).toList(), hasNext, nextCursor);
+    }
+
+    private Specification<OrderSummary> filterSpecification(OrderFilter filter, Authentication auth) {
         UserDetailsImpl principal = (UserDetailsImpl) auth.getPrincipal();
         Long currentUserId = principal.getUser().getId();
 
@@ -145,19 +232,19 @@ public class OrderServiceImpl implements OrderService {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
 
-        return orderRepository.findAll((root, query, cb) -> {
+        return (root, query, cb) -> {
             List<Predicate> predicates = new ArrayList<>();
 
             if (roles.contains("ROLE_ADMIN")) {
 
                 if (filter.userId() != null) {
-                    predicates.add(cb.equal(root.get("user").get("id"), filter.userId()));
+                    predicates.add(cb.equal(root.get("userId"), filter.userId()));
                 }
             } else if (roles.contains("ROLE_RESTAURANT_OWNER")) {
 
-                predicates.add(cb.equal(root.get("restaurant").get("owner").get("id"), currentUserId));
+                predicates.add(cb.equal(root.get("ownerId"), currentUserId));
             } else if (roles.contains("ROLE_USER")) {
-                predicates.add(cb.equal(root.get("user").get("id"), currentUserId));
+                predicates.add(cb.equal(root.get("userId"), currentUserId));
             }
 
             if (filter.status() != null) {
@@ -165,15 +252,12 @@ public class OrderServiceImpl implements OrderService {
             }
 
             return cb.and(predicates.toArray(Predicate[]::new));
-        }, pageable).map(orderMapper::toDto);
+        };
     }
 
     @Override
     @Transactional
     public OrderDto updateStatus(Authentication authentication, Long orderId, OrderStatus newStatus) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new NotFoundException("Order not found"));
-
         UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
         Long currentUserId = principal.getUser().getId();
 
@@ -182,54 +266,194 @@ public class OrderServiceImpl implements OrderService {
                 .map(GrantedAuthority::getAuthority)
                 .collect(Collectors.toSet());
 
-        if (roles.contains("ROLE_RESTAURANT_OWNER")) {
-            if (newStatus == OrderStatus.CONFIRMED && order.getPaymentMethod() == PaymentMethod.CARD) {
-                throw new IllegalStateException("Order with CARD payment method cannot be confirmed manually by the restaurant.");
-            }
-            validateRestaurantOwner(order, currentUserId, newStatus);
-        } else if (roles.contains("ROLE_COURIER")) {
+        boolean isRestaurantOwner = roles.contains("ROLE_RESTAURANT_OWNER");
+        boolean isCourier = !isRestaurantOwner && roles.contains("ROLE_COURIER");
 
+        if (isRestaurantOwner) {
+            if (!RESTAURANT_STATUSES.contains(newStatus)) {
+                throw new AccessDeniedException("Restaurant cannot set status: " + newStatus);
+            }
+        } else if (isCourier) {
             if (newStatus != OrderStatus.DELIVERED) {
                 throw new AccessDeniedException("Courier can only set DELIVERED status");
             }
+        } else if (!roles.contains("ROLE_ADMIN")) {
+            throw new AccessDeniedException("Access denied");
+        }
 
-            if (order.getCourier() == null || !order.getCourier().getUser().getId().equals(currentUserId)) {
-                throw new AccessDeniedException("You are not the assigned courier for this order");
+        Set<OrderStatus> sources = newStatus.allowedSources();
+        if (sources.isEmpty()) {
+            throw new IllegalStateException("Order status cannot be changed to " + newStatus);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int updated;
+        if (isRestaurantOwner) {
+            updated = orderRepository.transitionStatusAsOwner(orderId, sources, newStatus, currentUserId,
+                    newStatus != OrderStatus.CONFIRMED, now);
+        } else if (isCourier) {
+            updated = orderRepository.transitionStatusAsCourier(orderId, sources, newStatus, currentUserId, now);
+        } else {
+            updated = orderRepository.transitionStatus(orderId, sources, newStatus, now);
+        }
+
+        if (updated == 0) {
+            throw rejectedTransition(orderId, newStatus, isRestaurantOwner, isCourier, currentUserId);
+        }
+
+        orderSummaryService.onStatusChanged(orderId, newStatus);
+        OrderSummary summary = orderSummaryRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found"));
+
+        if (newStatus == OrderStatus.DELIVERED) {
+            int cookTime = (int) ChronoUnit.MINUTES.between(summary.getCreatedAt(), now);
+            orderRepository.updateCookTime(orderId, cookTime);
+            if (summary.getRestaurantId() != null) {
+                prepTimeService.recordPrepTime(summary.getRestaurantId(), cookTime);
             }
 
-            if (order.getPaymentMethod() == PaymentMethod.CASH) {
-                Payment payment = paymentRepository.findByOrderId(order.getId())
+            if (isCourier && summary.getPaymentMethod() == PaymentMethod.CASH) {
+                Payment payment = paymentRepository.findByOrderId(orderId)
                         .orElseThrow(() -> new NotFoundException("Payment record not found"));
 
                 payment.setStatus(PaymentStatus.PAID);
                 paymentRepository.save(payment);
             }
-        } else if (!roles.contains("ROLE_ADMIN")) {
-            throw new AccessDeniedException("Access denied");
         }
 
-        order.setStatus(newStatus);
+        outboxService.publishOrderStatusChanged(orderId, summary.getUserId(), newStatus);
+        if (newStatus == OrderStatus.CONFIRMED) {
+            courierDispatchQueue.orderConfirmed(orderId);
+        } else if (!newStatus.isActiveForCourier()) {
+            workloadRegistry.orderFinished(summary.getCourierId());
+        }
 
-        if (newStatus == OrderStatus.DELIVERED) {
-            int minutes = (int) ChronoUnit.MINUTES.between(order.getCreatedAt(), LocalDateTime.now());
-            order.setCookTime(minutes);
+        return orderSummaryMapper.toDto(summary);
+    }
+
+    @Override
+    @Transactional
+    public List<OrderStatusChangeResult> updateStatuses(Authentication authentication, List<OrderStatusChange> changes) {
+        UserDetailsImpl principal = (UserDetailsImpl) authentication.getPrincipal();
+        Long currentUserId = principal.getUser().getId();
+
+        Set<String> roles = authentication.getAuthorities()
+                .stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+
+        boolean isRestaurantOwner = roles.contains("ROLE_RESTAURANT_OWNER");
+        if (!isRestaurantOwner && !roles.contains("ROLE_ADMIN")) {
+            throw new AccessDeniedException("Access denied");
         }
 
-        orderRepository.save(order);
+        Set<Long> orderIds = changes.stream().map(OrderStatusChange::orderId).collect(Collectors.toSet());
+        // Lock the rows (in id order) before reading their status, so the checks below see
+        // the state the UPDATEs will apply to and every matched row is one this call moved.
+        orderRepository.lockIdsByIdIn(orderIds);
+        Map<Long, OrderStatusSnapshot> snapshots = orderRepository.findStatusSnapshots(orderIds).stream()
+                .collect(Collectors.toMap(OrderStatusSnapshot::id, Function.identity()));
+
+        OrderStatusChangeResult[] results = new OrderStatusChangeResult[changes.size()];
+        Map<OrderStatus, Map<Long, Integer>> pendingByTarget = new EnumMap<>(OrderStatus.class);
+        Set<Long> seen = new HashSet<>();
+
+        for (int i = 0; i < changes.size(); i++) {
+            OrderStatusChange change = changes.get(i);
+            results[i] = rejectBulkChange(change, snapshots.get(change.orderId()), isRestaurantOwner, currentUserId, seen);
+            if (results[i] == null) {
+                pendingByTarget.computeIfAbsent(change.status(), s -> new LinkedHashMap<>()).put(change.orderId(), i);
+            }
+        }
 
-        String message = String.format("Статус вашего заказа №%d изменился на: %s", order.getId(), newStatus);
-        notificationService.createOrderNotification(order.getUser().getId(), message, LocalDateTime.now());
+        LocalDateTime now = LocalDateTime.now();
+        Map<OrderStatus, Collection<Long>> appliedByTarget = new EnumMap<>(OrderStatus.class);
 
-        if (newStatus == OrderStatus.DELIVERED) {
-            String reviewMessage = "Как вам ваш заказ? Оцените ресторан!";
-            notificationService.createOrderNotification(
-                    order.getUser().getId(),
-                    reviewMessage,
-                    LocalDateTime.now().plusMinutes(30)
-            );
+        pendingByTarget.forEach((target, indexByOrderId) -> {
+            Set<Long> ids = indexByOrderId.keySet();
+            int updated = orderRepository.transitionStatuses(ids, target.allowedSources(), target, now);
+            if (updated != ids.size()) {
+                throw new IllegalStateException("Expected " + ids.size() + " locked orders to move to " + target
+                        + " but " + updated + " did");
+            }
+
+            indexByOrderId.forEach((orderId, index) -> results[index] = OrderStatusChangeResult.updated(changes.get(index)));
+            appliedByTarget.put(target, ids);
+        });
+
+        appliedByTarget.forEach((target, applied) -> {
+            orderSummaryService.onStatusChanged(applied, target);
+
+            Map<Long, Long> userIdsByOrderId = new LinkedHashMap<>();
+            applied.forEach(orderId -> userIdsByOrderId.put(orderId, snapshots.get(orderId).userId()));
+            outboxService.publishOrderStatusChanged(userIdsByOrderId, target);
+            if (target == OrderStatus.CONFIRMED) {
+                applied.forEach(courierDispatchQueue::orderConfirmed);
+            } else if (!target.isActiveForCourier()) {
+                applied.forEach(orderId -> workloadRegistry.orderFinished(snapshots.get(orderId).courierId()));
+            }
+        });
+
+        return List.of(results);
+    }
+
+    private OrderStatusChangeResult rejectBulkChange(OrderStatusChange change, OrderStatusSnapshot order,
+                                                     boolean isRestaurantOwner, Long currentUserId, Set<Long> seen) {
+        if (!seen.add(change.orderId())) {
+            return OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.REJECTED,
+                    "Order appears more than once in the request");
+        }
+        if (!RESTAURANT_STATUSES.contains(change.status())) {
+            return isRestaurantOwner
+                    ? OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.FORBIDDEN,
+                    "Restaurant cannot set status: " + change.status())
+                    : OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.REJECTED,
+                    "Status " + change.status() + " cannot be set in bulk");
         }
+        if (order == null) {
+            return OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.NOT_FOUND, "Order not found");
+        }
+        if (isRestaurantOwner) {
+            if (!currentUserId.equals(order.ownerId())) {
+                return OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.FORBIDDEN,
+                        "This order does not belong to your restaurant");
+            }
+            if (change.status() == OrderStatus.CONFIRMED && order.paymentMethod() == PaymentMethod.CARD) {
+                return OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.REJECTED,
+                        "Order with CARD payment method cannot be confirmed manually by the restaurant.");
+            }
+        }
+        if (!order.status().canTransitionTo(change.status())) {
+            return OrderStatusChangeResult.failed(change, OrderStatusChangeResult.Outcome.CONFLICT,
+                    String.format("Order %d is %s and cannot be moved to %s", order.id(), order.status(), change.status()));
+        }
+        return null;
+    }
 
-        return orderMapper.toDto(order);
+    /**
+     * Called only when the conditional update matched no row: loads the order to tell
+     * a missing order, a permission problem and a stale status apart.
+     */
+    private RuntimeException rejectedTransition(Long orderId, OrderStatus newStatus,
+                                                 boolean isRestaurantOwner, boolean isCourier, Long currentUserId) {
+        Order order = orderRepository.findById(orderId)
+                .orElseThrow(() -> new NotFoundException("Order not found"));
+
+        if (isRestaurantOwner) {
+            if (newStatus == OrderStatus.CONFIRMED && order.getPaymentMethod() == PaymentMethod.CARD) {
+                return new IllegalStateException("Order with CARD payment method cannot be confirmed manually by the restaurant.");
+            }
+            if (!order.getRestaurant().getOwner().getId().equals(currentUserId)) {
+                return new AccessDeniedException("This order does not belong to your restaurant");
+            }
+        } else if (isCourier) {
+            if (order.getCourier() == null || !order.getCourier().getUser().getId().equals(currentUserId)) {
+                return new AccessDeniedException("You are not the assigned courier for this order");
+            }
+        }
+
+        return new ConflictException(String.format("Order %d is %s and cannot be moved to %s",
+                orderId, order.getStatus(), newStatus));
     }
 
     @Override
@@ -241,37 +465,19 @@ public class OrderServiceImpl implements OrderService {
 
         validateCancelPermissions(order, auth);
 
-        if (order.getStatus() == OrderStatus.DELIVERED || order.getStatus() == OrderStatus.CANCELLED) {
+        if (!order.getStatus().canTransitionTo(OrderStatus.CANCELLED)) {
             throw new IllegalStateException("Order cannot be cancelled in its current status: " + order.getStatus());
         }
 
-        for (OrderItem item : order.getOrderItems()) {
-            MenuItem menuItem = item.getMenuItem();
-            if (menuItem != null) {
-                menuItem.setQuantity(menuItem.getQuantity() + item.getQuantity());
-                menuItemRepository.save(menuItem);
-            }
+        if (orderRepository.transitionStatus(orderId, OrderStatus.CANCELLED.allowedSources(),
+                OrderStatus.CANCELLED, LocalDateTime.now()) == 0) {
+            throw new ConflictException("Order %d was changed concurrently and cannot be cancelled".formatted(orderId));
         }
+        menuItemRepository.restockFromOrders(List.of(orderId));
 
-        order.setStatus(OrderStatus.CANCELLED);
-        orderRepository.save(order);
-    }
-
-    private void validateRestaurantOwner(Order order, Long currentUserId, OrderStatus newStatus) {
-
-        if (!order.getRestaurant().getOwner().getId().equals(currentUserId)) {
-            throw new AccessDeniedException("This order does not belong to your restaurant");
-        }
-
-        Set<OrderStatus> allowedStatuses = EnumSet.of(
-                OrderStatus.CONFIRMED,
-                OrderStatus.COOKED,
-                OrderStatus.IN_DELIVERY,
-                OrderStatus.CANCELLED
-        );
-
-        if (!allowedStatuses.contains(newStatus)) {
-            throw new AccessDeniedException("Restaurant cannot set status: " + newStatus);
+        orderSummaryService.onStatusChanged(orderId, OrderStatus.CANCELLED);
+        if (order.getCourier() != null) {
+            workloadRegistry.orderFinished(order.getCourier().getId());
         }
     }
 
@@ -0,0 +1,90 @@
+package com.example.test.services.orderService.impl;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.order.Order;
+import com.example.test.models.entities.order.OrderItem;
+import com.example.test.models.entities.order.OrderSummary;
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
+import com.example.test.services.orderService.OrderSummaryService;
+import com.example.test.services.orderService.orderConfig.OrderSummaryProperties;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class OrderSummaryServiceImpl implements OrderSummaryService {
+
+    private final OrderSummaryRepository summaryRepository;
+    private final EntityManager entityManager;
+    private final OrderSummaryProperties properties;
+
+    @Override
+    public void onCreated(Order order) {
+        Restaurant restaurant = order.getRestaurant();
+
+        OrderSummary summary = OrderSummary.builder()
+                .id(order.getId())
+                .userId(order.getUser().getId())
+                .restaurantId(restaurant != null ? restaurant.getId() : null)
+                .restaurantName(restaurant != null ? restaurant.getName() : null)
+                .ownerId(restaurant != null && restaurant.getOwner() != null ? restaurant.getOwner().getId() : null)
+                .courierId(order.getCourier() != null ? order.getCourier().getId() : null)
+                .status(order.getStatus())
+                .paymentMethod(order.getPaymentMethod())
+                .totalPrice(order.getTotalPrice())
+                .itemCount(order.getOrderItems().stream().mapToInt(OrderItem::getQuantity).sum())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+
+        // persist, not save(): the id is assigned, so save() would merge and issue a SELECT first
+        entityManager.persist(summary);
+    }
+
+    @Override
+    public void onStatusChanged(Long orderId, OrderStatus status) {
+        summaryRepository.updateStatus(orderId, status, LocalDateTime.now());
+    }
+
+    @Override
+    public void onStatusChanged(Collection<Long> orderIds, OrderStatus status) {
+        summaryRepository.updateStatuses(orderIds, status, LocalDateTime.now());
+    }
+
+    @Override
+    public void onCourierAssigned(Long orderId, Long courierId, OrderStatus status) {
+        summaryRepository.updateCourier(orderId, courierId, status, LocalDateTime.now());
+    }
+
+    @Override
+    public void onRestaurantRenamed(Long restaurantId, String name) {
+        summaryRepository.updateRestaurantName(restaurantId, name);
+    }
+
+    /**
+     * One-off migration for orders placed before {@code order_summary} existed. It scans all of
+     * {@code orders}, so it only runs when {@code order-summary.backfill-on-startup} is set for the
+     * deploy that introduces the table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!properties.isBackfillOnStartup()) {
+            return;
+        }
+        int inserted = summaryRepository.backfillMissing();
+        if (inserted > 0) {
+            log.info("Backfilled {} order summaries", inserted);
+        }
+    }
+}
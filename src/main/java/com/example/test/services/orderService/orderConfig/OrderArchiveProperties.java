@@ -0,0 +1,19 @@
+package com.example.test.services.orderService.orderConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "order-archive")
+@Getter
+@Setter
+public class OrderArchiveProperties {
+
+    private int ageDays = 90;
+
+    private int chunkSize = 500;
+
+    private int maxChunksPerRun = 50;
+}
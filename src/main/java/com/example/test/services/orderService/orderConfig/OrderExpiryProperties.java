@@ -0,0 +1,19 @@
+package com.example.test.services.orderService.orderConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "order-expiry")
+@Getter
+@Setter
+public class OrderExpiryProperties {
+
+    private int timeoutMinutes = 60;
+
+    private int chunkSize = 200;
+
+    private long checkDelayMs = 60_000;
+}
@@ -0,0 +1,15 @@
+package com.example.test.services.orderService.orderConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "order-summary")
+@Getter
+@Setter
+public class OrderSummaryProperties {
+
+    private boolean backfillOnStartup = false;
+}
@@ -0,0 +1,107 @@
+package com.example.test.services.outboxService;
+
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.repositories.outboxRepo.OutboxEventRepository;
+import com.example.test.services.outboxService.outboxConfig.OutboxProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxDispatcher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxEventHandler> handlers;
+    private final OutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${outbox.dispatch-delay-ms:1000}")
+    public void dispatchPending() {
+        long afterId = 0;
+        BatchResult batch;
+        do {
+            batch = dispatchBatch(afterId);
+            afterId = batch.lastId();
+        } while (batch.scanned() == properties.getBatchSize());
+    }
+
+    /**
+     * Claims the next batch after {@code afterId} and delivers it in the same transaction, so the row
+     * locks keep other instances off these events until they are marked processed. Events locked
+     * elsewhere are skipped. If any handler fails the batch is rolled back and retried event by event,
+     * so a single bad event only costs itself an attempt.
+     */
+    public BatchResult dispatchBatch(long afterId) {
+        List<Long> ids = outboxEventRepository.findPendingIds(properties.getMaxAttempts(), afterId,
+                PageRequest.of(0, properties.getBatchSize()));
+        if (ids.isEmpty()) {
+            return new BatchResult(0, afterId);
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliver(claim(ids)));
+        } catch (RuntimeException e) {
+            log.warn("Outbox batch of {} events failed, retrying one by one", ids.size(), e);
+            ids.forEach(this::dispatchSingle);
+        }
+        return new BatchResult(ids.size(), ids.get(ids.size() - 1));
+    }
+
+    @Scheduled(cron = "${outbox.purge-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        Integer deleted = transactionTemplate.execute(status -> outboxEventRepository
+                .deleteProcessedBefore(LocalDateTime.now().minusDays(properties.getRetentionDays())));
+        log.info("Purged {} processed outbox events", deleted);
+    }
+
+    private void dispatchSingle(Long id) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> deliver(claim(List.of(id))));
+        } catch (RuntimeException e) {
+            log.error("Outbox event {} failed", id, e);
+            String error = String.valueOf(e.getMessage());
+            transactionTemplate.executeWithoutResult(status ->
+                    outboxEventRepository.markFailed(id, error.length() > 500 ? error.substring(0, 500) : error));
+        }
+    }
+
+    private List<OutboxEvent> claim(List<Long> ids) {
+        return outboxEventRepository.claim(ids, properties.getMaxAttempts()).stream()
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .toList();
+    }
+
+    private void deliver(List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<OutboxEventType, List<OutboxEvent>> byType = events.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getType, () -> new EnumMap<>(OutboxEventType.class), Collectors.toList()));
+
+        byType.forEach((type, batch) -> {
+            for (OutboxEventHandler handler : handlers) {
+                if (handler.supports(type)) {
+                    handler.handle(batch);
+                }
+            }
+        });
+
+        outboxEventRepository.markProcessed(events.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+    }
+
+    public record BatchResult(int scanned, long lastId) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.test.services.outboxService;
+
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Side effect of a domain event. Handlers run inside the dispatcher transaction,
+ * so their writes commit together with the events being marked as processed.
+ */
+public interface OutboxEventHandler {
+
+    boolean supports(OutboxEventType type);
+
+    void handle(List<OutboxEvent> events);
+}
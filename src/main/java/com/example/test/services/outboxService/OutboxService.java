@@ -0,0 +1,15 @@
+package com.example.test.services.outboxService;
+
+import com.example.test.models.entities.enums.OrderStatus;
+
+import java.util.Map;
+
+public interface OutboxService {
+
+    void publishOrderStatusChanged(Long orderId, Long userId, OrderStatus status);
+
+    /**
+     * @param userIdsByOrderId order id to the id of the customer who placed it
+     */
+    void publishOrderStatusChanged(Map<Long, Long> userIdsByOrderId, OrderStatus status);
+}
@@ -0,0 +1,47 @@
+package com.example.test.services.outboxService.impl;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.repositories.outboxRepo.OutboxEventRepository;
+import com.example.test.services.outboxService.OutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    @Override
+    public void publishOrderStatusChanged(Long orderId, Long userId, OrderStatus status) {
+        outboxEventRepository.save(statusChanged(orderId, userId, status, LocalDateTime.now()));
+    }
+
+    @Override
+    public void publishOrderStatusChanged(Map<Long, Long> userIdsByOrderId, OrderStatus status) {
+        LocalDateTime now = LocalDateTime.now();
+        List<OutboxEvent> events = new ArrayList<>(userIdsByOrderId.size());
+        userIdsByOrderId.forEach((orderId, userId) -> events.add(statusChanged(orderId, userId, status, now)));
+        outboxEventRepository.saveAll(events);
+    }
+
+    private OutboxEvent statusChanged(Long orderId, Long userId, OrderStatus status, LocalDateTime at) {
+        return OutboxEvent.builder()
+                .type(OutboxEventType.ORDER_STATUS_CHANGED)
+                .orderId(orderId)
+                .userId(userId)
+                .orderStatus(status)
+                .createdAt(at)
+                .build();
+    }
+}
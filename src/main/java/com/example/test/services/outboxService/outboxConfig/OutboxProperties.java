@@ -0,0 +1,21 @@
+package com.example.test.services.outboxService.outboxConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "outbox")
+@Getter
+@Setter
+public class OutboxProperties {
+
+    private int batchSize = 100;
+
+    private int maxAttempts = 5;
+
+    private int retentionDays = 7;
+
+    private long dispatchDelayMs = 1000;
+}
@@ -1,5 +1,6 @@
 package com.example.test.services.paymentService.impl;
 
+import com.example.test.exceptions.ConflictException;
 import com.example.test.exceptions.NotFoundException;
 import com.example.test.models.dtos.payment.CreatePaymentDto;
 import com.example.test.models.dtos.payment.PaymentDto;
@@ -11,12 +12,16 @@ import com.example.test.models.entities.payment.Payment;
 import com.example.test.models.mappers.payment.PaymentMapper;
 import com.example.test.repositories.orderRepo.OrderRepository;
 import com.example.test.repositories.paymentRepo.PaymentRepository;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.paymentService.PaymentService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -25,6 +30,8 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final OrderRepository orderRepository;
     private final PaymentMapper paymentMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final CourierDispatchQueue courierDispatchQueue;
 
     @Override
     public PaymentDto createPayment(CreatePaymentDto dto, Long currentUserId) {
@@ -69,15 +76,27 @@ public class PaymentServiceImpl implements PaymentService {
             throw new IllegalStateException("Payment status cannot be updated for CASH orders.");
         }
 
+        // Providers retry webhooks; a repeat of the status we already hold is a no-op.
+        if (payment.getStatus() == newStatus) {
+            return paymentMapper.toDto(payment);
+        }
+
         payment.setStatus(newStatus);
 
         if (newStatus == PaymentStatus.PAID) {
-            Order order = payment.getOrder();
-            order.setStatus(OrderStatus.CONFIRMED);
-            orderRepository.save(order);
+            // The conditional UPDATE flushes the status change above before it clears
+            // the persistence context, so no save() is needed afterwards.
+            Long orderId = payment.getOrder().getId();
+            int updated = orderRepository.transitionStatus(orderId, OrderStatus.CONFIRMED.allowedSources(),
+                    OrderStatus.CONFIRMED, LocalDateTime.now());
+            if (updated == 0) {
+                throw new ConflictException("Order " + orderId + " can no longer be confirmed");
+            }
+            orderSummaryService.onStatusChanged(orderId, OrderStatus.CONFIRMED);
+            courierDispatchQueue.orderConfirmed(orderId);
         }
 
-        return paymentMapper.toDto(paymentRepository.save(payment));
+        return paymentMapper.toDto(payment);
     }
 
     @Override
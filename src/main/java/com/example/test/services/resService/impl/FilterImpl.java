@@ -2,7 +2,9 @@ package com.example.test.services.resService.impl;
 
 import com.example.test.models.dtos.restaurantDto.RestaurantFilter;
 import com.example.test.models.dtos.restaurantDto.RestaurantListDto;
+import com.example.test.models.dtos.restaurantDto.RestaurantWithRatingProjection;
 import com.example.test.repositories.resRepo.FilterRestaurantRepository;
+import com.example.test.services.etaService.EtaCalculationService;
 import com.example.test.services.resService.Filter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -10,12 +12,16 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class FilterImpl implements Filter {
 
     private final FilterRestaurantRepository restaurantRepository;
+    private final EtaCalculationService etaCalculationService;
 
     @Override
     public Page<RestaurantListDto> findAll(
@@ -23,19 +29,25 @@ public class FilterImpl implements Filter {
             Pageable pageable
     ) {
 
-        return restaurantRepository
+        Page<RestaurantWithRatingProjection> page = restaurantRepository
                 .findAllWithFilter(
                         filter.cuisineType(),
                         filter.minRating(),
                         pageable
-                )
-                .map(p -> new RestaurantListDto(
-                        p.getId(),
-                        p.getName(),
-                        p.getAddress(),
-                        p.isOpen(),
-                        p.getAvgCookingTimeMinutes(),
-                        p.getRating()
-                ));
+                );
+
+        Map<Long, Integer> avgCookingTimes = new HashMap<>();
+        page.forEach(p -> avgCookingTimes.put(p.getId(), p.getAvgCookingTimeMinutes()));
+        Map<Long, Integer> etaMinutes = etaCalculationService.calculateEtaMinutes(avgCookingTimes);
+
+        return page.map(p -> new RestaurantListDto(
+                p.getId(),
+                p.getName(),
+                p.getAddress(),
+                p.isOpen(),
+                p.getAvgCookingTimeMinutes(),
+                p.getRating(),
+                etaMinutes.get(p.getId())
+        ));
     }
 }
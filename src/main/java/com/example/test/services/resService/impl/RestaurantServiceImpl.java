@@ -14,13 +14,17 @@ import com.example.test.models.mappers.resMapper.RestaurantMapper;
 import com.example.test.repositories.resRepo.RestaurantApplicationRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.resService.RestaurantService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -31,6 +35,8 @@ public class RestaurantServiceImpl implements RestaurantService {
     private final RestaurantMapper restaurantMapper;
     private final RestaurantApplicationRepository restaurantApplicationRepository;
     private final MenuItemMapper menuItemMapper;
+    private final OrderSummaryService orderSummaryService;
+    private final EtaCalculationService etaCalculationService;
 
 
     @Transactional
@@ -71,6 +77,11 @@ public class RestaurantServiceImpl implements RestaurantService {
 
         restaurant.setName(dto.getName());
         restaurant.setAddress(dto.getAddress());
+        if (dto.getLatitude() != null && dto.getLongitude() != null) {
+            restaurant.setLatitude(dto.getLatitude());
+            restaurant.setLongitude(dto.getLongitude());
+        }
+        orderSummaryService.onRestaurantRenamed(restaurantId, dto.getName());
 
         return restaurantMapper.toDto(restaurant);
     }
@@ -134,9 +145,18 @@ public class RestaurantServiceImpl implements RestaurantService {
 
     @Override
     public List<RestaurantDto> getAllRestaurants() {
-        return restaurantRepository.findAll()
-                .stream()
-                .map(restaurantMapper::toDto)
+        List<Restaurant> restaurants = restaurantRepository.findAll();
+
+        Map<Long, Integer> avgCookingTimes = new HashMap<>();
+        restaurants.forEach(r -> avgCookingTimes.put(r.getId(), r.getAvgCookingTimeMinutes()));
+        Map<Long, Integer> etaMinutes = etaCalculationService.calculateEtaMinutes(avgCookingTimes);
+
+        return restaurants.stream()
+                .map(r -> {
+                    RestaurantDto dto = restaurantMapper.toDto(r);
+                    dto.setEtaMinutes(etaMinutes.get(r.getId()));
+                    return dto;
+                })
                 .toList();
     }
 
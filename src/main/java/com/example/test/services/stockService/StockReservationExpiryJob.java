@@ -0,0 +1,63 @@
+package com.example.test.services.stockService;
+
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.stockService.stockConfig.StockReservationProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Gives the stock of expired reservations back in chunks. The cart lines stay; checkout takes
+ * their stock again if it is still available.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockReservationExpiryJob {
+
+    private final StockReservationRepository reservationRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final StockReservationProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${stock-reservation.check-delay-ms:60000}")
+    public void releaseExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int released;
+        do {
+            released = releaseChunk(now);
+            total += released;
+        } while (released == properties.getChunkSize());
+
+        if (total > 0) {
+            log.info("Released {} stock reservations expired before {}", total, now);
+        }
+    }
+
+    /**
+     * Releases one chunk in its own transaction. Only the reservation rows are locked, so a
+     * checkout or cart change racing with the job sees them either intact or already gone.
+     *
+     * @return number of reservations released
+     */
+    public int releaseChunk(LocalDateTime now) {
+        Integer released = transactionTemplate.execute(status -> {
+            List<Long> ids = reservationRepository.lockExpiredIds(now, PageRequest.of(0, properties.getChunkSize()));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            menuItemRepository.restockFromReservations(ids);
+            return reservationRepository.deleteByIds(ids);
+        });
+        return released == null ? 0 : released;
+    }
+}
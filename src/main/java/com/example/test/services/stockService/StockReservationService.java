@@ -0,0 +1,41 @@
+package com.example.test.services.stockService;
+
+import java.util.Map;
+
+/**
+ * Holds menu item stock for carts. Stock is taken with a conditional update when an item is
+ * added, so concurrent carts never oversell, and is given back when the cart shrinks or the
+ * reservation outlives {@code stock-reservation.ttl-minutes}.
+ */
+public interface StockReservationService {
+
+    /**
+     * Takes {@code quantity} from stock for the user's cart and restarts the reservation's TTL.
+     *
+     * @return {@code false} if there is not enough stock left
+     */
+    boolean reserve(Long userId, Long menuItemId, int quantity);
+
+    /**
+     * Takes stock for several items with a single conditional update.
+     *
+     * @throws IllegalStateException if any item is short; nothing is reserved then
+     */
+    void reserveAll(Long userId, Map<Long, Integer> quantitiesByMenuItemId);
+
+    /**
+     * Gives back up to {@code quantity} of what the user still holds for the item.
+     */
+    void release(Long userId, Long menuItemId, int quantity);
+
+    void releaseAll(Long userId);
+
+    /**
+     * Consumes the user's reservations for checkout. Quantities no longer covered by a
+     * reservation (e.g. because it expired) are taken from stock again; anything reserved but
+     * not ordered is given back.
+     *
+     * @throws IllegalStateException if an item no longer has enough stock
+     */
+    void convert(Long userId, Map<Long, Integer> quantitiesByMenuItemId);
+}
@@ -0,0 +1,141 @@
+package com.example.test.services.stockService.impl;
+
+import com.example.test.models.entities.cart.MenuItem;
+import com.example.test.models.entities.cart.StockReservation;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.stockService.StockReservationService;
+import com.example.test.services.stockService.stockConfig.StockReservationProperties;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository reservationRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final StockReservationProperties properties;
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean reserve(Long userId, Long menuItemId, int quantity) {
+        if (menuItemRepository.claimStock(menuItemId, quantity) == 0) {
+            return false;
+        }
+
+        record(userId, menuItemId, quantity, LocalDateTime.now().plusMinutes(properties.getTtlMinutes()));
+        return true;
+    }
+
+    @Override
+    public void reserveAll(Long userId, Map<Long, Integer> quantitiesByMenuItemId) {
+        if (quantitiesByMenuItemId.isEmpty()) {
+            return;
+        }
+        if (claimStock(quantitiesByMenuItemId) < quantitiesByMenuItemId.size()) {
+            // Throwing rolls back the claims that did succeed.
+            throw new IllegalStateException("Not enough stock!");
+        }
+
+        LocalDateTime expiresAt = LocalDateTime.now().plusMinutes(properties.getTtlMinutes());
+        quantitiesByMenuItemId.forEach((menuItemId, quantity) -> record(userId, menuItemId, quantity, expiresAt));
+    }
+
+    @Override
+    public void release(Long userId, Long menuItemId, int quantity) {
+        StockReservation reservation = reservationRepository.findByUserIdAndMenuItemId(userId, menuItemId)
+                .orElse(null);
+        if (reservation == null) {
+            return;
+        }
+
+        int held = Math.min(quantity, reservation.getQuantity());
+        if (held > 0 && reservationRepository.consume(userId, menuItemId, held) == 1) {
+            menuItemRepository.returnStock(menuItemId, held);
+        }
+        reservationRepository.deleteEmpty(userId, menuItemId);
+    }
+
+    @Override
+    public void releaseAll(Long userId) {
+        for (StockReservation reservation : reservationRepository.findByUserId(userId)) {
+            giveBack(reservation);
+        }
+    }
+
+    @Override
+    public void convert(Long userId, Map<Long, Integer> quantitiesByMenuItemId) {
+        Map<Long, StockReservation> reservations = reservationRepository.findByUserId(userId).stream()
+                .collect(Collectors.toMap(StockReservation::getMenuItemId, Function.identity()));
+
+        quantitiesByMenuItemId.forEach((menuItemId, needed) -> {
+            StockReservation reservation = reservations.remove(menuItemId);
+            int covered = reservation != null
+                    && reservationRepository.deleteIfHolding(reservation.getId(), reservation.getQuantity()) == 1
+                    ? reservation.getQuantity()
+                    : 0;
+
+            if (covered < needed && menuItemRepository.claimStock(menuItemId, needed - covered) == 0) {
+                throw new IllegalStateException("Not enough stock for menu item " + menuItemId);
+            }
+            if (covered > needed) {
+                menuItemRepository.returnStock(menuItemId, covered - needed);
+            }
+        });
+
+        reservations.values().forEach(this::giveBack);
+    }
+
+    /**
+     * Adds to the user's reservation for the item, creating it if needed. When two first adds race,
+     * the loser's insert is skipped and it extends the row the winner created.
+     */
+    private void record(Long userId, Long menuItemId, int quantity, LocalDateTime expiresAt) {
+        while (reservationRepository.extend(userId, menuItemId, quantity, expiresAt) == 0) {
+            if (reservationRepository.insertIfAbsent(userId, menuItemId, quantity, expiresAt) == 1) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * {@code UPDATE menu_items SET quantity = quantity - CASE id WHEN ... END
+     * WHERE id IN (...) AND quantity >= CASE id WHEN ... END}
+     *
+     * @return number of items whose stock was taken
+     */
+    private int claimStock(Map<Long, Integer> quantitiesByMenuItemId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<MenuItem> update = cb.createCriteriaUpdate(MenuItem.class);
+        Root<MenuItem> item = update.from(MenuItem.class);
+
+        CriteriaBuilder.SimpleCase<Long, Integer> claimed = cb.selectCase(item.get("id"));
+        quantitiesByMenuItemId.forEach(claimed::when);
+        Path<Integer> quantity = item.get("quantity");
+        Expression<Integer> delta = claimed.otherwise(0);
+
+        update.set(quantity, cb.diff(quantity, delta))
+                .where(item.get("id").in(quantitiesByMenuItemId.keySet()), cb.ge(quantity, delta));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private void giveBack(StockReservation reservation) {
+        if (reservationRepository.deleteIfHolding(reservation.getId(), reservation.getQuantity()) == 1) {
+            menuItemRepository.returnStock(reservation.getMenuItemId(), reservation.getQuantity());
+        }
+    }
+}
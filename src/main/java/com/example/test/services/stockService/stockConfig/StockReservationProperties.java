@@ -0,0 +1,19 @@
+package com.example.test.services.stockService.stockConfig;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "stock-reservation")
+@Getter
+@Setter
+public class StockReservationProperties {
+
+    private int ttlMinutes = 30;
+
+    private int chunkSize = 500;
+
+    private long checkDelayMs = 60_000;
+}
@@ -2,6 +2,7 @@ package com.example.test.controllers;
 
 import com.example.test.controllers.cart.CartController;
 import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartLineRequest;
 import com.example.test.models.entities.user.User;
 import com.example.test.security.JwtAuthenticationFilter;
 import com.example.test.services.cartService.CartService;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.test.web.servlet.MockMvc;
@@ -18,9 +20,12 @@ import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -94,6 +99,34 @@ class CartControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("PUT /api/v1/cart - Успех")
+    void replaceCart_Success() throws Exception {
+        given(cartService.replaceCart(eq(1L), anyList())).willReturn(new CartDto());
+
+        mockMvc.perform(put("/api/v1/cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"menuItemId\":10,\"quantity\":2},{\"menuItemId\":11,\"quantity\":1}]}")
+                        .principal(auth)
+                        .with(user(userDetails)))
+                .andExpect(status().isOk());
+
+        verify(cartService).replaceCart(1L, List.of(new CartLineRequest(10L, 2), new CartLineRequest(11L, 1)));
+    }
+
+    @Test
+    @DisplayName("PUT /api/v1/cart - Ошибка валидации (quantity=0)")
+    void replaceCart_ValidationFail() throws Exception {
+        mockMvc.perform(put("/api/v1/cart")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"items\":[{\"menuItemId\":10,\"quantity\":0}]}")
+                        .principal(auth)
+                        .with(user(userDetails)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(cartService);
+    }
+
     @Test
     @DisplayName("DELETE /api/v1/cart/items/{id} - Успех")
     void removeItem_Success() throws Exception {
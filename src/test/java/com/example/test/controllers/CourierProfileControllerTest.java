@@ -2,6 +2,7 @@ package com.example.test.controllers;
 
 import com.example.test.controllers.courier.CourierProfileController;
 import com.example.test.models.dtos.courierDto.CourierDto;
+import com.example.test.models.dtos.courierDto.CourierLocationDto;
 import com.example.test.models.dtos.courierDto.CourierStatusDto;
 import com.example.test.models.dtos.courierDto.CourierVehicleDto;
 import com.example.test.models.entities.enums.VehicleType;
@@ -99,6 +100,40 @@ class CourierProfileControllerTest {
         verify(courierService).updateStatus(5L, "ONLINE");
     }
 
+    @Test
+    @DisplayName("PATCH /location - Success")
+    void updateLocation_Success() throws Exception {
+        CourierLocationDto dto = new CourierLocationDto();
+        dto.setLatitude(50.45);
+        dto.setLongitude(30.52);
+
+        given(courierService.updateLocation(5L, 50.45, 30.52)).willReturn(new CourierDto());
+
+        mockMvc.perform(patch("/api/v1/courier/profile/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                        .principal(auth)
+                        .with(user(courierDetails)))
+                .andExpect(status().isOk());
+
+        verify(courierService).updateLocation(5L, 50.45, 30.52);
+    }
+
+    @Test
+    @DisplayName("PATCH /location - Validation Fail (Latitude out of range)")
+    void updateLocation_ValidationFail() throws Exception {
+        CourierLocationDto dto = new CourierLocationDto();
+        dto.setLatitude(91.0);
+        dto.setLongitude(30.52);
+
+        mockMvc.perform(patch("/api/v1/courier/profile/location")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto))
+                        .principal(auth)
+                        .with(user(courierDetails)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("PATCH /status - Validation Fail (Null Status)")
     void updateStatus_ValidationFail() throws Exception {
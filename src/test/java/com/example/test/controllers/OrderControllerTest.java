@@ -1,14 +1,19 @@
 package com.example.test.controllers;
 
 import com.example.test.controllers.order.OrderController;
+import com.example.test.exceptions.ConflictException;
 import com.example.test.exceptions.GlobalExceptionHandler;
 import com.example.test.models.dtos.orderDto.OrderDto;
+import com.example.test.models.dtos.orderDto.OrderSliceDto;
+import com.example.test.models.dtos.orderDto.OrderStatusChange;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.enums.PaymentMethod;
 import com.example.test.models.entities.user.RoleT;
 import com.example.test.models.entities.user.User;
 import com.example.test.security.JwtAuthenticationFilter;
 import com.example.test.services.orderService.OrderService;
+import com.example.test.services.idempotencyService.IdempotencyService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -26,9 +31,11 @@ import org.springframework.web.context.WebApplicationContext;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
@@ -46,6 +53,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -57,6 +67,8 @@ class OrderControllerTest {
 
     @BeforeEach
     void setUp(WebApplicationContext context) {
+        given(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
         RoleT userRole = RoleT.builder().name("USER").permissionTSet(new HashSet<>()).build();
         User user = User.builder().id(1L).email("user@test.com").roleTSet(Set.of(userRole)).build();
         userDetails = new UserDetailsImpl(user);
@@ -86,6 +98,24 @@ class OrderControllerTest {
                 .andExpect(status().isCreated());
     }
 
+    @Test
+    @DisplayName("POST /api/v1/orders - Idempotency-Key is bound to the user and request parameters")
+    void createOrder_IdempotencyKey() throws Exception {
+        given(orderService.createOrderFromCart(eq(1L), eq(10L), eq(PaymentMethod.CARD))).willReturn(new OrderDto());
+
+        mockMvc.perform(post("/api/v1/orders")
+                        .param("restaurantId", "10")
+                        .param("paymentMethod", "CARD")
+                        .header("Idempotency-Key", "retry-1")
+                        .with(csrf())
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService).execute(eq("retry-1"), eq(1L), eq("POST /api/v1/orders"),
+                eq("restaurantId=10&paymentMethod=CARD"), eq(OrderDto.class), any());
+    }
+
     @Test
     @DisplayName("GET /api/v1/orders/my - Get current user orders")
     void getMyOrders_Success() throws Exception {
@@ -97,6 +127,32 @@ class OrderControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    @DisplayName("GET /api/v1/orders/scroll - Returns slice with next cursor")
+    void scrollOrders_Success() throws Exception {
+        given(orderService.findAllByFilterAfter(any(), eq("abc"), eq(2), any()))
+                .willReturn(new OrderSliceDto(List.of(new OrderDto(), new OrderDto()), true, "next"));
+
+        mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("cursor", "abc")
+                        .param("size", "2")
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/orders/scroll - Validation fail (size above limit)")
+    void scrollOrders_SizeTooLarge() throws Exception {
+        mockMvc.perform(get("/api/v1/orders/scroll")
+                        .param("size", "500")
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("PATCH /status - Success update for ADMIN")
     void updateStatus_AdminSuccess() throws Exception {
@@ -130,6 +186,58 @@ class OrderControllerTest {
                 .andExpect(jsonPath("$.detail").value("Access denied"));
     }
 
+    @Test
+    @DisplayName("PATCH /status - 409 when the order has already moved on")
+    void updateStatus_Conflict() throws Exception {
+        given(orderService.updateStatus(any(), eq(100L), eq(OrderStatus.COOKED)))
+                .willThrow(new ConflictException("Order 100 is CANCELLED and cannot be moved to COOKED"));
+
+        mockMvc.perform(patch("/api/v1/orders/100/status")
+                        .param("status", "COOKED")
+                        .with(csrf())
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail").value("Order 100 is CANCELLED and cannot be moved to COOKED"));
+    }
+
+    @Test
+    @DisplayName("PATCH /status (bulk) - Per-order results")
+    void updateStatuses_Success() throws Exception {
+        given(orderService.updateStatuses(any(), eq(List.of(
+                new OrderStatusChange(1L, OrderStatus.COOKED),
+                new OrderStatusChange(2L, OrderStatus.COOKED)))))
+                .willReturn(List.of(
+                        OrderStatusChangeResult.updated(new OrderStatusChange(1L, OrderStatus.COOKED)),
+                        OrderStatusChangeResult.failed(new OrderStatusChange(2L, OrderStatus.COOKED),
+                                OrderStatusChangeResult.Outcome.NOT_FOUND, "Order not found")));
+
+        mockMvc.perform(patch("/api/v1/orders/status")
+                        .contentType("application/json")
+                        .content("""
+                                {"changes":[{"orderId":1,"status":"COOKED"},{"orderId":2,"status":"COOKED"}]}
+                                """)
+                        .with(csrf())
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].outcome").value("UPDATED"))
+                .andExpect(jsonPath("$[0].message").doesNotExist())
+                .andExpect(jsonPath("$[1].outcome").value("NOT_FOUND"));
+    }
+
+    @Test
+    @DisplayName("PATCH /status (bulk) - 400 for empty batch")
+    void updateStatuses_EmptyBatch() throws Exception {
+        mockMvc.perform(patch("/api/v1/orders/status")
+                        .contentType("application/json")
+                        .content("{\"changes\":[]}")
+                        .with(csrf())
+                        .with(user(userDetails))
+                        .principal(userAuth))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("PATCH /status - 403 for COURIER if status is not DELIVERED")
     void updateStatus_CourierInvalidStatus() throws Exception {
@@ -0,0 +1,72 @@
+package com.example.test.controllers;
+
+import com.example.test.controllers.order.OrderExportController;
+import com.example.test.exceptions.GlobalExceptionHandler;
+import com.example.test.models.dtos.orderDto.OrderExportFormat;
+import com.example.test.security.JwtAuthenticationFilter;
+import com.example.test.services.orderService.OrderExportService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.Writer;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(OrderExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@Import(GlobalExceptionHandler.class)
+class OrderExportControllerTest {
+
+    @Autowired private MockMvc mockMvc;
+
+    @MockBean
+    private OrderExportService orderExportService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private UserDetailsService userDetailsService;
+
+    @Test
+    @DisplayName("GET /api/v1/admin/orders/export - CSV with items")
+    void export_Csv() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/orders/export")
+                        .param("format", "CSV")
+                        .param("includeItems", "true")
+                        .param("from", "2024-05-01")
+                        .param("to", "2024-06-01"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"orders-2024-05-01-2024-06-01.csv\""));
+
+        verify(orderExportService).export(eq(OrderExportFormat.CSV), eq(true),
+                eq(LocalDate.of(2024, 5, 1)), eq(LocalDate.of(2024, 6, 1)), any(Writer.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/admin/orders/export - Inverted range returns 400")
+    void export_InvalidRange() throws Exception {
+        mockMvc.perform(get("/api/v1/admin/orders/export")
+                        .param("from", "2024-06-01")
+                        .param("to", "2024-05-01"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(orderExportService);
+    }
+}
@@ -10,6 +10,7 @@ import com.example.test.models.entities.user.RoleT;
 import com.example.test.models.entities.user.User;
 import com.example.test.security.JwtAuthenticationFilter;
 import com.example.test.services.paymentService.PaymentService;
+import com.example.test.services.idempotencyService.IdempotencyService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +33,7 @@ import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
@@ -55,6 +57,9 @@ class PaymentControllerTest {
     @MockBean
     private PaymentService paymentService;
 
+    @MockBean
+    private IdempotencyService idempotencyService;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -66,6 +71,8 @@ class PaymentControllerTest {
 
     @BeforeEach
     void setUp(WebApplicationContext context) {
+        given(idempotencyService.execute(any(), any(), any(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<?>>getArgument(5).get());
         RoleT userRole = RoleT.builder().name("USER").permissionTSet(new HashSet<>()).build();
         User user = User.builder().id(1L).email("user@test.com").roleTSet(Set.of(userRole)).active(true).build();
         userDetails = new UserDetailsImpl(user);
@@ -0,0 +1,170 @@
+package com.example.test.integrationTest;
+
+import com.example.test.models.entities.cart.Cart;
+import com.example.test.models.entities.cart.CartItem;
+import com.example.test.models.entities.cart.MenuItem;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.resRepo.RestaurantRepository;
+import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.orderService.OrderService;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout benchmark: statement count and latency of createOrderFromCart for carts of 1, 10 and 50 items.
+ * Run with {@code mvn test -Dtest=CheckoutBenchmarkIT}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:checkout-bench;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.show-sql=false",
+        "outbox.dispatch-delay-ms=3600000",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.example.test.integrationTest.CheckoutBenchmarkIT$SqlCounter"
+})
+@ActiveProfiles("test")
+@DisplayName("Checkout benchmark (H2)")
+class CheckoutBenchmarkIT {
+
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private MenuItemRepository menuItemRepository;
+    @Autowired
+    private CartRepository cartRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private Restaurant restaurant;
+    private List<MenuItem> menuItems;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner").email("bench-owner@test.com").password("pwd").roleTSet(new HashSet<>()).build());
+        user = userRepository.save(User.builder()
+                .name("Customer").email("bench-user@test.com").password("pwd").roleTSet(new HashSet<>()).build());
+
+        menuItems = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            menuItems.add(menuItemRepository.save(MenuItem.builder()
+                    .name("Dish " + i).price(new BigDecimal("10.00")).available(true).quantity(1_000_000).build()));
+        }
+
+        restaurant = new Restaurant();
+        restaurant.setName("Bench Kitchen");
+        restaurant.setOwner(owner);
+        restaurant.setMenuItems(new HashSet<>(menuItems));
+        restaurant = restaurantRepository.save(restaurant);
+
+        Cart cart = new Cart();
+        cart.setUser(user);
+        cartRepository.save(cart);
+    }
+
+    @Test
+    @DisplayName("Statement count stays flat as the cart grows")
+    void checkout_StatementCountAndLatency() {
+        Map<Integer, long[]> results = new LinkedHashMap<>();
+
+        for (int size : new int[]{1, 10, 50}) {
+            for (int i = 0; i < WARMUP; i++) {
+                runCheckout(size);
+            }
+
+            long[] nanos = new long[ITERATIONS];
+            int selects = 0;
+            int statements = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                fillCart(size);
+                SqlCounter.reset();
+                long start = System.nanoTime();
+                orderService.createOrderFromCart(user.getId(), restaurant.getId(), PaymentMethod.CASH);
+                nanos[i] = System.nanoTime() - start;
+                selects = SqlCounter.SELECTS.get();
+                statements = SqlCounter.TOTAL.get();
+            }
+
+            Arrays.sort(nanos);
+            results.put(size, new long[]{selects, statements, percentile(nanos, 0.50), percentile(nanos, 0.99)});
+        }
+
+        results.forEach((size, r) -> System.out.printf(
+                "checkout items=%-3d selects=%-3d statements=%-4d p50=%.2fms p99=%.2fms%n",
+                size, r[0], r[1], r[2] / 1e6, r[3] / 1e6));
+
+        assertThat(results.get(50)[0]).isEqualTo(results.get(1)[0]);
+    }
+
+    private void runCheckout(int size) {
+        fillCart(size);
+        orderService.createOrderFromCart(user.getId(), restaurant.getId(), PaymentMethod.CASH);
+    }
+
+    private void fillCart(int size) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Cart cart = cartRepository.findByUserId(user.getId()).orElseThrow();
+            for (int i = 0; i < size; i++) {
+                CartItem item = new CartItem();
+                item.setCart(cart);
+                item.setMenuItem(menuItems.get(i));
+                item.setQuantity(1);
+                cart.getItems().add(item);
+            }
+            cartRepository.save(cart);
+        });
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+
+    public static class SqlCounter implements StatementInspector {
+
+        static final AtomicInteger SELECTS = new AtomicInteger();
+        static final AtomicInteger TOTAL = new AtomicInteger();
+
+        static void reset() {
+            SELECTS.set(0);
+            TOTAL.set(0);
+        }
+
+        @Override
+        public String inspect(String sql) {
+            TOTAL.incrementAndGet();
+            if (sql.stripLeading().regionMatches(true, 0, "select", 0, 6)) {
+                SELECTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.test.integrationTest;
+
+import com.example.test.models.entities.enums.VehicleType;
+import com.example.test.services.courierService.assignment.CourierAssignmentStrategy;
+import com.example.test.services.courierService.assignment.DispatchCourier;
+import com.example.test.services.courierService.assignment.DispatchOrder;
+import com.example.test.services.courierService.assignment.MinCostCourierStrategy;
+import com.example.test.services.courierService.assignment.NearestCourierStrategy;
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import com.example.test.services.courierService.geo.CourierGrid;
+import com.example.test.services.courierService.geo.GeoDistance;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dispatch benchmark against 10k available couriers: grid index vs linear scan for nearest-courier
+ * matching, and greedy vs min-cost matching of a peak-hour batch. Run with {@code mvn test -Dtest=CourierDispatchBenchmarkIT}.
+ */
+@DisplayName("Courier dispatch benchmark")
+class CourierDispatchBenchmarkIT {
+
+    private static final int COURIERS = 10_000;
+    private static final int WARMUP = 5;
+    private static final int ITERATIONS = 20;
+    private static final double CENTER_LATITUDE = 50.45;
+    private static final double CENTER_LONGITUDE = 30.52;
+    private static final double SPREAD_DEGREES = 0.3;
+
+    private final Random random = new Random(7);
+    private final double[][] couriers = randomPoints(COURIERS);
+
+    @Test
+    @DisplayName("Grid dispatch of 10k couriers stays fast and matches the linear scan")
+    void dispatch_GridVsLinearScan() {
+        for (int orders : new int[]{100, 1_000, 5_000}) {
+            double[][] restaurants = randomPoints(orders);
+            assertThat(dispatchWithGrid(restaurants)).containsExactly(dispatchLinear(restaurants));
+
+            long[] grid = measure(() -> dispatchWithGrid(restaurants));
+            long[] linear = measure(() -> dispatchLinear(restaurants));
+            System.out.printf("dispatch couriers=%d orders=%-5d grid p50=%.2fms p99=%.2fms linear p50=%.2fms p99=%.2fms%n",
+                    COURIERS, orders, grid[0] / 1e6, grid[1] / 1e6, linear[0] / 1e6, linear[1] / 1e6);
+        }
+    }
+
+    @Test
+    @DisplayName("Min-cost matching of a 200-order batch vs greedy nearest, with ample and scarce couriers")
+    void dispatch_MinCostVsNearest() {
+        CourierDispatchProperties properties = new CourierDispatchProperties();
+        // Peak hour: orders cluster around a few busy restaurants.
+        double[][] hotspots = randomPoints(10);
+        List<DispatchOrder> batch = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            double[] hotspot = hotspots[i % hotspots.length];
+            batch.add(new DispatchOrder((long) i, hotspot[0], hotspot[1]));
+        }
+
+        for (int fleetSize : new int[]{COURIERS, 250}) {
+            List<DispatchCourier> fleet = new ArrayList<>();
+            for (int i = 0; i < fleetSize; i++) {
+                fleet.add(new DispatchCourier((long) i, couriers[i][0], couriers[i][1], VehicleType.BIKE, 0));
+            }
+            for (CourierAssignmentStrategy strategy : List.of(
+                    new NearestCourierStrategy(properties), new MinCostCourierStrategy(properties))) {
+                compare(strategy, batch, fleet);
+            }
+        }
+    }
+
+    private void compare(CourierAssignmentStrategy strategy, List<DispatchOrder> batch, List<DispatchCourier> fleet) {
+        Map<Long, Long> assignments = strategy.assign(batch, fleet);
+        long[] latency = measure(() -> strategy.assign(batch, fleet));
+        double totalKm = assignments.entrySet().stream().mapToDouble(e -> {
+            DispatchOrder order = batch.get(e.getKey().intValue());
+            DispatchCourier courier = fleet.get(e.getValue().intValue());
+            return GeoDistance.haversineKm(order.latitude(), order.longitude(), courier.latitude(), courier.longitude());
+        }).sum();
+        System.out.printf("strategy=%-24s orders=%d couriers=%-5d total pickup=%.1fkm p50=%.2fms p99=%.2fms%n",
+                strategy.getClass().getSimpleName(), batch.size(), fleet.size(), totalKm,
+                latency[0] / 1e6, latency[1] / 1e6);
+        assertThat(assignments).hasSize(batch.size());
+    }
+
+    private long[] dispatchWithGrid(double[][] restaurants) {
+        CourierGrid grid = new CourierGrid(1.0, CENTER_LATITUDE);
+        for (int i = 0; i < couriers.length; i++) {
+            grid.add(i, couriers[i][0], couriers[i][1]);
+        }
+        long[] assigned = new long[restaurants.length];
+        for (int i = 0; i < restaurants.length; i++) {
+            assigned[i] = grid.takeNearest(restaurants[i][0], restaurants[i][1]).orElse(-1);
+        }
+        return assigned;
+    }
+
+    private long[] dispatchLinear(double[][] restaurants) {
+        double kmPerDegreeLongitude = 111.32 * Math.cos(Math.toRadians(CENTER_LATITUDE));
+        boolean[] taken = new boolean[couriers.length];
+        long[] assigned = new long[restaurants.length];
+        for (int i = 0; i < restaurants.length; i++) {
+            int best = -1;
+            double bestDistance = Double.MAX_VALUE;
+            for (int c = 0; c < couriers.length; c++) {
+                if (taken[c]) {
+                    continue;
+                }
+                double dy = (couriers[c][0] - restaurants[i][0]) * 111.32;
+                double dx = (couriers[c][1] - restaurants[i][1]) * kmPerDegreeLongitude;
+                double distance = dx * dx + dy * dy;
+                if (distance < bestDistance) {
+                    bestDistance = distance;
+                    best = c;
+                }
+            }
+            taken[best] = true;
+            assigned[i] = best;
+        }
+        return assigned;
+    }
+
+    private long[] measure(Runnable dispatch) {
+        for (int i = 0; i < WARMUP; i++) {
+            dispatch.run();
+        }
+        long[] nanos = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            dispatch.run();
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new long[]{percentile(nanos, 0.50), percentile(nanos, 0.99)};
+    }
+
+    private double[][] randomPoints(int count) {
+        double[][] points = new double[count][];
+        for (int i = 0; i < count; i++) {
+            points[i] = new double[]{
+                    CENTER_LATITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES,
+                    CENTER_LONGITUDE + (random.nextDouble() - 0.5) * SPREAD_DEGREES};
+        }
+        return points;
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)];
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.test.integrationTest;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.order.Order;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.userRepo.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two dispatchers claiming unassigned orders at the same time get disjoint chunks instead of
+ * waiting on each other's locks. Run with {@code mvn test -Dtest=OrderClaimIT}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-claim;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.liquibase.enabled=false",
+        "outbox.dispatch-delay-ms=3600000",
+        "courier-dispatch.safety-net-delay-ms=3600000"
+})
+@ActiveProfiles("test")
+@DisplayName("Order claiming with SKIP LOCKED (H2)")
+class OrderClaimIT {
+
+    @Autowired
+    private OrderRepository orderRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Concurrent claims skip rows locked by the other transaction")
+    void claimUnassigned_ConcurrentChunksAreDisjoint() throws Exception {
+        User user = userRepository.save(User.builder()
+                .name("Claimer").email("claim-user@test.com").password("pwd").roleTSet(new HashSet<>()).build());
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Order order = new Order();
+            order.setUser(user);
+            order.setStatus(OrderStatus.CONFIRMED);
+            ids.add(orderRepository.save(order).getId());
+        }
+        assertThat(orderRepository.findUnassignedIds(OrderStatus.CONFIRMED, 0L, PageRequest.of(0, 10))).isEqualTo(ids);
+
+        CountDownLatch firstClaimed = new CountDownLatch(1);
+        CountDownLatch secondDone = new CountDownLatch(1);
+        CompletableFuture<List<Long>> first = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            List<Long> claimed = claim(ids.subList(0, 2));
+            firstClaimed.countDown();
+            await(secondDone);
+            return claimed;
+        }));
+
+        await(firstClaimed);
+        List<Long> second = transactionTemplate.execute(status -> claim(ids));
+        secondDone.countDown();
+
+        assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo(ids.subList(0, 2));
+        assertThat(second).isEqualTo(ids.subList(2, 4));
+    }
+
+    private List<Long> claim(List<Long> ids) {
+        return orderRepository.claimUnassigned(ids, OrderStatus.CONFIRMED).stream()
+                .map(Order::getId)
+                .sorted()
+                .toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -7,8 +7,10 @@ import com.example.test.models.entities.order.Order;
 import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.orderService.impl.OrderServiceImpl;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,6 +47,10 @@ class OrderServiceImplFilterIT {
     private UserRepository userRepository;
     @Autowired
     private RestaurantRepository restaurantRepository;
+    @Autowired
+    private OrderSummaryRepository orderSummaryRepository;
+    @Autowired
+    private OrderSummaryService orderSummaryService;
 
     private User user1;
     private User user2;
@@ -52,6 +58,7 @@ class OrderServiceImplFilterIT {
 
     @BeforeEach
     void setUp() {
+        orderSummaryRepository.deleteAll();
         orderRepository.deleteAll();
         userRepository.deleteAll();
         restaurantRepository.deleteAll();
@@ -115,7 +122,7 @@ class OrderServiceImplFilterIT {
         order.setRestaurant(rest);
         order.setStatus(status);
         order.setTotalPrice(new BigDecimal("100.00"));
-        orderRepository.save(order);
+        orderSummaryService.onCreated(orderRepository.save(order));
     }
 
     private Authentication createAuth(User user, String role) {
@@ -0,0 +1,61 @@
+package com.example.test.integrationTest;
+
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.resRepo.RestaurantRepository;
+import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.etaService.RestaurantPrepTimeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Prep-time history round-trips through its binary column. Run with
+ * {@code mvn test -Dtest=RestaurantPrepTimeHistoryIT}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:prep-time-history;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.liquibase.enabled=false",
+        "outbox.dispatch-delay-ms=3600000",
+        "courier-dispatch.safety-net-delay-ms=3600000"
+})
+@ActiveProfiles("test")
+@DisplayName("Restaurant prep-time history column (H2)")
+class RestaurantPrepTimeHistoryIT {
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private RestaurantPrepTimeService prepTimeService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("Recorded prep times are appended and feed the percentile")
+    void recordPrepTime_PersistsHistory() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner").email("prep-owner@test.com").password("pwd").roleTSet(new HashSet<>()).build());
+        Restaurant restaurant = restaurantRepository.save(Restaurant.builder()
+                .name("Prep").owner(owner).avgCookingTimeMinutes(25).build());
+        assertThat(restaurantRepository.findPrepTimeHistories(List.of(restaurant.getId()))).isEmpty();
+
+        for (int minutes : new int[]{10, 20, 30, 40, 50}) {
+            transactionTemplate.executeWithoutResult(status -> prepTimeService.recordPrepTime(restaurant.getId(), minutes));
+        }
+
+        assertThat(restaurantRepository.findPrepTimeHistories(List.of(restaurant.getId())))
+                .singleElement()
+                .satisfies(row -> assertThat(row.history().toArray()).containsExactly(10, 20, 30, 40, 50));
+        assertThat(prepTimeService.calculatePrepTimePercentile(restaurant, 0.5)).isEqualTo(30);
+    }
+}
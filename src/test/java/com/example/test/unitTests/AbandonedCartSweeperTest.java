@@ -0,0 +1,112 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.cart.Cart;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.cartRepo.CartItemRepository;
+import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.cartService.AbandonedCartSweeper;
+import com.example.test.services.cartService.CartStore;
+import com.example.test.services.cartService.cartConfig.AbandonedCartProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Abandoned Cart Sweeper Unit Tests")
+class AbandonedCartSweeperTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private CartItemRepository cartItemRepository;
+    @Mock
+    private StockReservationRepository reservationRepository;
+    @Mock
+    private MenuItemRepository menuItemRepository;
+    @Mock
+    private CartStore cartStore;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AbandonedCartSweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        AbandonedCartProperties properties = new AbandonedCartProperties();
+        properties.setChunkSize(2);
+        sweeper = new AbandonedCartSweeper(cartRepository, cartItemRepository, reservationRepository,
+                menuItemRepository, cartStore, properties, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Idle carts are emptied and their reservations restocked chunk by chunk")
+    void sweepAbandoned_LoopsOverChunks() {
+        given(cartRepository.lockIdleWithItems(any(), eq(0L), any(Pageable.class)))
+                .willReturn(List.of(cart(1L, 11L), cart(2L, 12L)));
+        given(cartRepository.lockIdleWithItems(any(), eq(2L), any(Pageable.class)))
+                .willReturn(List.of(cart(3L, 13L)));
+        given(cartStore.lockIfIdle(anyLong())).willReturn(true);
+        given(reservationRepository.lockIdsByUserIdIn(Set.of(11L, 12L))).willReturn(List.of(100L, 101L));
+        given(reservationRepository.lockIdsByUserIdIn(Set.of(13L))).willReturn(List.of());
+
+        sweeper.sweepAbandoned();
+
+        verify(menuItemRepository).restockFromReservations(List.of(100L, 101L));
+        verify(reservationRepository).deleteByIds(List.of(100L, 101L));
+        verify(cartItemRepository).deleteByCartIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(1L, 2L))));
+        verify(cartItemRepository).deleteByCartIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(3L))));
+        verify(cartStore).lockIfIdle(11L);
+        verify(cartStore).lockIfIdle(12L);
+        verify(cartStore).lockIfIdle(13L);
+        verify(cartRepository, times(2)).lockIdleWithItems(any(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("Carts with an edit in memory are skipped but the cursor moves past them")
+    void sweepChunk_SkipsBusyCarts() {
+        given(cartRepository.lockIdleWithItems(any(), eq(0L), any(Pageable.class)))
+                .willReturn(List.of(cart(1L, 11L), cart(2L, 12L)));
+        given(cartStore.lockIfIdle(11L)).willReturn(false);
+        given(cartStore.lockIfIdle(12L)).willReturn(true);
+        given(reservationRepository.lockIdsByUserIdIn(Set.of(12L))).willReturn(List.of(101L));
+
+        AbandonedCartSweeper.SweepResult result = sweeper.sweepChunk(LocalDateTime.now(), 0L);
+
+        assertThat(result).isEqualTo(new AbandonedCartSweeper.SweepResult(2, 1, 2L));
+        verify(cartItemRepository).deleteByCartIds(argThat(ids -> Set.copyOf(ids).equals(Set.of(2L))));
+        verify(reservationRepository).lockIdsByUserIdIn(Set.of(12L));
+    }
+
+    @Test
+    @DisplayName("No idle carts: no writes")
+    void sweepChunk_Empty() {
+        given(cartRepository.lockIdleWithItems(any(), anyLong(), any(Pageable.class))).willReturn(List.of());
+
+        assertThat(sweeper.sweepChunk(LocalDateTime.now(), 5L).scanned()).isZero();
+
+        verifyNoInteractions(cartItemRepository, reservationRepository, menuItemRepository, cartStore);
+    }
+
+    private Cart cart(Long id, Long userId) {
+        return Cart.builder().id(id).user(User.builder().id(userId).build()).build();
+    }
+}
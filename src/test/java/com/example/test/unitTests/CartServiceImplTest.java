@@ -1,18 +1,27 @@
 package com.example.test.unitTests;
 
+import com.example.test.exceptions.NotFoundException;
+import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartItemDto;
+import com.example.test.models.dtos.cartDto.CartLineRequest;
+import com.example.test.models.dtos.cartDto.MenuItemOffer;
+import com.example.test.models.dtos.cartDto.MenuItemDto;
 import com.example.test.models.entities.cart.Cart;
 import com.example.test.models.entities.cart.CartItem;
 import com.example.test.models.entities.cart.MenuItem;
 import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
-import com.example.test.models.mappers.cartMapper.CartMapper;
+import com.example.test.models.mappers.cartMapper.CartItemMapper;
 import com.example.test.repositories.cartRepo.CartItemRepository;
 import com.example.test.repositories.cartRepo.CartRepository;
 import com.example.test.repositories.cartRepo.MenuItemRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.cartService.CachedCart;
+import com.example.test.services.cartService.CartStore;
 import com.example.test.services.cartService.Impl.CartServiceImpl;
-import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.etaService.EtaSnapshotService;
+import com.example.test.services.stockService.StockReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -23,15 +32,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Cart Service Business Logic Tests")
@@ -53,16 +65,22 @@ class CartServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private EtaCalculationService etaService;
+    private EtaSnapshotService etaSnapshotService;
 
     @Mock
-    private CartMapper cartMapper;
+    private CartItemMapper cartItemMapper;
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private StockReservationService stockReservationService;
 
     @InjectMocks
     private CartServiceImpl cartService;
 
     private User testUser;
-    private Cart testCart;
+    private CachedCart cachedCart;
     private MenuItem testItem;
     private Restaurant testRestaurant;
 
@@ -71,10 +89,7 @@ class CartServiceImplTest {
         testUser = new User();
         testUser.setId(1L);
 
-        testCart = new Cart();
-        testCart.setId(10L);
-        testCart.setUser(testUser);
-        testCart.setItems(new ArrayList<>());
+        cachedCart = cachedCart(10L);
 
         testRestaurant = new Restaurant();
         testRestaurant.setId(100L);
@@ -90,126 +105,143 @@ class CartServiceImplTest {
     }
 
     @Test
-    @DisplayName("Successfully add new item to cart and reduce stock")
+    @DisplayName("Successfully add new item to cart and reserve stock")
     void addItem_Success_NewItem() {
         Long userId = 1L, menuItemId = 50L;
         Integer quantityToAdd = 2;
+        Cart cartRef = new Cart();
 
-        when(cartRepository.findByUserId(userId)).thenReturn(Optional.of(testCart));
+        when(cartStore.edit(userId)).thenReturn(cachedCart);
         when(menuItemRepository.findById(menuItemId)).thenReturn(Optional.of(testItem));
         when(restaurantRepository.findByMenuItemId(menuItemId)).thenReturn(Optional.of(testRestaurant));
-        when(etaService.calculateEtaMinutes(any())).thenReturn(30);
+        when(stockReservationService.reserve(userId, menuItemId, quantityToAdd)).thenReturn(true);
+        when(cartRepository.getReferenceById(10L)).thenReturn(cartRef);
+        when(cartItemRepository.save(any(CartItem.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(cartItemMapper.toDto(any(CartItem.class))).thenReturn(line(300L, quantityToAdd));
+        when(etaSnapshotService.etaMinutes(testRestaurant)).thenReturn(30);
+
+        CartDto result = cartService.addItem(userId, menuItemId, quantityToAdd);
+
+
+        assertThat(result.getItems()).hasSize(1);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(quantityToAdd);
+        assertThat(result.getDeliveryTime()).isNotNull();
+
+        verify(menuItemRepository, never()).save(any());
+        verify(cartStore).flush(userId);
+        verify(cartItemRepository).save(argThat(item -> item.getCart() == cartRef && item.getQuantity() == 2));
+        verify(cartRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Adding more of an existing item only touches the cached cart")
+    void addItem_ExistingLine_NoCartWrites() {
+        cachedCart.putLine(line(200L, 1));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(menuItemRepository.findById(50L)).thenReturn(Optional.of(testItem));
+        when(restaurantRepository.findByMenuItemId(50L)).thenReturn(Optional.of(testRestaurant));
+        when(stockReservationService.reserve(1L, 50L, 2)).thenReturn(true);
+        when(etaSnapshotService.etaMinutes(testRestaurant)).thenReturn(30);
 
-        cartService.addItem(userId, menuItemId, quantityToAdd);
+        CartDto result = cartService.addItem(1L, 50L, 2);
 
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(cachedCart.isDirty()).isTrue();
+        verifyNoInteractions(cartRepository, cartItemRepository);
+        verify(cartStore, never()).flush(any());
+    }
 
-        assertThat(testItem.getQuantity()).isEqualTo(8);
+    @Test
+    @DisplayName("First item creates the cart row")
+    void addItem_NoCart_CreatesCart() {
+        CachedCart empty = new CachedCart(1L, null);
+        when(cartStore.edit(1L)).thenReturn(empty);
+        when(menuItemRepository.findById(50L)).thenReturn(Optional.of(testItem));
+        when(restaurantRepository.findByMenuItemId(50L)).thenReturn(Optional.of(testRestaurant));
+        when(stockReservationService.reserve(1L, 50L, 1)).thenReturn(true);
+        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> {
+            Cart cart = invocation.getArgument(0);
+            cart.setId(77L);
+            return cart;
+        });
+        when(cartItemMapper.toDto(any())).thenReturn(line(300L, 1));
 
-        assertThat(testCart.getItems()).hasSize(1);
-        assertThat(testCart.getItems().get(0).getQuantity()).isEqualTo(quantityToAdd);
+        CartDto result = cartService.addItem(1L, 50L, 1);
 
-        verify(menuItemRepository).save(testItem);
+        assertThat(result.getId()).isEqualTo(77L);
         verify(cartItemRepository).save(any(CartItem.class));
-        verify(cartRepository).save(testCart);
     }
 
     @Test
     @DisplayName("Throw exception when restaurant is closed")
     void addItem_RestaurantClosed_ThrowsException() {
         testRestaurant.setOpen(false);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
         when(menuItemRepository.findById(50L)).thenReturn(Optional.of(testItem));
         when(restaurantRepository.findByMenuItemId(50L)).thenReturn(Optional.of(testRestaurant));
 
         assertThatThrownBy(() -> cartService.addItem(1L, 50L, 1))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Restaurant is currently closed");
+        verifyNoInteractions(cartStore);
     }
 
     @Test
     @DisplayName("Throw exception when stock is insufficient")
     void addItem_LowStock_ThrowsException() {
-        testItem.setQuantity(1);
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
         when(menuItemRepository.findById(50L)).thenReturn(Optional.of(testItem));
         when(restaurantRepository.findByMenuItemId(50L)).thenReturn(Optional.of(testRestaurant));
+        when(stockReservationService.reserve(1L, 50L, 5)).thenReturn(false);
 
         assertThatThrownBy(() -> cartService.addItem(1L, 50L, 5))
                 .isInstanceOf(IllegalStateException.class)
                 .hasMessageContaining("Not enough stock!");
+        verifyNoInteractions(cartStore);
     }
 
     @Test
-    @DisplayName("Successfully clear cart and return items to stock")
+    @DisplayName("Successfully clear cart and release its reservations")
     void clearCart_Success_ReturnsItemsToStock() {
-        CartItem cartItem = new CartItem();
-        cartItem.setMenuItem(testItem);
-        cartItem.setQuantity(3);
-        testCart.getItems().add(cartItem);
-
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
+        cachedCart.putLine(line(200L, 3));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
 
         cartService.clearCart(1L);
 
-        assertThat(testItem.getQuantity()).isEqualTo(13);
-        assertThat(testCart.getItems()).isEmpty();
-        verify(cartItemRepository).deleteAll(anyList());
+        assertThat(cachedCart.toDto().getItems()).isEmpty();
+        verify(stockReservationService).releaseAll(1L);
     }
 
     @Test
-    @DisplayName("Update item quantity: Increase quantity and decrease stock")
+    @DisplayName("Update item quantity: Increase quantity and reserve the difference")
     void updateItem_Increase_Success() {
-        CartItem existingItem = new CartItem();
-        existingItem.setId(200L);
-        existingItem.setCart(testCart);
-        existingItem.setMenuItem(testItem);
-        existingItem.setQuantity(2);
-        testCart.getItems().add(existingItem);
-
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(200L)).thenReturn(Optional.of(existingItem));
-        when(restaurantRepository.findByMenuItemId(any())).thenReturn(Optional.of(testRestaurant));
-        when(etaService.calculateEtaMinutes(any())).thenReturn(30);
+        cachedCart.putLine(line(200L, 2));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(stockReservationService.reserve(1L, 50L, 3)).thenReturn(true);
+        when(etaSnapshotService.etaMinutesForMenuItem(50L)).thenReturn(30);
 
-        cartService.updateItem(1L, 200L, 5);
+        CartDto result = cartService.updateItem(1L, 200L, 5);
 
-        assertThat(testItem.getQuantity()).isEqualTo(7);
-        assertThat(existingItem.getQuantity()).isEqualTo(5);
-        verify(menuItemRepository).save(testItem);
-        verify(cartItemRepository).save(existingItem);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(5);
+        verifyNoInteractions(cartItemRepository, menuItemRepository);
     }
 
     @Test
-    @DisplayName("Update item quantity: Decrease quantity and return stock")
+    @DisplayName("Update item quantity: Decrease quantity and release the difference")
     void updateItem_Decrease_Success() {
-        CartItem existingItem = new CartItem();
-        existingItem.setId(200L);
-        existingItem.setCart(testCart);
-        existingItem.setMenuItem(testItem);
-        existingItem.setQuantity(5);
-        testCart.getItems().add(existingItem);
+        cachedCart.putLine(line(200L, 5));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
 
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(200L)).thenReturn(Optional.of(existingItem));
-        when(restaurantRepository.findByMenuItemId(any())).thenReturn(Optional.of(testRestaurant));
+        CartDto result = cartService.updateItem(1L, 200L, 2);
 
-        cartService.updateItem(1L, 200L, 2);
-
-        assertThat(testItem.getQuantity()).isEqualTo(13);
-        assertThat(existingItem.getQuantity()).isEqualTo(2);
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(2);
+        verify(stockReservationService).release(1L, 50L, 3);
     }
 
     @Test
     @DisplayName("Security: Throw AccessDeniedException when updating item in someone else's cart")
     void updateItem_ForeignCart_ThrowsAccessDenied() {
-        Cart otherCart = new Cart();
-        otherCart.setId(999L);
-
-        CartItem itemOfOtherUser = new CartItem();
-        itemOfOtherUser.setCart(otherCart);
-
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(200L)).thenReturn(Optional.of(itemOfOtherUser));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(cartItemRepository.existsById(200L)).thenReturn(true);
 
         assertThatThrownBy(() -> cartService.updateItem(1L, 200L, 5))
                 .isInstanceOf(AccessDeniedException.class)
@@ -217,38 +249,143 @@ class CartServiceImplTest {
     }
 
     @Test
-    @DisplayName("Remove item: Item is deleted and stock is fully returned")
-    void removeItem_Success() {
-        CartItem itemToRemove = new CartItem();
-        itemToRemove.setCart(testCart);
-        itemToRemove.setMenuItem(testItem);
-        itemToRemove.setQuantity(4);
-        testCart.getItems().add(itemToRemove);
+    @DisplayName("Update item quantity: Unknown item is a 404")
+    void updateItem_UnknownItem_NotFound() {
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(cartItemRepository.existsById(200L)).thenReturn(false);
+
+        assertThatThrownBy(() -> cartService.updateItem(1L, 200L, 5))
+                .isInstanceOf(NotFoundException.class)
+                .hasMessage("Cart item not found");
+    }
 
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(testCart));
-        when(cartItemRepository.findById(200L)).thenReturn(Optional.of(itemToRemove));
+    @Test
+    @DisplayName("Remove item: Item is deleted and its reservation is released")
+    void removeItem_Success() {
+        cachedCart.putLine(line(200L, 4));
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
 
         cartService.removeItem(1L, 200L);
 
 
-        assertThat(testItem.getQuantity()).isEqualTo(14);
-        assertThat(testCart.getItems()).isEmpty();
-        verify(cartItemRepository).delete(itemToRemove);
-        verify(cartRepository).save(testCart);
+        verify(stockReservationService).release(1L, 50L, 4);
+        assertThat(cachedCart.toDto().getItems()).isEmpty();
+        assertThat(cachedCart.getDeliveryTime()).isNull();
+        verifyNoInteractions(cartItemRepository);
     }
 
     @Test
-    @DisplayName("Get current cart: Create new cart if not exists")
-    void getCurrentCart_CreateNew_WhenNotFound() {
-        when(cartRepository.findByUserId(1L)).thenReturn(Optional.empty());
-        when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
-        when(cartRepository.save(any(Cart.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    @DisplayName("Get current cart: Served from the cart store without creating a row")
+    void getCurrentCart_FromStore() {
+        when(cartStore.get(1L)).thenReturn(new CachedCart(1L, null));
 
-        cartService.getCurrentCart(1L);
+        CartDto result = cartService.getCurrentCart(1L);
 
-        verify(userRepository).findById(1L);
-        verify(cartRepository).save(any(Cart.class));
+        assertThat(result.getUserId()).isEqualTo(1L);
+        assertThat(result.getItems()).isEmpty();
+        verifyNoInteractions(cartRepository, userRepository, etaSnapshotService);
     }
 
-}
+    @Test
+    @DisplayName("Get current cart: Delivery time is refreshed from the ETA snapshot")
+    void getCurrentCart_RefreshesDeliveryTime() {
+        CartDto loaded = new CartDto();
+        loaded.setId(10L);
+        loaded.setUserId(1L);
+        loaded.setItems(new ArrayList<>(List.of(line(200L, 1))));
+        when(cartStore.get(1L)).thenReturn(new CachedCart(1L, loaded));
+        when(etaSnapshotService.etaMinutesForMenuItem(50L)).thenReturn(40);
+
+        CartDto result = cartService.getCurrentCart(1L);
+
+        assertThat(result.getDeliveryTime()).isAfter(LocalDateTime.now().plusMinutes(39));
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Replace cart: diff is reserved in one call and only new lines are inserted")
+    void replaceCart_AppliesDiff() {
+        MenuItem fries = new MenuItem();
+        fries.setId(60L);
+        fries.setName("Fries");
+        fries.setQuantity(10);
+        fries.setAvailable(true);
+        cachedCart.putLine(line(200L, 1));
+        Cart cartRef = new Cart();
+
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(menuItemRepository.findOffersByIdIn(Set.of(50L, 60L))).thenReturn(List.of(
+                new MenuItemOffer(testItem, true), new MenuItemOffer(fries, true)));
+        when(cartRepository.getReferenceById(10L)).thenReturn(cartRef);
+        when(cartItemRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        CartItemDto friesLine = line(201L, 2);
+        friesLine.getMenuItemDto().setId(60L);
+        when(cartItemMapper.toDto(any(CartItem.class))).thenReturn(friesLine);
+        when(etaSnapshotService.etaMinutesForMenuItem(50L)).thenReturn(30);
+
+        CartDto result = cartService.replaceCart(1L, List.of(
+                new CartLineRequest(50L, 3), new CartLineRequest(60L, 2)));
+
+        assertThat(result.getItems()).extracting(CartItemDto::getQuantity).containsExactly(3, 2);
+        assertThat(result.getDeliveryTime()).isNotNull();
+        verify(stockReservationService).reserveAll(1L, Map.of(50L, 2, 60L, 2));
+        verify(cartStore).flush(1L);
+        verify(cartItemRepository).saveAll(argThat(items -> ((List<CartItem>) items).size() == 1));
+    }
+
+    @Test
+    @DisplayName("Replace cart: dropped and reduced lines release their stock without queries")
+    void replaceCart_RemovesAndReduces() {
+        cachedCart.putLine(line(200L, 4));
+        CartItemDto other = line(201L, 2);
+        other.getMenuItemDto().setId(60L);
+        cachedCart.putLine(other);
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(etaSnapshotService.etaMinutesForMenuItem(50L)).thenReturn(30);
+
+        CartDto result = cartService.replaceCart(1L, List.of(new CartLineRequest(50L, 1)));
+
+        assertThat(result.getItems()).extracting(CartItemDto::getQuantity).containsExactly(1);
+        verify(stockReservationService).release(1L, 50L, 3);
+        verify(stockReservationService).release(1L, 60L, 2);
+        verify(stockReservationService).reserveAll(1L, Map.of());
+        verifyNoInteractions(menuItemRepository, cartItemRepository);
+    }
 
+    @Test
+    @DisplayName("Replace cart: closed restaurant rejects the whole request")
+    void replaceCart_ClosedRestaurant() {
+        when(cartStore.edit(1L)).thenReturn(cachedCart);
+        when(menuItemRepository.findOffersByIdIn(Set.of(50L))).thenReturn(List.of(new MenuItemOffer(testItem, false)));
+
+        assertThatThrownBy(() -> cartService.replaceCart(1L, List.of(new CartLineRequest(50L, 1))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Restaurant is currently closed");
+        verifyNoInteractions(stockReservationService);
+    }
+
+    @Test
+    @DisplayName("Replace cart: duplicate menu items are rejected")
+    void replaceCart_Duplicates() {
+        assertThatThrownBy(() -> cartService.replaceCart(1L, List.of(
+                new CartLineRequest(50L, 1), new CartLineRequest(50L, 2))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(cartStore);
+    }
+
+    private CachedCart cachedCart(Long cartId) {
+        CartDto dto = new CartDto();
+        dto.setId(cartId);
+        dto.setUserId(1L);
+        dto.setItems(new ArrayList<>());
+        return new CachedCart(1L, dto);
+    }
+
+    private CartItemDto line(Long id, int quantity) {
+        CartItemDto line = new CartItemDto();
+        line.setId(id);
+        line.setMenuItemDto(MenuItemDto.builder().id(50L).name("Margherita").build());
+        line.setQuantity(quantity);
+        return line;
+    }
+}
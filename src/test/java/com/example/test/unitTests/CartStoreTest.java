@@ -0,0 +1,232 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.cartDto.CartDto;
+import com.example.test.models.dtos.cartDto.CartItemDto;
+import com.example.test.models.dtos.cartDto.MenuItemDto;
+import com.example.test.models.entities.cart.Cart;
+import com.example.test.models.entities.cart.CartItem;
+import com.example.test.models.mappers.cartMapper.CartMapper;
+import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.services.cartService.CachedCart;
+import com.example.test.services.cartService.CartStore;
+import com.example.test.services.cartService.cartConfig.CartStoreProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Cart Store Unit Tests")
+class CartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+    @Mock
+    private CartMapper cartMapper;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CartStore store;
+    private Cart cart;
+
+    @BeforeEach
+    void setUp() {
+        CartStoreProperties properties = new CartStoreProperties();
+        properties.setMaxSize(2);
+        store = new CartStore(cartRepository, cartMapper, new TransactionTemplate(transactionManager), properties);
+
+        CartItem first = CartItem.builder().id(1L).quantity(1).build();
+        CartItem second = CartItem.builder().id(2L).quantity(1).build();
+        cart = Cart.builder().id(10L).items(new ArrayList<>(List.of(first, second))).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("Cart is loaded once and then served from memory")
+    void get_LoadsOnce() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+
+        store.get(1L);
+        CartDto second = store.get(1L).toDto();
+
+        assertThat(second.getItems()).hasSize(2);
+        verify(cartRepository, times(1)).findByUserIdWithItems(1L);
+    }
+
+    @Test
+    @DisplayName("Committed edits are written back by the flusher")
+    void edit_Commit_FlushesDiff() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+
+        CachedCart edited = inTransaction(true, () -> {
+            CachedCart cached = store.edit(1L);
+            cached.setQuantity(1L, 4);
+            cached.removeLine(2L);
+            return cached;
+        });
+        assertThat(edited.isDirty()).isTrue();
+
+        store.flushDirty();
+
+        assertThat(cart.getItems()).extracting(CartItem::getId).containsExactly(1L);
+        assertThat(cart.getItems().get(0).getQuantity()).isEqualTo(4);
+        assertThat(edited.isDirty()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Rolled back edits are undone in memory and never flushed")
+    void edit_Rollback_Restores() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+
+        CachedCart edited = inTransaction(false, () -> {
+            CachedCart cached = store.edit(1L);
+            cached.clear();
+            return cached;
+        });
+
+        assertThat(edited.toDto().getItems()).hasSize(2);
+        assertThat(edited.isDirty()).isFalse();
+        store.flushDirty();
+        verify(cartRepository, times(1)).findByUserIdWithItems(1L);
+    }
+
+    @Test
+    @DisplayName("Lock-free readers see the last committed cart, not an edit in progress")
+    void view_ShowsCommittedState() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        CachedCart editing = store.edit(1L);
+        editing.removeLine(2L);
+        assertThat(store.get(1L).view().getItems()).hasSize(2);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(store.get(1L).view().getItems()).extracting(CartItemDto::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Clean carts are evicted beyond max size, dirty ones are kept")
+    void eviction_KeepsDirtyCarts() {
+        given(cartRepository.findByUserIdWithItems(any())).willReturn(Optional.empty());
+
+        CachedCart dirty = inTransaction(true, () -> {
+            CachedCart cached = store.edit(1L);
+            cached.setDeliveryTime(null);
+            return cached;
+        });
+        store.get(2L);
+        store.get(3L);
+        store.get(4L);
+
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.get(1L)).isSameAs(dirty);
+    }
+
+    @Test
+    @DisplayName("Sweeping an idle cart drops it on commit; the next read reloads the swept state")
+    void lockIfIdle_IdleCart_DroppedOnCommit() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart), Optional.empty());
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+        CachedCart before = store.get(1L);
+
+        assertThat(inTransaction(true, () -> store.lockIfIdle(1L))).isTrue();
+
+        assertThat(store.get(1L)).isNotSameAs(before);
+        assertThat(store.get(1L).view().getItems()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("A cart with unflushed edits is not swept")
+    void lockIfIdle_DirtyCart_Skipped() {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(cartMapper.toDto(cart)).willReturn(dto(1L, 2L));
+        CachedCart dirty = inTransaction(true, () -> {
+            CachedCart cached = store.edit(1L);
+            cached.removeLine(2L);
+            return cached;
+        });
+
+        assertThat(inTransaction(true, () -> store.lockIfIdle(1L))).isFalse();
+
+        assertThat(store.get(1L)).isSameAs(dirty);
+        assertThat(dirty.isDirty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("An edit that starts while a sweep holds the cart waits and then sees the swept cart")
+    void lockIfIdle_EditWaitsForSweep() throws Exception {
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.empty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        assertThat(store.lockIfIdle(1L)).isTrue();
+        List<TransactionSynchronization> sweep = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        CompletableFuture<CachedCart> edit = CompletableFuture.supplyAsync(
+                () -> inTransaction(true, () -> store.edit(1L)));
+        Thread.sleep(100);
+        assertThat(edit).isNotDone();
+
+        CachedCart placeholder = store.get(1L);
+        sweep.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertThat(edit.get(5, TimeUnit.SECONDS)).isNotSameAs(placeholder);
+        verify(cartRepository).findByUserIdWithItems(1L);
+    }
+
+    private <T> T inTransaction(boolean commit, java.util.function.Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        T result = work.get();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(sync -> sync.afterCompletion(
+                commit ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+        return result;
+    }
+
+    private CartDto dto(Long... lineIds) {
+        CartDto dto = new CartDto();
+        dto.setId(10L);
+        dto.setUserId(1L);
+        List<CartItemDto> items = new ArrayList<>();
+        for (Long id : lineIds) {
+            CartItemDto line = new CartItemDto();
+            line.setId(id);
+            line.setMenuItemDto(MenuItemDto.builder().id(100L + id).build());
+            line.setQuantity(1);
+            items.add(line);
+        }
+        dto.setItems(items);
+        return dto;
+    }
+}
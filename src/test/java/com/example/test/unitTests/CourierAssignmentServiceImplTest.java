@@ -1,24 +1,40 @@
 package com.example.test.unitTests;
 
+import com.example.test.models.dtos.courierDto.CourierLoad;
+import com.example.test.models.dtos.courierDto.CourierStack;
 import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.entities.courier.Courier;
 import com.example.test.models.entities.enums.CourierStatus;
 import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.VehicleType;
 import com.example.test.models.entities.order.Order;
-import com.example.test.models.mappers.orderMapper.OrderMapper;
+import com.example.test.models.entities.order.OrderSummary;
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
 import com.example.test.repositories.courierRepo.CourierRepository;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.courierService.CourierAssignmentServiceImpl;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.courierService.assignment.NearestCourierStrategy;
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import com.example.test.services.etaService.EtaSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -33,7 +49,21 @@ class CourierAssignmentServiceImplTest {
     @Mock
     private CourierRepository courierRepository;
     @Mock
-    private OrderMapper orderMapper;
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private EtaSnapshotService etaSnapshotService;
+    @Spy
+    private CourierDispatchProperties dispatchProperties = new CourierDispatchProperties();
+    @Spy
+    private NearestCourierStrategy assignmentStrategy = new NearestCourierStrategy(new CourierDispatchProperties());
+    @Mock
+    private CourierWorkloadRegistry workloadRegistry;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     private CourierAssignmentServiceImpl assignmentService;
@@ -70,6 +100,9 @@ class CourierAssignmentServiceImplTest {
 
         verify(orderRepository).save(testOrder);
         verify(courierRepository).save(testCourier);
+        verify(orderSummaryService).onCourierAssigned(100L, 1L, OrderStatus.IN_DELIVERY);
+        verify(workloadRegistry).orderAssigned(1L);
+        verify(etaSnapshotService).invalidateCourierLoad();
     }
 
     @Test
@@ -116,10 +149,10 @@ class CourierAssignmentServiceImplTest {
         courier2.setId(11L);
         courier2.setStatus(CourierStatus.AVAILABLE);
 
-        when(orderRepository.findByCourierIsNullAndStatus(OrderStatus.CONFIRMED))
-                .thenReturn(List.of(order1, order2));
+        claimable(0L, order1, order2);
         when(courierRepository.findByStatus(CourierStatus.AVAILABLE))
                 .thenReturn(List.of(courier1, courier2));
+        when(courierRepository.claim(anyLong(), eq(CourierStatus.AVAILABLE), eq(CourierStatus.WORKING))).thenReturn(1);
 
 
         assignmentService.assignCouriers();
@@ -128,11 +161,13 @@ class CourierAssignmentServiceImplTest {
         assertThat(order1.getCourier()).isEqualTo(courier1);
         assertThat(order2.getCourier()).isEqualTo(courier2);
 
-        assertThat(courier1.getStatus()).isEqualTo(CourierStatus.WORKING);
-        assertThat(courier2.isAvailable()).isFalse();
-
+        verify(courierRepository).claim(10L, CourierStatus.AVAILABLE, CourierStatus.WORKING);
+        verify(courierRepository).claim(11L, CourierStatus.AVAILABLE, CourierStatus.WORKING);
         verify(orderRepository, times(2)).save(any(Order.class));
-        verify(courierRepository, times(2)).save(any(Courier.class));
+        verify(courierRepository, never()).save(any(Courier.class));
+        verify(workloadRegistry).availabilityChanged(10L, false);
+        verify(workloadRegistry).orderAssigned(10L);
+        verify(workloadRegistry).orderAssigned(11L);
     }
 
     @Test
@@ -146,8 +181,9 @@ class CourierAssignmentServiceImplTest {
         courier1.setId(10L);
         courier1.setStatus(CourierStatus.AVAILABLE);
 
-        when(orderRepository.findByCourierIsNullAndStatus(any())).thenReturn(List.of(order1, order2));
+        claimable(0L, order1, order2);
         when(courierRepository.findByStatus(any())).thenReturn(List.of(courier1));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
 
 
         assignmentService.assignCouriers();
@@ -158,19 +194,311 @@ class CourierAssignmentServiceImplTest {
         verify(orderRepository, times(1)).save(order1);
     }
 
+    @Test
+    @DisplayName("Scheduled Task: Each order gets the nearest courier to its restaurant")
+    void assignCouriers_PicksNearestCourier() {
+        Order north = orderAt(101L, 50.50, 30.50);
+        Order south = orderAt(102L, 50.40, 30.50);
+        Courier nearSouth = courierAt(10L, 50.41, 30.50);
+        Courier farAway = courierAt(11L, 50.90, 30.90);
+        Courier nearNorth = courierAt(12L, 50.49, 30.51);
+
+        claimable(0L, north, south);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(nearSouth, farAway, nearNorth));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(north.getCourier()).isEqualTo(nearNorth);
+        assertThat(south.getCourier()).isEqualTo(nearSouth);
+        verify(courierRepository, never()).claim(eq(11L), any(), any());
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: Couriers without a location are used only when no located courier is left")
+    void assignCouriers_UnlocatedCourierAsFallback() {
+        Order first = orderAt(101L, 50.50, 30.50);
+        Order second = orderAt(102L, 50.40, 30.50);
+        Courier located = courierAt(10L, 50.41, 30.50);
+        Courier unlocated = new Courier();
+        unlocated.setId(11L);
+        unlocated.setStatus(CourierStatus.AVAILABLE);
+
+        claimable(0L, first, second);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(unlocated, located));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(first.getCourier()).isEqualTo(located);
+        assertThat(second.getCourier()).isEqualTo(unlocated);
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: Batches never exceed the couriers left and carry courier load")
+    void assignCouriers_BatchesByCouriersLeft() {
+        dispatchProperties.setMaxBatchOrders(10);
+        Order first = orderAt(101L, 50.50, 30.50);
+        Order second = orderAt(102L, 50.40, 30.50);
+        Order third = orderAt(103L, 50.45, 30.50);
+        Courier busy = courierAt(10L, 50.41, 30.50);
+        busy.setVehicleType(VehicleType.CAR);
+        Courier idle = courierAt(11L, 50.49, 30.51);
+
+        claimable(0L, first, second, third);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(busy, idle));
+        when(orderRepository.findCourierLoads(anyCollection())).thenReturn(List.of(new CourierLoad(10L, 2)));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        verify(assignmentStrategy).assign(
+                argThat(batch -> batch.size() == 2 && batch.get(0).orderId().equals(101L)),
+                argThat(candidates -> candidates.stream().anyMatch(c -> c.courierId().equals(10L) && c.activeOrders() == 2)));
+        assertThat(third.getCourier()).isNull();
+        verify(etaSnapshotService).invalidateCourierLoad();
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: An available courier already at capacity is not offered any orders")
+    void assignCouriers_SkipsFullCourier() {
+        Order order = orderAt(101L, 50.50, 30.50);
+        Courier full = courierAt(10L, 50.49, 30.51);
+        full.setVehicleType(VehicleType.FOOT);
+
+        claimable(0L, order);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(full));
+        when(orderRepository.findCourierLoads(anyCollection())).thenReturn(List.of(new CourierLoad(10L, 1)));
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(order.getCourier()).isNull();
+        verify(assignmentStrategy, never()).assign(any(), any());
+        verify(courierRepository, never()).claim(anyLong(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: A courier claimed by another node leaves the order for the next pass")
+    void assignCouriers_CourierTakenElsewhere() {
+        Order order = orderAt(101L, 50.50, 30.50);
+        Courier courier = courierAt(10L, 50.49, 30.51);
+
+        claimable(0L, order);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(courier));
+        when(courierRepository.claim(10L, CourierStatus.AVAILABLE, CourierStatus.WORKING)).thenReturn(0);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(order.getCourier()).isNull();
+        verify(orderRepository, never()).save(any());
+        verify(etaSnapshotService, never()).invalidateCourierLoad();
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: Orders locked by another node are skipped")
+    void assignCouriers_SkipsOrdersLockedElsewhere() {
+        Order free = orderAt(102L, 50.50, 30.50);
+        Courier courier = courierAt(10L, 50.49, 30.51);
+
+        when(orderRepository.findUnassignedIds(eq(OrderStatus.CONFIRMED), eq(0L), any())).thenReturn(List.of(101L, 102L));
+        when(orderRepository.claimUnassigned(List.of(101L, 102L), OrderStatus.CONFIRMED)).thenReturn(List.of(free));
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(courier));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(free.getCourier()).isEqualTo(courier);
+        verify(orderRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: Orders are claimed chunk by chunk, each in its own transaction")
+    void assignCouriers_ClaimsInChunks() {
+        dispatchProperties.setClaimChunkSize(2);
+        Order first = orderAt(101L, 50.50, 30.50);
+        Order second = orderAt(102L, 50.40, 30.50);
+        Order third = orderAt(103L, 50.45, 30.50);
+
+        claimable(0L, first, second);
+        claimable(102L, third);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(
+                List.of(courierAt(10L, 50.50, 30.50), courierAt(11L, 50.40, 30.50), courierAt(12L, 50.45, 30.50)),
+                List.of(courierAt(12L, 50.45, 30.50)));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(first.getCourier().getId()).isEqualTo(10L);
+        assertThat(second.getCourier().getId()).isEqualTo(11L);
+        assertThat(third.getCourier().getId()).isEqualTo(12L);
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(etaSnapshotService).invalidateCourierLoad();
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: Orders from one restaurant are stacked on one courier up to vehicle capacity")
+    void assignCouriers_StacksByRestaurant() {
+        Order first = orderAt(101L, 50.50, 30.50, 5L);
+        Order second = orderAt(102L, 50.50, 30.50, 5L);
+        Order elsewhere = orderAt(103L, 50.40, 30.50, 6L);
+        Order third = orderAt(104L, 50.50, 30.50, 5L);
+        Courier bike = courierAt(10L, 50.49, 30.51);
+        bike.setVehicleType(VehicleType.BIKE);
+        Courier walker = courierAt(11L, 50.41, 30.50);
+        walker.setVehicleType(VehicleType.FOOT);
+        Courier car = courierAt(12L, 50.60, 30.60);
+        car.setVehicleType(VehicleType.CAR);
+
+        claimable(0L, first, second, elsewhere, third);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(bike, walker, car));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(first.getCourier()).isEqualTo(bike);
+        assertThat(second.getCourier()).isEqualTo(bike);
+        assertThat(elsewhere.getCourier()).isEqualTo(walker);
+        assertThat(third.getCourier()).isEqualTo(car);
+        verify(courierRepository, times(3)).claim(anyLong(), eq(CourierStatus.AVAILABLE), eq(CourierStatus.WORKING));
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: New orders join a courier still waiting at the same restaurant")
+    void assignCouriers_JoinsOpenStack() {
+        Order order = orderAt(101L, 50.50, 30.50, 5L);
+        Courier working = courierAt(20L, 50.50, 30.50);
+        working.setStatus(CourierStatus.WORKING);
+        working.setVehicleType(VehicleType.SCOOTER);
+
+        claimable(0L, order);
+        when(orderRepository.findOpenStacks(eq(Set.of(5L)), anyCollection(), eq(OrderStatus.IN_DELIVERY), eq(CourierStatus.WORKING)))
+                .thenReturn(List.of(new CourierStack(20L, VehicleType.SCOOTER, 5L, 2)));
+        when(courierRepository.findWithLockByIdAndStatus(20L, CourierStatus.WORKING)).thenReturn(Optional.of(working));
+        when(orderRepository.countByCourierIdAndStatusIn(eq(20L), anyCollection())).thenReturn(2L);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(order.getCourier()).isEqualTo(working);
+        verify(courierRepository, never()).findByStatus(any());
+        verify(courierRepository, never()).claim(anyLong(), any(), any());
+        verify(orderSummaryService).onCourierAssigned(101L, 20L, OrderStatus.CONFIRMED);
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: A full chunk served only by open stacks does not stop the walk")
+    void assignCouriers_ChunkJoinedOpenStacks_ContinuesToNextChunk() {
+        dispatchProperties.setClaimChunkSize(2);
+        Order first = orderAt(101L, 50.50, 30.50, 5L);
+        Order second = orderAt(102L, 50.50, 30.50, 5L);
+        Order later = orderAt(103L, 50.40, 30.50, 6L);
+        Courier working = courierAt(20L, 50.50, 30.50);
+        working.setStatus(CourierStatus.WORKING);
+        working.setVehicleType(VehicleType.CAR);
+        Courier available = courierAt(10L, 50.41, 30.50);
+
+        claimable(0L, first, second);
+        claimable(102L, later);
+        when(orderRepository.findOpenStacks(eq(Set.of(5L)), anyCollection(), eq(OrderStatus.IN_DELIVERY), eq(CourierStatus.WORKING)))
+                .thenReturn(List.of(new CourierStack(20L, VehicleType.CAR, 5L, 1)));
+        when(orderRepository.findOpenStacks(eq(Set.of(6L)), anyCollection(), eq(OrderStatus.IN_DELIVERY), eq(CourierStatus.WORKING)))
+                .thenReturn(List.of());
+        when(courierRepository.findWithLockByIdAndStatus(20L, CourierStatus.WORKING)).thenReturn(Optional.of(working));
+        when(orderRepository.countByCourierIdAndStatusIn(eq(20L), anyCollection())).thenReturn(1L);
+        when(courierRepository.findByStatus(CourierStatus.AVAILABLE)).thenReturn(List.of(available));
+        when(courierRepository.claim(anyLong(), any(), any())).thenReturn(1);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(first.getCourier()).isEqualTo(working);
+        assertThat(second.getCourier()).isEqualTo(working);
+        assertThat(later.getCourier()).isEqualTo(available);
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    @Test
+    @DisplayName("Scheduled Task: A stack filled up concurrently takes no more orders")
+    void assignCouriers_OpenStackFilledConcurrently() {
+        Order order = orderAt(101L, 50.50, 30.50, 5L);
+        Courier working = courierAt(20L, 50.50, 30.50);
+        working.setVehicleType(VehicleType.BIKE);
+
+        claimable(0L, order);
+        when(orderRepository.findOpenStacks(anyCollection(), anyCollection(), any(), any()))
+                .thenReturn(List.of(new CourierStack(20L, VehicleType.BIKE, 5L, 1)));
+        when(courierRepository.findWithLockByIdAndStatus(20L, CourierStatus.WORKING)).thenReturn(Optional.of(working));
+        when(orderRepository.countByCourierIdAndStatusIn(eq(20L), anyCollection())).thenReturn(2L);
+
+
+        assignmentService.assignCouriers();
+
+
+        assertThat(order.getCourier()).isNull();
+        verify(orderRepository, never()).save(any());
+    }
+
     @Test
     @DisplayName("Get active orders: Success mapping to DTO")
     void getActiveOrders_Success() {
-        when(orderRepository.findByCourierIdAndStatusIn(anyLong(), anyList()))
-                .thenReturn(List.of(testOrder));
-        when(orderMapper.toDto(any())).thenReturn(new OrderDto());
+        when(orderSummaryRepository.findByCourierIdAndStatusIn(anyLong(), anyList()))
+                .thenReturn(List.of(new OrderSummary()));
+        when(orderSummaryMapper.toDto(any())).thenReturn(new OrderDto());
 
 
         List<OrderDto> result = assignmentService.getActiveOrders(1L);
 
 
         assertThat(result).hasSize(1);
-        verify(orderRepository).findByCourierIdAndStatusIn(eq(1L), anyList());
+        verify(orderSummaryRepository).findByCourierIdAndStatusIn(eq(1L), anyList());
+    }
+
+    private void claimable(long afterId, Order... orders) {
+        List<Long> ids = Arrays.stream(orders).map(Order::getId).toList();
+        when(orderRepository.findUnassignedIds(eq(OrderStatus.CONFIRMED), eq(afterId), any())).thenReturn(ids);
+        when(orderRepository.claimUnassigned(ids, OrderStatus.CONFIRMED)).thenReturn(List.of(orders));
+    }
+
+    private Order orderAt(Long id, double latitude, double longitude) {
+        return orderAt(id, latitude, longitude, null);
     }
-}
 
+    private Order orderAt(Long id, double latitude, double longitude, Long restaurantId) {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(restaurantId);
+        restaurant.setLatitude(latitude);
+        restaurant.setLongitude(longitude);
+        Order order = new Order();
+        order.setId(id);
+        order.setStatus(OrderStatus.CONFIRMED);
+        order.setRestaurant(restaurant);
+        return order;
+    }
+
+    private Courier courierAt(Long id, double latitude, double longitude) {
+        Courier courier = new Courier();
+        courier.setId(id);
+        courier.setStatus(CourierStatus.AVAILABLE);
+        courier.setLatitude(latitude);
+        courier.setLongitude(longitude);
+        return courier;
+    }
+}
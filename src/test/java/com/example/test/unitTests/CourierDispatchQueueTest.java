@@ -0,0 +1,114 @@
+package com.example.test.unitTests;
+
+import com.example.test.services.courierService.CourierAssignmentService;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Courier Dispatch Queue Unit Tests")
+class CourierDispatchQueueTest {
+
+    @Mock
+    private CourierAssignmentService courierAssignmentService;
+
+    private CourierDispatchQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new CourierDispatchQueue(courierAssignmentService);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        queue.shutdown();
+    }
+
+    @Test
+    @DisplayName("A confirmed order triggers assignment right away")
+    void orderConfirmed_DispatchesImmediately() {
+        queue.orderConfirmed(1L);
+
+        verify(courierAssignmentService, timeout(1000)).assignCouriers();
+    }
+
+    @Test
+    @DisplayName("Signals raised inside a transaction wait for its commit")
+    void courierAvailable_WaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        queue.courierAvailable(10L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        verify(courierAssignmentService, after(100).never()).assignCouriers();
+
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        verify(courierAssignmentService, timeout(1000)).assignCouriers();
+    }
+
+    @Test
+    @DisplayName("Signals arriving during a pass are coalesced into one follow-up pass")
+    void request_CoalescesBursts() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await(1, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(courierAssignmentService).assignCouriers();
+
+        queue.request();
+        running.await(1, TimeUnit.SECONDS);
+        for (long orderId = 1; orderId <= 10; orderId++) {
+            queue.orderConfirmed(orderId);
+        }
+        release.countDown();
+
+        verify(courierAssignmentService, timeout(1000).times(2)).assignCouriers();
+        verify(courierAssignmentService, after(100).times(2)).assignCouriers();
+    }
+
+    @Test
+    @DisplayName("A failing pass does not stop later dispatches")
+    void dispatch_SurvivesFailure() {
+        doThrow(new IllegalStateException("boom")).doNothing().when(courierAssignmentService).assignCouriers();
+
+        queue.request();
+        verify(courierAssignmentService, timeout(1000)).assignCouriers();
+        queue.request();
+
+        verify(courierAssignmentService, timeout(1000).times(2)).assignCouriers();
+    }
+
+    @Test
+    @DisplayName("Signals committed during shutdown are dropped without failing the caller")
+    void request_AfterShutdown_Dropped() throws InterruptedException {
+        queue.shutdown();
+
+        TransactionSynchronizationManager.initSynchronization();
+        queue.orderConfirmed(1L);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThatCode(() -> synchronizations.forEach(TransactionSynchronization::afterCommit))
+                .doesNotThrowAnyException();
+        verifyNoInteractions(courierAssignmentService);
+    }
+}
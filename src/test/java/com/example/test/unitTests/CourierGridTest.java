@@ -0,0 +1,86 @@
+package com.example.test.unitTests;
+
+import com.example.test.services.courierService.geo.CourierGrid;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Courier Grid Unit Tests")
+class CourierGridTest {
+
+    @Test
+    @DisplayName("Nearest courier matches a linear scan and is removed once taken")
+    void takeNearest_MatchesLinearScan() {
+        Random random = new Random(42);
+        CourierGrid grid = new CourierGrid(0.5, 50.45);
+        Map<Long, double[]> positions = new HashMap<>();
+        for (long id = 1; id <= 500; id++) {
+            double[] position = {50.35 + random.nextDouble() * 0.2, 30.40 + random.nextDouble() * 0.25};
+            positions.put(id, position);
+            grid.add(id, position[0], position[1]);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            double latitude = 50.30 + random.nextDouble() * 0.3;
+            double longitude = 30.35 + random.nextDouble() * 0.35;
+            long expected = linearNearest(positions, latitude, longitude);
+
+            assertThat(grid.takeNearest(latitude, longitude)).hasValue(expected);
+            positions.remove(expected);
+        }
+        assertThat(grid.size()).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("A courier in a neighbouring cell wins over a farther one in the same cell")
+    void takeNearest_LooksAcrossCellBorders() {
+        CourierGrid grid = new CourierGrid(10, 0);
+        grid.add(1L, 0.0001, 0.0899);
+        grid.add(2L, 0.0001, 0.0901);
+
+        assertThat(grid.takeNearest(0.0001, 0.0898)).hasValue(1L);
+        assertThat(grid.takeNearest(0.0001, 0.0001)).hasValue(2L);
+        assertThat(grid.takeNearest(0.0001, 0.0001)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("takeAny drains the grid")
+    void takeAny_DrainsGrid() {
+        CourierGrid grid = new CourierGrid(1, 50);
+        grid.add(1L, 50.0, 30.0);
+        grid.add(2L, 51.0, 31.0);
+
+        assertThat(grid.takeAny()).isPresent();
+        assertThat(grid.takeAny()).isPresent();
+        assertThat(grid.takeAny()).isEmpty();
+        assertThat(grid.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Cell size must be positive")
+    void constructor_RejectsZeroCell() {
+        assertThatThrownBy(() -> new CourierGrid(0, 50)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static long linearNearest(Map<Long, double[]> positions, double latitude, double longitude) {
+        double kmPerDegreeLongitude = 111.32 * Math.cos(Math.toRadians(50.45));
+        long best = -1;
+        double bestDistance = Double.MAX_VALUE;
+        for (Map.Entry<Long, double[]> entry : positions.entrySet()) {
+            double dy = (entry.getValue()[0] - latitude) * 111.32;
+            double dx = (entry.getValue()[1] - longitude) * kmPerDegreeLongitude;
+            double distance = dx * dx + dy * dy;
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = entry.getKey();
+            }
+        }
+        return best;
+    }
+}
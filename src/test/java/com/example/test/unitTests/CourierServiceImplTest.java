@@ -7,7 +7,10 @@ import com.example.test.models.entities.enums.CourierStatus;
 import com.example.test.models.entities.enums.VehicleType;
 import com.example.test.models.mappers.courierMapper.CourierMapper;
 import com.example.test.repositories.courierRepo.CourierRepository;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
 import com.example.test.services.courierService.impl.CourierServiceImpl;
+import com.example.test.services.etaService.EtaSnapshotService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -32,6 +35,12 @@ class CourierServiceImplTest {
     private CourierRepository courierRepository;
     @Mock
     private CourierMapper courierMapper;
+    @Mock
+    private EtaSnapshotService etaSnapshotService;
+    @Mock
+    private CourierDispatchQueue courierDispatchQueue;
+    @Mock
+    private CourierWorkloadRegistry workloadRegistry;
 
     @InjectMocks
     private CourierServiceImpl courierService;
@@ -67,6 +76,20 @@ class CourierServiceImplTest {
         assertThat(result).isNotNull();
     }
 
+    @Test
+    @DisplayName("Update Location: Success stores coordinates")
+    void updateLocation_Success() {
+        when(courierRepository.findByUserId(1L)).thenReturn(Optional.of(testCourier));
+        when(courierRepository.save(any(Courier.class))).thenReturn(testCourier);
+        when(courierMapper.toDto(any(Courier.class))).thenReturn(testDto);
+
+        courierService.updateLocation(1L, 50.45, 30.52);
+
+        assertThat(testCourier.getLatitude()).isEqualTo(50.45);
+        assertThat(testCourier.getLongitude()).isEqualTo(30.52);
+        verify(courierRepository).save(testCourier);
+    }
+
     @Test
     @DisplayName("Update Status: Success switches to AVAILABLE and sets available flag to true")
     void updateStatus_ToAvailable_Success() {
@@ -80,6 +103,9 @@ class CourierServiceImplTest {
         assertThat(testCourier.getStatus()).isEqualTo(CourierStatus.AVAILABLE);
         assertThat(testCourier.isAvailable()).isTrue();
         verify(courierRepository).save(testCourier);
+        verify(etaSnapshotService).invalidateCourierLoad();
+        verify(courierDispatchQueue).courierAvailable(10L);
+        verify(workloadRegistry).availabilityChanged(10L, true);
     }
 
     @Test
@@ -129,6 +155,7 @@ class CourierServiceImplTest {
         courierService.deleteCourier(10L);
 
         verify(courierRepository).deleteById(10L);
+        verify(workloadRegistry).availabilityChanged(10L, false);
     }
 
     @Test
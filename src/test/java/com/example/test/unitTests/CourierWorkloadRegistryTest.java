@@ -0,0 +1,96 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.courierDto.CourierLoad;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.repositories.courierRepo.CourierRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.courierService.CourierWorkloadRegistry.FleetLoad;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Courier Workload Registry Tests")
+class CourierWorkloadRegistryTest {
+
+    @Mock
+    private CourierRepository courierRepository;
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private CourierWorkloadRegistry registry;
+
+    private void givenDatabase(List<Long> availableIds, CourierLoad... loads) {
+        when(courierRepository.findIdsByAvailableTrue()).thenReturn(availableIds);
+        when(orderRepository.findCourierLoads(OrderStatus.activeForCourier())).thenReturn(List.of(loads));
+    }
+
+    @Test
+    @DisplayName("First read loads counters from the database and later reads reuse them")
+    void fleetLoad_LoadsOnceLazily() {
+        givenDatabase(List.of(1L, 2L), new CourierLoad(1L, 2), new CourierLoad(2L, 1), new CourierLoad(3L, 4));
+
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(2, 3));
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(2, 3));
+
+        verify(courierRepository, times(1)).findIdsByAvailableTrue();
+        verify(orderRepository, times(1)).findCourierLoads(OrderStatus.activeForCourier());
+    }
+
+    @Test
+    @DisplayName("Assignments and finished orders adjust the load of available couriers")
+    void orderEvents_UpdateLoad() {
+        givenDatabase(List.of(1L), new CourierLoad(1L, 1));
+        registry.reconcile();
+
+        registry.orderAssigned(1L);
+        registry.orderAssigned(2L);
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(1, 2));
+
+        registry.orderFinished(1L);
+        registry.orderFinished(1L);
+        registry.orderFinished(1L);
+        registry.orderFinished(null);
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(1, 0));
+    }
+
+    @Test
+    @DisplayName("Availability changes move a courier's orders in and out of the fleet load")
+    void availabilityChanged_MovesCourierLoad() {
+        givenDatabase(List.of(1L), new CourierLoad(2L, 3));
+        registry.reconcile();
+
+        registry.availabilityChanged(2L, true);
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(2, 3));
+
+        registry.availabilityChanged(2L, true);
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(2, 3));
+
+        registry.availabilityChanged(1L, false);
+        registry.availabilityChanged(2L, false);
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(0, 0));
+    }
+
+    @Test
+    @DisplayName("Reconcile replaces drifted counters with database state")
+    void reconcile_ReplacesCounters() {
+        givenDatabase(List.of(1L), new CourierLoad(1L, 1));
+        registry.reconcile();
+        registry.orderAssigned(1L);
+        registry.orderAssigned(1L);
+
+        registry.reconcile();
+
+        assertThat(registry.fleetLoad()).isEqualTo(new FleetLoad(1, 1));
+    }
+}
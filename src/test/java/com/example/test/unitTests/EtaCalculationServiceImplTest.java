@@ -1,10 +1,8 @@
 package com.example.test.unitTests;
 
-import com.example.test.models.entities.courier.Courier;
-import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.restaurant.Restaurant;
-import com.example.test.repositories.courierRepo.CourierRepository;
-import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.courierService.CourierWorkloadRegistry.FleetLoad;
 import com.example.test.services.etaService.RestaurantPrepTimeService;
 import com.example.test.services.etaService.etaConfig.EtaCourierProperties;
 import com.example.test.services.etaService.impl.EtaCalculationServiceImpl;
@@ -16,11 +14,9 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -28,9 +24,7 @@ import static org.mockito.Mockito.*;
 class EtaCalculationServiceImplTest {
 
     @Mock
-    private CourierRepository courierRepository;
-    @Mock
-    private OrderRepository orderRepository;
+    private CourierWorkloadRegistry workloadRegistry;
     @Mock
     private RestaurantPrepTimeService prepTimeService;
     @Mock
@@ -55,30 +49,19 @@ class EtaCalculationServiceImplTest {
     @DisplayName("Calculate ETA: High delay when no couriers available")
     void calculateEta_NoCouriers_ReturnsMaxTime() {
         when(prepTimeService.calculateP80PrepTime(testRestaurant)).thenReturn(20);
-        when(courierRepository.findByAvailableTrue()).thenReturn(List.of());
+        when(workloadRegistry.fleetLoad()).thenReturn(new FleetLoad(0, 0));
 
         int eta = etaService.calculateEtaMinutes(testRestaurant);
 
 
         assertThat(eta).isEqualTo(65);
-        verify(orderRepository, never()).countByCourierIdAndStatusIn(any(), any());
     }
 
     @Test
     @DisplayName("Calculate ETA: Average load with multiple couriers")
     void calculateEta_MultipleCouriers_CalculatesAverageLoad() {
         when(prepTimeService.calculateP80PrepTime(testRestaurant)).thenReturn(15);
-
-        Courier c1 = new Courier();
-        c1.setId(10L);
-        Courier c2 = new Courier();
-        c2.setId(11L);
-        Courier c3 = new Courier();
-        c3.setId(12L);
-        when(courierRepository.findByAvailableTrue()).thenReturn(List.of(c1, c2, c3));
-        when(orderRepository.countByCourierIdAndStatusIn(eq(10L), any())).thenReturn(2L);
-        when(orderRepository.countByCourierIdAndStatusIn(eq(11L), any())).thenReturn(4L);
-        when(orderRepository.countByCourierIdAndStatusIn(eq(12L), any())).thenReturn(9L);
+        when(workloadRegistry.fleetLoad()).thenReturn(new FleetLoad(3, 15));
 
         int eta = etaService.calculateEtaMinutes(testRestaurant);
 
@@ -90,11 +73,7 @@ class EtaCalculationServiceImplTest {
     @DisplayName("Calculate ETA: Minimum wait time when couriers are idle")
     void calculateEta_IdleCouriers_ReturnsBaseTime() {
         when(prepTimeService.calculateP80PrepTime(testRestaurant)).thenReturn(10);
-
-        Courier c1 = new Courier();
-        c1.setId(10L);
-        when(courierRepository.findByAvailableTrue()).thenReturn(List.of(c1));
-        when(orderRepository.countByCourierIdAndStatusIn(anyLong(), any())).thenReturn(0L);
+        when(workloadRegistry.fleetLoad()).thenReturn(new FleetLoad(1, 0));
 
         int eta = etaService.calculateEtaMinutes(testRestaurant);
 
@@ -103,18 +82,24 @@ class EtaCalculationServiceImplTest {
     }
 
     @Test
-    @DisplayName("Verify OrderStatus Filtering Logic")
-    void calculateEta_UsesActiveStatusesOnly() {
-        when(courierRepository.findByAvailableTrue()).thenReturn(List.of(new Courier()));
+    @DisplayName("Bulk ETA: One fleet snapshot is shared by every restaurant")
+    void calculateEta_Bulk_SharesCourierWait() {
+        Map<Long, Integer> fallbacks = Map.of(1L, 20, 2L, 30);
+        when(prepTimeService.calculateP80PrepTimes(fallbacks)).thenReturn(Map.of(1L, 10, 2L, 30));
+        when(workloadRegistry.fleetLoad()).thenReturn(new FleetLoad(2, 4));
 
+        Map<Long, Integer> eta = etaService.calculateEtaMinutes(fallbacks);
 
-        etaService.calculateEtaMinutes(testRestaurant);
 
-        verify(orderRepository).countByCourierIdAndStatusIn(any(), argThat(list ->
-                list.contains(OrderStatus.IN_DELIVERY) &&
-                        !list.contains(OrderStatus.DELIVERED) &&
-                        !list.contains(OrderStatus.CANCELLED)
-        ));
+        assertThat(eta).isEqualTo(Map.of(1L, 40, 2L, 60));
+        verify(workloadRegistry, times(1)).fleetLoad();
     }
-}
 
+    @Test
+    @DisplayName("Bulk ETA: Empty page does no work")
+    void calculateEta_Bulk_Empty() {
+        assertThat(etaService.calculateEtaMinutes(Map.of())).isEmpty();
+
+        verifyNoInteractions(prepTimeService, workloadRegistry);
+    }
+}
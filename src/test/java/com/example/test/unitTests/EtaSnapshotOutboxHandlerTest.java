@@ -0,0 +1,65 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.etaService.EtaSnapshotOutboxHandler;
+import com.example.test.services.etaService.EtaSnapshotService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ETA Snapshot Outbox Handler Unit Tests")
+class EtaSnapshotOutboxHandlerTest {
+
+    @Mock
+    private EtaSnapshotService etaSnapshotService;
+    @Mock
+    private OrderRepository orderRepository;
+
+    @InjectMocks
+    private EtaSnapshotOutboxHandler handler;
+
+    @Test
+    @DisplayName("DELIVERED orders invalidate their restaurants, every batch invalidates courier load")
+    void handle_InvalidatesSnapshot() {
+        given(orderRepository.findRestaurantIdsByIdIn(List.of(2L))).willReturn(List.of(9L));
+
+        handler.handle(List.of(event(1L, OrderStatus.COOKED), event(2L, OrderStatus.DELIVERED)));
+
+        verify(etaSnapshotService).invalidateCourierLoad();
+        verify(etaSnapshotService).invalidateRestaurants(List.of(9L));
+    }
+
+    @Test
+    @DisplayName("No DELIVERED orders: restaurant prep times are kept")
+    void handle_NoDeliveredOrders() {
+        handler.handle(List.of(event(1L, OrderStatus.COOKED)));
+
+        verify(etaSnapshotService).invalidateCourierLoad();
+        verify(etaSnapshotService, never()).invalidateRestaurants(any());
+        verifyNoInteractions(orderRepository);
+    }
+
+    private OutboxEvent event(Long orderId, OrderStatus status) {
+        return OutboxEvent.builder()
+                .type(OutboxEventType.ORDER_STATUS_CHANGED)
+                .orderId(orderId)
+                .userId(100L)
+                .orderStatus(status)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
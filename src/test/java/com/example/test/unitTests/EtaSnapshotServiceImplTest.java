@@ -0,0 +1,112 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.repositories.resRepo.RestaurantRepository;
+import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.etaService.RestaurantPrepTimeService;
+import com.example.test.services.etaService.impl.EtaSnapshotServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ETA Snapshot Service Unit Tests")
+class EtaSnapshotServiceImplTest {
+
+    @Mock
+    private RestaurantRepository restaurantRepository;
+    @Mock
+    private RestaurantPrepTimeService prepTimeService;
+    @Mock
+    private EtaCalculationService etaCalculationService;
+
+    @InjectMocks
+    private EtaSnapshotServiceImpl snapshotService;
+
+    private Restaurant restaurant;
+
+    @BeforeEach
+    void setUp() {
+        restaurant = new Restaurant();
+        restaurant.setId(1L);
+    }
+
+    @Test
+    @DisplayName("Repeated reads are served from the snapshot")
+    void etaMinutesForMenuItem_ComputedOnce() {
+        given(restaurantRepository.findByMenuItemId(50L)).willReturn(Optional.of(restaurant));
+        given(prepTimeService.calculateP80PrepTime(restaurant)).willReturn(20);
+        given(etaCalculationService.courierWaitMinutes()).willReturn(10);
+
+        assertThat(snapshotService.etaMinutesForMenuItem(50L)).isEqualTo(30);
+        assertThat(snapshotService.etaMinutesForMenuItem(50L)).isEqualTo(30);
+
+        verify(restaurantRepository, times(1)).findByMenuItemId(50L);
+        verify(prepTimeService, times(1)).calculateP80PrepTime(restaurant);
+        verify(etaCalculationService, times(1)).courierWaitMinutes();
+    }
+
+    @Test
+    @DisplayName("Invalidation drops only the stale part of the ETA")
+    void invalidate_RecomputesStalePart() {
+        given(prepTimeService.calculateP80PrepTime(restaurant)).willReturn(20, 25);
+        given(etaCalculationService.courierWaitMinutes()).willReturn(10, 15);
+        snapshotService.etaMinutes(restaurant);
+
+        snapshotService.invalidateCourierLoad();
+        assertThat(snapshotService.etaMinutes(restaurant)).isEqualTo(35);
+
+        snapshotService.invalidateRestaurants(List.of(1L));
+        assertThat(snapshotService.etaMinutes(restaurant)).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Scheduled refresh recomputes every restaurant in the snapshot")
+    void refresh_RecomputesKnownRestaurants() {
+        given(prepTimeService.calculateP80PrepTime(restaurant)).willReturn(20, 30);
+        given(etaCalculationService.courierWaitMinutes()).willReturn(10, 5);
+        given(restaurantRepository.findAllById(anyCollection())).willReturn(List.of(restaurant));
+        snapshotService.etaMinutes(restaurant);
+
+        snapshotService.refresh();
+
+        assertThat(snapshotService.etaMinutes(restaurant)).isEqualTo(35);
+        verify(restaurantRepository).findAllById(List.of(1L));
+    }
+
+    @Test
+    @DisplayName("A load that overlaps an invalidation does not store its stale value")
+    void invalidate_DuringLoad_DropsStaleValue() {
+        given(etaCalculationService.courierWaitMinutes()).willReturn(10);
+        given(prepTimeService.calculateP80PrepTime(restaurant)).willAnswer(invocation -> {
+            snapshotService.invalidateRestaurants(List.of(1L));
+            return 20;
+        }).willReturn(25);
+
+        assertThat(snapshotService.etaMinutes(restaurant)).isEqualTo(30);
+        assertThat(snapshotService.etaMinutes(restaurant)).isEqualTo(35);
+        verify(prepTimeService, times(2)).calculateP80PrepTime(restaurant);
+    }
+
+    @Test
+    @DisplayName("Menu item without a restaurant is rejected")
+    void etaMinutesForMenuItem_NoRestaurant() {
+        given(restaurantRepository.findByMenuItemId(50L)).willReturn(Optional.empty());
+
+        assertThatThrownBy(() -> snapshotService.etaMinutesForMenuItem(50L))
+                .isInstanceOf(IllegalStateException.class);
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.test.unitTests;
+
+import com.example.test.exceptions.ConflictException;
+import com.example.test.models.dtos.orderDto.OrderDto;
+import com.example.test.models.entities.idempotency.IdempotencyKey;
+import com.example.test.repositories.idempotencyRepo.IdempotencyKeyRepository;
+import com.example.test.services.idempotencyService.idempotencyConfig.IdempotencyProperties;
+import com.example.test.services.idempotencyService.impl.IdempotencyServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Idempotency Service Unit Tests")
+class IdempotencyServiceImplTest {
+
+    private static final String ENDPOINT = "POST /api/v1/orders";
+
+    @Mock
+    private IdempotencyKeyRepository repository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private IdempotencyServiceImpl service;
+    private AtomicInteger calls;
+    private Supplier<OrderDto> action;
+
+    @BeforeEach
+    void setUp() {
+        service = new IdempotencyServiceImpl(repository, new IdempotencyProperties(),
+                new TransactionTemplate(transactionManager), new ObjectMapper().registerModule(new JavaTimeModule()));
+        calls = new AtomicInteger();
+        action = () -> {
+            OrderDto dto = new OrderDto();
+            dto.setId((long) calls.incrementAndGet());
+            return dto;
+        };
+    }
+
+    @Test
+    @DisplayName("Retry with the same key is served from memory without running the action again")
+    void execute_ReplayFromCache() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.empty());
+        given(repository.saveAndFlush(any())).willAnswer(invocation -> {
+            IdempotencyKey key = invocation.getArgument(0);
+            key.setId(10L);
+            return key;
+        });
+        given(repository.complete(eq(10L), any(), anyString(), any())).willReturn(1);
+
+        OrderDto first = service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action);
+        OrderDto retry = service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action);
+
+        assertThat(retry.getId()).isEqualTo(first.getId());
+        assertThat(calls).hasValue(1);
+        verify(repository).complete(eq(10L), any(), contains("\"id\":1"), any());
+        verify(repository, times(1)).findByUserIdAndEndpointAndKey(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Completed key from the table is replayed after a restart")
+    void execute_ReplayFromTable() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.of(IdempotencyKey.builder()
+                .id(10L).requestFingerprint("restaurantId=1").responseBody("{\"id\":42}")
+                .createdAt(LocalDateTime.now()).completedAt(LocalDateTime.now()).build()));
+
+        OrderDto replayed = service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action);
+
+        assertThat(replayed.getId()).isEqualTo(42L);
+        assertThat(calls).hasValue(0);
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Same key with different parameters is rejected")
+    void execute_FingerprintMismatch() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.of(IdempotencyKey.builder()
+                .id(10L).requestFingerprint("restaurantId=1").responseBody("{\"id\":42}")
+                .createdAt(LocalDateTime.now()).completedAt(LocalDateTime.now()).build()));
+
+        assertThatThrownBy(() -> service.execute("k1", 1L, ENDPOINT, "restaurantId=2", OrderDto.class, action))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Concurrent request holding the key gets a conflict")
+    void execute_InFlight_Conflict() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.empty());
+        given(repository.saveAndFlush(any())).willThrow(new DataIntegrityViolationException("duplicate"));
+
+        assertThatThrownBy(() -> service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action))
+                .isInstanceOf(ConflictException.class);
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("Failed action releases the key so the client can retry")
+    void execute_Failure_ReleasesKey() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.empty());
+        given(repository.saveAndFlush(any())).willAnswer(invocation -> {
+            IdempotencyKey key = invocation.getArgument(0);
+            key.setId(10L);
+            return key;
+        });
+
+        assertThatThrownBy(() -> service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, () -> {
+            throw new IllegalStateException("Cart is empty");
+        })).isInstanceOf(IllegalStateException.class);
+        verify(repository).release(eq(10L), any());
+        verify(repository, never()).complete(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("In-flight key within its lease still gets a conflict")
+    void execute_InFlight_LeaseHeld() {
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.of(IdempotencyKey.builder()
+                .id(10L).requestFingerprint("restaurantId=1")
+                .createdAt(LocalDateTime.now()).claimedAt(LocalDateTime.now()).build()));
+
+        assertThatThrownBy(() -> service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action))
+                .isInstanceOf(ConflictException.class);
+        verify(repository, never()).takeOver(any(), any(), any(), any());
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("In-flight key left behind by a crashed handler is taken over after its lease")
+    void execute_InFlight_LeaseExpired() {
+        LocalDateTime staleClaim = LocalDateTime.now().minusMinutes(10);
+        given(repository.findByUserIdAndEndpointAndKey(1L, ENDPOINT, "k1")).willReturn(Optional.of(IdempotencyKey.builder()
+                .id(10L).requestFingerprint("restaurantId=1")
+                .createdAt(staleClaim).claimedBy("crashed-handler").claimedAt(staleClaim).build()));
+        given(repository.takeOver(eq(10L), eq("crashed-handler"), anyString(), any())).willReturn(1);
+        given(repository.complete(eq(10L), anyString(), anyString(), any())).willReturn(1);
+
+        OrderDto result = service.execute("k1", 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action);
+
+        assertThat(result.getId()).isEqualTo(1L);
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(repository).takeOver(eq(10L), eq("crashed-handler"), token.capture(), any());
+        assertThat(token.getValue()).isNotEqualTo("crashed-handler");
+        verify(repository).complete(eq(10L), eq(token.getValue()), anyString(), any());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("Requests without a key are not tracked")
+    void execute_NoKey() {
+        service.execute(null, 1L, ENDPOINT, "restaurantId=1", OrderDto.class, action);
+
+        assertThat(calls).hasValue(1);
+        verifyNoInteractions(repository);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.enums.VehicleType;
+import com.example.test.services.courierService.assignment.DispatchCourier;
+import com.example.test.services.courierService.assignment.DispatchOrder;
+import com.example.test.services.courierService.assignment.MinCostCourierStrategy;
+import com.example.test.services.courierService.assignment.MinCostMatching;
+import com.example.test.services.courierService.assignment.NearestCourierStrategy;
+import com.example.test.services.courierService.courierConfig.CourierDispatchProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("Min-Cost Courier Strategy Unit Tests")
+class MinCostCourierStrategyTest {
+
+    private CourierDispatchProperties properties;
+    private MinCostCourierStrategy strategy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new CourierDispatchProperties();
+        strategy = new MinCostCourierStrategy(properties);
+    }
+
+    @Test
+    @DisplayName("Hungarian matching finds the optimum of random matrices")
+    void solve_MatchesBruteForce() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int rows = 1 + random.nextInt(6);
+            int columns = 1 + random.nextInt(6);
+            double[][] cost = new double[rows][columns];
+            for (double[] row : cost) {
+                for (int j = 0; j < columns; j++) {
+                    row[j] = random.nextInt(100);
+                }
+            }
+
+            int[] match = MinCostMatching.solve(cost);
+
+            assertThat(match).hasSize(rows);
+            assertThat(IntStream.of(match).filter(column -> column >= 0).boxed().toList())
+                    .hasSize(Math.min(rows, columns))
+                    .doesNotHaveDuplicates();
+            assertThat(total(cost, match)).isEqualTo(bruteForce(cost, 0, new boolean[columns], Math.min(rows, columns)));
+        }
+    }
+
+    @Test
+    @DisplayName("Global matching beats greedy when the first order would steal the second order's only close courier")
+    void assign_BeatsGreedy() {
+        List<DispatchOrder> orders = List.of(
+                new DispatchOrder(1L, 50.450, 30.500),
+                new DispatchOrder(2L, 50.450, 30.530));
+        List<DispatchCourier> couriers = List.of(
+                new DispatchCourier(10L, 50.450, 30.520, VehicleType.BIKE, 0),
+                new DispatchCourier(11L, 50.450, 30.470, VehicleType.BIKE, 0));
+
+        assertThat(new NearestCourierStrategy(properties).assign(orders, couriers)).isEqualTo(Map.of(1L, 10L, 2L, 11L));
+        assertThat(strategy.assign(orders, couriers)).isEqualTo(Map.of(1L, 11L, 2L, 10L));
+    }
+
+    @Test
+    @DisplayName("A faster vehicle farther away wins over a walker nearby")
+    void assign_UsesVehicleSpeed() {
+        List<DispatchOrder> orders = List.of(new DispatchOrder(1L, 50.450, 30.500));
+        List<DispatchCourier> couriers = List.of(
+                new DispatchCourier(10L, 50.460, 30.500, VehicleType.FOOT, 0),
+                new DispatchCourier(11L, 50.470, 30.500, VehicleType.CAR, 0));
+
+        assertThat(strategy.assign(orders, couriers)).containsEntry(1L, 11L);
+    }
+
+    @Test
+    @DisplayName("Couriers already carrying orders are penalised")
+    void assign_PenalisesLoad() {
+        List<DispatchOrder> orders = List.of(new DispatchOrder(1L, 50.450, 30.500));
+        List<DispatchCourier> couriers = List.of(
+                new DispatchCourier(10L, 50.451, 30.500, VehicleType.BIKE, 2),
+                new DispatchCourier(11L, 50.460, 30.500, VehicleType.BIKE, 0));
+
+        assertThat(strategy.assign(orders, couriers)).containsEntry(1L, 11L);
+    }
+
+    @Test
+    @DisplayName("The cost matrix is the same whether built in parallel or not")
+    void costMatrix_ParallelMatchesSequential() {
+        Random random = new Random(3);
+        List<DispatchOrder> orders = IntStream.range(0, 50)
+                .mapToObj(i -> new DispatchOrder((long) i, 50 + random.nextDouble() / 10, 30.5)).toList();
+        List<DispatchCourier> couriers = IntStream.range(0, 400)
+                .mapToObj(i -> new DispatchCourier(1000L + i, 50.4, 30 + random.nextDouble(), VehicleType.SCOOTER, 0))
+                .toList();
+
+        List<Long> sequential = flatten(strategy.assign(orders, couriers));
+        properties.setParallelCostCells(1);
+        List<Long> parallel = flatten(strategy.assign(orders, couriers));
+
+        assertThat(sequential).hasSize(100);
+        assertThat(parallel).isEqualTo(sequential);
+    }
+
+    private static List<Long> flatten(Map<Long, Long> assignments) {
+        return assignments.entrySet().stream().flatMap(e -> Stream.of(e.getKey(), e.getValue())).toList();
+    }
+
+    private static double total(double[][] cost, int[] match) {
+        double total = 0;
+        for (int i = 0; i < match.length; i++) {
+            if (match[i] >= 0) {
+                total += cost[i][match[i]];
+            }
+        }
+        return total;
+    }
+
+    private static double bruteForce(double[][] cost, int row, boolean[] used, int toMatch) {
+        if (toMatch == 0) {
+            return 0;
+        }
+        if (row == cost.length) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double best = cost.length - row > toMatch ? bruteForce(cost, row + 1, used, toMatch) : Double.POSITIVE_INFINITY;
+        for (int j = 0; j < used.length; j++) {
+            if (!used[j]) {
+                used[j] = true;
+                best = Math.min(best, cost[row][j] + bruteForce(cost, row + 1, used, toMatch - 1));
+                used[j] = false;
+            }
+        }
+        return best;
+    }
+}
@@ -1,20 +1,31 @@
 package com.example.test.unitTests;
 
+import com.example.test.models.dtos.notificationDto.OutgoingNotification;
 import com.example.test.models.entities.enums.NotificationStatus;
 import com.example.test.models.entities.notification.Notification;
+import com.example.test.models.entities.user.User;
 import com.example.test.repositories.notiRepo.NotificationRepository;
 import com.example.test.services.notiService.NotificationScheduler;
-import com.example.test.services.notiService.NotificationService;
+import com.example.test.services.notiService.NotificationSender;
+import com.example.test.services.notiService.notiConfig.NotificationDispatchProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -25,68 +36,147 @@ class NotificationSchedulerTest {
     @Mock
     private NotificationRepository notificationRepository;
     @Mock
-    private NotificationService notificationService;
+    private NotificationSender notificationSender;
 
-    @InjectMocks
+    private NotificationDispatchProperties props;
     private NotificationScheduler notificationScheduler;
 
-    @Test
-    @DisplayName("Should process multiple pending notifications successfully")
-    void sendScheduledNotifications_Success() {
-        Notification n1 = new Notification();
-        n1.setId(1L);
-        n1.setMessage("Order Confirmed");
+    @BeforeEach
+    void setUp() {
+        props = new NotificationDispatchProperties();
+        props.setChunkSize(3);
+        props.setParallelism(2);
+        notificationScheduler = new NotificationScheduler(notificationRepository, notificationSender,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), props);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        notificationScheduler.shutdown();
+    }
+
+    private static Notification notification(long id) {
+        Notification n = new Notification();
+        n.setId(id);
+        n.setUser(User.builder().id(100 + id).build());
+        n.setMessage("Order update " + id);
+        n.setStatus(NotificationStatus.PENDING);
+        return n;
+    }
 
-        Notification n2 = new Notification();
-        n2.setId(2L);
-        n2.setMessage("Order Delivered");
+    private void due(long afterId, Long... ids) {
+        when(notificationRepository.findDueIds(eq(NotificationStatus.PENDING), any(LocalDateTime.class), eq(afterId),
+                any(Pageable.class))).thenReturn(List.of(ids));
+    }
 
-        when(notificationRepository.findAllByStatusAndSendAtBefore(
-                eq(NotificationStatus.PENDING), any(LocalDateTime.class)))
-                .thenReturn(List.of(n1, n2));
+    private void claimable(List<Long> ids, Long... claimedIds) {
+        when(notificationRepository.claim(ids, NotificationStatus.PENDING))
+                .thenReturn(Arrays.stream(claimedIds).map(NotificationSchedulerTest::notification).toList());
+    }
+
+    @Test
+    @DisplayName("Should send a claimed chunk and mark it SENT with one update")
+    void sendScheduledNotifications_Success() {
+        due(0L, 1L, 2L);
+        claimable(List.of(1L, 2L), 1L, 2L);
 
 
         notificationScheduler.sendScheduledNotifications();
 
-        verify(notificationService).updateStatus(1L, NotificationStatus.SENT);
-        verify(notificationService).updateStatus(2L, NotificationStatus.SENT);
-        verify(notificationRepository).findAllByStatusAndSendAtBefore(eq(NotificationStatus.PENDING), any());
+        verify(notificationSender).send(new OutgoingNotification(1L, 101L, "Order update 1"));
+        verify(notificationSender).send(new OutgoingNotification(2L, 102L, "Order update 2"));
+        verify(notificationRepository).updateStatuses(argThat(ids -> ids.containsAll(List.of(1L, 2L)) && ids.size() == 2),
+                eq(NotificationStatus.SENT), any(LocalDateTime.class));
     }
 
     @Test
     @DisplayName("Fault Tolerance: Should continue processing if one notification fails")
     void sendScheduledNotifications_ContinueOnException() {
-        Notification n1 = new Notification();
-        n1.setId(1L);
-        Notification n2 = new Notification();
-        n2.setId(2L);
-        Notification n3 = new Notification();
-        n3.setId(3L);
+        due(0L, 1L, 2L);
+        claimable(List.of(1L, 2L), 1L, 2L);
+        lenient().doThrow(new RuntimeException("Gateway Timeout"))
+                .when(notificationSender).send(argThat(n -> n.id() == 2L));
 
-        when(notificationRepository.findAllByStatusAndSendAtBefore(any(), any()))
-                .thenReturn(List.of(n1, n2, n3));
 
-        doThrow(new RuntimeException("Gateway Timeout"))
-                .when(notificationService).updateStatus(2L, NotificationStatus.SENT);
+        notificationScheduler.sendScheduledNotifications();
+
+        verify(notificationSender, times(2)).send(any());
+        verify(notificationRepository).updateStatuses(eq(List.of(1L)), eq(NotificationStatus.SENT), any());
+    }
+
+    @Test
+    @DisplayName("Fault Tolerance: A send that outlives the timeout is interrupted and stays PENDING")
+    void sendScheduledNotifications_TimesOutHungSend() throws InterruptedException {
+        props.setSendTimeoutMs(200);
+        due(0L, 1L, 2L);
+        claimable(List.of(1L, 2L), 1L, 2L);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        lenient().doAnswer(invocation -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return null;
+        }).when(notificationSender).send(argThat(n -> n.id() == 2L));
+
+        try {
+            notificationScheduler.sendScheduledNotifications();
+            assertThat(interrupted.await(1, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+        }
+
+        verify(notificationRepository).updateStatuses(eq(List.of(1L)), eq(NotificationStatus.SENT), any());
+    }
+
+    @Test
+    @DisplayName("Fault Tolerance: Time spent queued behind other sends does not count towards the timeout")
+    void sendScheduledNotifications_QueueTimeDoesNotCountTowardsTimeout() {
+        props.setSendTimeoutMs(300);
+        due(0L, 1L, 2L, 3L);
+        claimable(List.of(1L, 2L, 3L), 1L, 2L, 3L);
+        due(3L);
+        doAnswer(invocation -> {
+            Thread.sleep(200);
+            return null;
+        }).when(notificationSender).send(any());
 
 
         notificationScheduler.sendScheduledNotifications();
 
-        verify(notificationService).updateStatus(1L, NotificationStatus.SENT);
-        verify(notificationService).updateStatus(2L, NotificationStatus.SENT);
-        verify(notificationService).updateStatus(3L, NotificationStatus.SENT);
+        verify(notificationSender, times(3)).send(any());
+        verify(notificationRepository).updateStatuses(eq(List.of(1L, 2L, 3L)), eq(NotificationStatus.SENT), any());
+    }
 
+    @Test
+    @DisplayName("Full chunks continue after the last scanned id; rows locked elsewhere are skipped")
+    void sendScheduledNotifications_WalksChunks() {
+        due(0L, 1L, 2L, 3L);
+        claimable(List.of(1L, 2L, 3L), 1L, 3L);
+        due(3L, 4L);
+        claimable(List.of(4L), 4L);
+
+
+        notificationScheduler.sendScheduledNotifications();
+
+        verify(notificationSender, never()).send(argThat(n -> n.id() == 2L));
+        verify(notificationRepository).updateStatuses(argThat(ids -> ids.containsAll(List.of(1L, 3L)) && ids.size() == 2),
+                eq(NotificationStatus.SENT), any());
+        verify(notificationRepository).updateStatuses(eq(List.of(4L)), eq(NotificationStatus.SENT), any());
     }
 
     @Test
     @DisplayName("Should do nothing if no pending notifications found")
     void sendScheduledNotifications_EmptyList_NoAction() {
-        when(notificationRepository.findAllByStatusAndSendAtBefore(any(), any()))
-                .thenReturn(List.of());
+        due(0L);
 
         notificationScheduler.sendScheduledNotifications();
 
-        verify(notificationService, never()).updateStatus(anyLong(), any());
+        verify(notificationRepository, never()).claim(any(), any());
+        verify(notificationRepository, never()).updateStatuses(any(), any(), any());
+        verifyNoInteractions(notificationSender);
     }
 }
-
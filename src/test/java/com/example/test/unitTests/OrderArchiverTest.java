@@ -0,0 +1,92 @@
+package com.example.test.unitTests;
+
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.OrderArchiver;
+import com.example.test.services.orderService.orderConfig.OrderArchiveProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Archiver Unit Tests")
+class OrderArchiverTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        OrderArchiveProperties properties = new OrderArchiveProperties();
+        properties.setChunkSize(2);
+        properties.setMaxChunksPerRun(3);
+        archiver = new OrderArchiver(orderRepository, archivedOrderRepository, properties,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Chunk is copied to the archive before the hot rows are deleted")
+    void archiveChunk_CopiesThenDeletes() {
+        List<Long> ids = List.of(1L, 2L);
+        given(orderRepository.findArchivableIds(anyCollection(), any(), any(Pageable.class))).willReturn(ids);
+        given(archivedOrderRepository.deleteOrders(ids)).willReturn(2);
+
+
+        int moved = archiver.archiveChunk(LocalDateTime.now());
+
+
+        assertThat(moved).isEqualTo(2);
+        InOrder inOrder = inOrder(archivedOrderRepository);
+        inOrder.verify(archivedOrderRepository).copyOrders(eq(ids), any());
+        inOrder.verify(archivedOrderRepository).copyItems(ids);
+        inOrder.verify(archivedOrderRepository).copyPayments(ids);
+        inOrder.verify(archivedOrderRepository).deletePayments(ids);
+        inOrder.verify(archivedOrderRepository).deleteItemLinks(ids);
+        inOrder.verify(archivedOrderRepository).deleteItems(ids);
+        inOrder.verify(archivedOrderRepository).deleteOrders(ids);
+    }
+
+    @Test
+    @DisplayName("Nothing to archive touches no archive table")
+    void archiveChunk_Empty() {
+        given(orderRepository.findArchivableIds(anyCollection(), any(), any(Pageable.class))).willReturn(List.of());
+
+
+        assertThat(archiver.archiveChunk(LocalDateTime.now())).isZero();
+        verifyNoInteractions(archivedOrderRepository);
+    }
+
+    @Test
+    @DisplayName("Run stops after the configured number of full chunks")
+    void archiveFinished_BoundedByMaxChunks() {
+        given(orderRepository.findArchivableIds(anyCollection(), any(), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(archivedOrderRepository.deleteOrders(anyCollection())).willReturn(2);
+
+
+        archiver.archiveFinished();
+
+
+        verify(archivedOrderRepository, times(3)).deleteOrders(anyCollection());
+    }
+}
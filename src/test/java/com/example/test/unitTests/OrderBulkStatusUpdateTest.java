@@ -0,0 +1,167 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.orderDto.OrderStatusChange;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult;
+import com.example.test.models.dtos.orderDto.OrderStatusChangeResult.Outcome;
+import com.example.test.models.dtos.orderDto.OrderStatusSnapshot;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.orderService.OrderSummaryService;
+import com.example.test.services.orderService.impl.OrderServiceImpl;
+import com.example.test.services.outboxService.OutboxService;
+import com.example.test.services.userService.impl.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Bulk Order Status Update Unit Tests")
+class OrderBulkStatusUpdateTest {
+
+    private static final Long OWNER_ID = 7L;
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private CourierWorkloadRegistry workloadRegistry;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private Authentication auth;
+
+    @BeforeEach
+    void setUp() {
+        UserDetailsImpl principal = mock(UserDetailsImpl.class);
+        given(principal.getUser()).willReturn(User.builder().id(OWNER_ID).build());
+        auth = mock(Authentication.class);
+        given(auth.getPrincipal()).willReturn(principal);
+    }
+
+    @Test
+    @DisplayName("Owner: valid changes are applied with one update per target status")
+    void updateStatuses_AppliesSetWise() {
+        asRole("ROLE_RESTAURANT_OWNER");
+        given(orderRepository.findStatusSnapshots(Set.of(1L, 2L, 3L))).willReturn(List.of(
+                snapshot(1L, OrderStatus.CONFIRMED),
+                snapshot(2L, OrderStatus.CONFIRMED),
+                snapshot(3L, OrderStatus.COOKED)));
+        given(orderRepository.transitionStatuses(eq(Set.of(1L, 2L)), eq(Set.of(OrderStatus.CONFIRMED)),
+                eq(OrderStatus.COOKED), any())).willReturn(2);
+        given(orderRepository.transitionStatuses(eq(Set.of(3L)), any(), eq(OrderStatus.IN_DELIVERY), any()))
+                .willReturn(1);
+
+        List<OrderStatusChangeResult> results = orderService.updateStatuses(auth, List.of(
+                new OrderStatusChange(1L, OrderStatus.COOKED),
+                new OrderStatusChange(2L, OrderStatus.COOKED),
+                new OrderStatusChange(3L, OrderStatus.IN_DELIVERY)));
+
+        assertThat(results).extracting(OrderStatusChangeResult::outcome).containsOnly(Outcome.UPDATED);
+        verify(orderRepository, times(2)).transitionStatuses(any(), any(), any(), any());
+        verify(orderSummaryService).onStatusChanged(Set.of(1L, 2L), OrderStatus.COOKED);
+        verify(outboxService).publishOrderStatusChanged(Map.of(1L, 100L, 2L, 100L), OrderStatus.COOKED);
+        verify(outboxService).publishOrderStatusChanged(Map.of(3L, 100L), OrderStatus.IN_DELIVERY);
+    }
+
+    @Test
+    @DisplayName("Owner: invalid entries are reported without touching the database")
+    void updateStatuses_PerOrderFailures() {
+        asRole("ROLE_RESTAURANT_OWNER");
+        given(orderRepository.findStatusSnapshots(anyCollection())).willReturn(List.of(
+                snapshot(1L, OrderStatus.DELIVERED),
+                new OrderStatusSnapshot(2L, 100L, 99L, OrderStatus.CONFIRMED, PaymentMethod.CASH, null),
+                new OrderStatusSnapshot(3L, 100L, OWNER_ID, OrderStatus.CREATED, PaymentMethod.CARD, null)));
+
+        List<OrderStatusChangeResult> results = orderService.updateStatuses(auth, List.of(
+                new OrderStatusChange(1L, OrderStatus.COOKED),
+                new OrderStatusChange(2L, OrderStatus.COOKED),
+                new OrderStatusChange(3L, OrderStatus.CONFIRMED),
+                new OrderStatusChange(4L, OrderStatus.COOKED),
+                new OrderStatusChange(5L, OrderStatus.DELIVERED),
+                new OrderStatusChange(1L, OrderStatus.CANCELLED)));
+
+        assertThat(results).extracting(OrderStatusChangeResult::outcome).containsExactly(
+                Outcome.CONFLICT, Outcome.FORBIDDEN, Outcome.REJECTED, Outcome.NOT_FOUND, Outcome.FORBIDDEN, Outcome.REJECTED);
+        verify(orderRepository, never()).transitionStatuses(any(), any(), any(), any());
+        verifyNoInteractions(orderSummaryService, outboxService);
+    }
+
+    @Test
+    @DisplayName("Rows are locked before their status is read")
+    void updateStatuses_LocksBeforeSnapshot() {
+        asRole("ROLE_ADMIN");
+        given(orderRepository.findStatusSnapshots(anyCollection())).willReturn(List.of(
+                snapshot(1L, OrderStatus.COOKED),
+                snapshot(2L, OrderStatus.CONFIRMED)));
+        given(orderRepository.transitionStatuses(anyCollection(), any(), eq(OrderStatus.COOKED), any())).willReturn(1);
+
+        List<OrderStatusChangeResult> results = orderService.updateStatuses(auth, List.of(
+                new OrderStatusChange(1L, OrderStatus.COOKED),
+                new OrderStatusChange(2L, OrderStatus.COOKED)));
+
+        InOrder inOrder = inOrder(orderRepository);
+        inOrder.verify(orderRepository).lockIdsByIdIn(Set.of(1L, 2L));
+        inOrder.verify(orderRepository).findStatusSnapshots(Set.of(1L, 2L));
+        assertThat(results).extracting(OrderStatusChangeResult::outcome).containsExactly(Outcome.CONFLICT, Outcome.UPDATED);
+        verify(orderSummaryService).onStatusChanged(Set.of(2L), OrderStatus.COOKED);
+    }
+
+    @Test
+    @DisplayName("Cancelled orders release their courier's workload")
+    void updateStatuses_Cancelled_ReleasesWorkload() {
+        asRole("ROLE_RESTAURANT_OWNER");
+        given(orderRepository.findStatusSnapshots(anyCollection())).willReturn(List.of(
+                new OrderStatusSnapshot(1L, 100L, OWNER_ID, OrderStatus.CONFIRMED, PaymentMethod.CASH, 5L),
+                snapshot(2L, OrderStatus.CONFIRMED)));
+        given(orderRepository.transitionStatuses(anyCollection(), any(), eq(OrderStatus.CANCELLED), any())).willReturn(2);
+
+        orderService.updateStatuses(auth, List.of(
+                new OrderStatusChange(1L, OrderStatus.CANCELLED),
+                new OrderStatusChange(2L, OrderStatus.CANCELLED)));
+
+        verify(workloadRegistry).orderFinished(5L);
+    }
+
+    @Test
+    @DisplayName("Plain users cannot use the bulk endpoint")
+    void updateStatuses_UserForbidden() {
+        asRole("ROLE_USER");
+
+        assertThatThrownBy(() -> orderService.updateStatuses(auth, List.of(new OrderStatusChange(1L, OrderStatus.COOKED))))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(orderRepository);
+    }
+
+    private void asRole(String role) {
+        doReturn(List.of(new SimpleGrantedAuthority(role))).when(auth).getAuthorities();
+    }
+
+    private OrderStatusSnapshot snapshot(Long id, OrderStatus status) {
+        return new OrderStatusSnapshot(id, 100L, OWNER_ID, status, PaymentMethod.CASH, null);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.test.unitTests;
 
+import com.example.test.exceptions.ConflictException;
 import com.example.test.models.entities.cart.MenuItem;
+import com.example.test.models.entities.courier.Courier;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.order.Order;
 import com.example.test.models.entities.order.OrderItem;
@@ -8,6 +10,8 @@ import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
 import com.example.test.repositories.cartRepo.MenuItemRepository;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.orderService.impl.OrderServiceImpl;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -25,8 +29,9 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -40,6 +45,10 @@ class OrderCancelTest {
     private MenuItemRepository menuItemRepository;
     @Mock
     private Authentication auth;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private CourierWorkloadRegistry workloadRegistry;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -85,17 +94,24 @@ class OrderCancelTest {
                 .when(auth).getAuthorities();
     }
 
+    private void givenTransitionApplies(int rows) {
+        given(orderRepository.transitionStatus(eq(100L), eq(OrderStatus.CANCELLED.allowedSources()),
+                eq(OrderStatus.CANCELLED), any())).willReturn(rows);
+    }
+
     @Test
     @DisplayName("Cancel: Success by Customer")
     void cancel_Success_ByCustomer() {
         mockAuth(1L, "ROLE_USER");
         given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        givenTransitionApplies(1);
 
         orderService.cancel(100L, auth);
 
-        assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.CANCELLED);
-        assertThat(menuItem.getQuantity()).isEqualTo(7);
-        verify(orderRepository).save(testOrder);
+        verify(menuItemRepository).restockFromOrders(List.of(100L));
+        verifyNoMoreInteractions(menuItemRepository);
+        verify(orderRepository, never()).save(any());
+        verify(orderSummaryService).onStatusChanged(100L, OrderStatus.CANCELLED);
     }
 
     @Test
@@ -103,11 +119,25 @@ class OrderCancelTest {
     void cancel_Success_ByRestaurantOwner() {
         mockAuth(2L, "ROLE_RESTAURANT_OWNER");
         given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        givenTransitionApplies(1);
 
         orderService.cancel(100L, auth);
 
-        assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.CANCELLED);
-        verify(orderRepository).save(testOrder);
+        verify(menuItemRepository).restockFromOrders(List.of(100L));
+    }
+
+    @Test
+    @DisplayName("Cancel: Assigned courier's workload is released")
+    void cancel_ReleasesCourierWorkload() {
+        mockAuth(2L, "ROLE_RESTAURANT_OWNER");
+        testOrder.setStatus(OrderStatus.CONFIRMED);
+        testOrder.setCourier(Courier.builder().id(5L).build());
+        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        givenTransitionApplies(1);
+
+        orderService.cancel(100L, auth);
+
+        verify(workloadRegistry).orderFinished(5L);
     }
 
     @Test
@@ -115,11 +145,23 @@ class OrderCancelTest {
     void cancel_Success_ByAdmin() {
         mockAuth(999L, "ROLE_ADMIN");
         given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        givenTransitionApplies(1);
 
         orderService.cancel(100L, auth);
 
-        assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.CANCELLED);
-        verify(orderRepository).save(testOrder);
+        verify(menuItemRepository).restockFromOrders(List.of(100L));
+    }
+
+    @Test
+    @DisplayName("Cancel: Losing a race to another status change does not restock")
+    void cancel_ConcurrentChange_Conflict() {
+        mockAuth(1L, "ROLE_USER");
+        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        givenTransitionApplies(0);
+
+        assertThatThrownBy(() -> orderService.cancel(100L, auth))
+                .isInstanceOf(ConflictException.class);
+        verifyNoInteractions(menuItemRepository, orderSummaryService);
     }
 
     @Test
@@ -0,0 +1,103 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.orderDto.OrderStatusSnapshot;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.OrderExpiryJob;
+import com.example.test.services.orderService.OrderSummaryService;
+import com.example.test.services.orderService.orderConfig.OrderExpiryProperties;
+import com.example.test.services.outboxService.OutboxService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Expiry Job Unit Tests")
+class OrderExpiryJobTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private MenuItemRepository menuItemRepository;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private OutboxService outboxService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        OrderExpiryProperties properties = new OrderExpiryProperties();
+        properties.setChunkSize(2);
+        job = new OrderExpiryJob(orderRepository, menuItemRepository, orderSummaryService, outboxService,
+                properties, new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Chunk is cancelled and restocked with set-based statements")
+    void expireChunk_CancelsAndRestocks() {
+        List<Long> ids = List.of(1L, 2L);
+        given(orderRepository.lockUnpaidIdsCreatedBefore(eq(OrderStatus.CREATED), eq(PaymentMethod.CARD), any(), any(Pageable.class)))
+                .willReturn(ids);
+        given(orderRepository.findStatusSnapshots(ids)).willReturn(List.of(
+                new OrderStatusSnapshot(1L, 10L, 7L, OrderStatus.CREATED, PaymentMethod.CARD, null),
+                new OrderStatusSnapshot(2L, 20L, 7L, OrderStatus.CREATED, PaymentMethod.CASH, null)));
+        given(orderRepository.transitionStatuses(eq(ids), eq(Set.of(OrderStatus.CREATED)), eq(OrderStatus.CANCELLED), any()))
+                .willReturn(2);
+
+
+        int expired = job.expireChunk(LocalDateTime.now());
+
+
+        assertThat(expired).isEqualTo(2);
+        verify(menuItemRepository).restockFromOrders(ids);
+        verify(orderSummaryService).onStatusChanged(ids, OrderStatus.CANCELLED);
+        verify(outboxService).publishOrderStatusChanged(Map.of(1L, 10L, 2L, 20L), OrderStatus.CANCELLED);
+    }
+
+    @Test
+    @DisplayName("Run keeps draining while chunks come back full")
+    void expireStale_DrainsFullChunks() {
+        given(orderRepository.lockUnpaidIdsCreatedBefore(eq(OrderStatus.CREATED), eq(PaymentMethod.CARD), any(), any(Pageable.class)))
+                .willReturn(List.of(1L, 2L), List.of(3L));
+        given(orderRepository.transitionStatuses(anyCollection(), any(), any(), any())).willReturn(2, 1);
+
+
+        job.expireStale();
+
+
+        verify(orderRepository, times(2)).lockUnpaidIdsCreatedBefore(any(), any(), any(), any());
+        verify(menuItemRepository, times(2)).restockFromOrders(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Nothing stale means no writes")
+    void expireChunk_Empty() {
+        given(orderRepository.lockUnpaidIdsCreatedBefore(any(), any(), any(), any())).willReturn(List.of());
+
+
+        assertThat(job.expireChunk(LocalDateTime.now())).isZero();
+        verifyNoInteractions(menuItemRepository, orderSummaryService, outboxService);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.orderDto.OrderExportFormat;
+import com.example.test.models.dtos.orderDto.OrderExportRow;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.services.orderService.impl.OrderExportServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceImplTest {
+
+    @Mock
+    private OrderRepository orderRepository;
+
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private OrderExportServiceImpl exportService;
+
+    private final LocalDate from = LocalDate.of(2024, 5, 1);
+    private final LocalDate to = LocalDate.of(2024, 6, 1);
+    private final LocalDateTime createdAt = LocalDateTime.of(2024, 5, 2, 12, 30);
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new OrderExportServiceImpl(orderRepository, archivedOrderRepository, entityManager, objectMapper);
+    }
+
+    @Test
+    @DisplayName("NDJSON: one JSON object per line, null fields omitted")
+    void export_Ndjson() throws Exception {
+        given(archivedOrderRepository.streamForExport(from.atStartOfDay(), to.atStartOfDay())).willReturn(Stream.empty());
+        given(orderRepository.streamForExport(from.atStartOfDay(), to.atStartOfDay()))
+                .willReturn(Stream.of(
+                        new OrderExportRow(1L, 10L, 20L, null, OrderStatus.DELIVERED, PaymentMethod.CARD,
+                                new BigDecimal("25.50"), createdAt, createdAt),
+                        new OrderExportRow(2L, 11L, 20L, 30L, OrderStatus.CREATED, PaymentMethod.CASH,
+                                new BigDecimal("9.00"), createdAt, createdAt)));
+
+        StringWriter out = new StringWriter();
+        long written = exportService.export(OrderExportFormat.NDJSON, false, from, to, out);
+
+        String[] lines = out.toString().split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"orderId\":1,").doesNotContain("courierId").doesNotContain("itemId");
+        assertThat(lines[1]).contains("\"courierId\":30", "\"createdAt\":\"2024-05-02T12:30:00\"");
+    }
+
+    @Test
+    @DisplayName("CSV with items: header plus escaped item rows")
+    void export_CsvWithItems() throws Exception {
+        given(archivedOrderRepository.streamForExportWithItems(from.atStartOfDay(), to.atStartOfDay()))
+                .willReturn(Stream.empty());
+        given(orderRepository.streamForExportWithItems(from.atStartOfDay(), to.atStartOfDay()))
+                .willReturn(Stream.of(
+                        new OrderExportRow(1L, 10L, 20L, null, OrderStatus.DELIVERED, PaymentMethod.CARD,
+                                new BigDecimal("25.50"), createdAt, createdAt,
+                                100L, 5L, "Pizza \"Diavola\", large", 2, new BigDecimal("12.75"))));
+
+        StringWriter out = new StringWriter();
+        exportService.export(OrderExportFormat.CSV, true, from, to, out);
+
+        assertThat(out.toString()).isEqualTo(
+                "orderId,userId,restaurantId,courierId,status,paymentMethod,totalPrice,createdAt,updatedAt,"
+                        + "itemId,menuItemId,menuItemName,quantity,price\n"
+                        + "1,10,20,,DELIVERED,CARD,25.50,2024-05-02T12:30,2024-05-02T12:30,"
+                        + "100,5,\"Pizza \"\"Diavola\"\", large\",2,12.75\n");
+    }
+
+    @Test
+    @DisplayName("Archived orders in the range are exported ahead of hot ones")
+    void export_IncludesArchived() throws Exception {
+        given(archivedOrderRepository.streamForExport(from.atStartOfDay(), to.atStartOfDay()))
+                .willReturn(Stream.of(new OrderExportRow(1L, 10L, 20L, null, OrderStatus.DELIVERED, PaymentMethod.CARD,
+                        new BigDecimal("25.50"), createdAt, createdAt)));
+        given(orderRepository.streamForExport(from.atStartOfDay(), to.atStartOfDay()))
+                .willReturn(Stream.of(new OrderExportRow(2L, 11L, 20L, null, OrderStatus.CREATED, PaymentMethod.CASH,
+                        new BigDecimal("9.00"), createdAt, createdAt)));
+
+        StringWriter out = new StringWriter();
+        long written = exportService.export(OrderExportFormat.CSV, false, from, to, out);
+
+        String[] lines = out.toString().split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[1]).startsWith("1,");
+        assertThat(lines[2]).startsWith("2,");
+    }
+
+    @Test
+    @DisplayName("Empty or inverted range is rejected")
+    void export_InvalidRange() {
+        assertThatThrownBy(() -> exportService.export(OrderExportFormat.CSV, false, to, from, new StringWriter()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(orderRepository, archivedOrderRepository);
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.dtos.orderDto.OrderCursor;
+import com.example.test.models.dtos.orderDto.OrderDto;
+import com.example.test.models.dtos.orderDto.OrderFilter;
+import com.example.test.models.dtos.orderDto.OrderSliceDto;
+import com.example.test.models.entities.order.OrderSummary;
+import com.example.test.models.entities.user.User;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
+import com.example.test.services.orderService.impl.OrderServiceImpl;
+import com.example.test.services.userService.impl.UserDetailsImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Keyset Pagination Unit Tests")
+class OrderKeysetPaginationTest {
+
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+
+    @InjectMocks
+    private OrderServiceImpl orderService;
+
+    private Authentication auth;
+
+    @BeforeEach
+    void setUp() {
+        User user = User.builder().id(1L).build();
+        auth = new UsernamePasswordAuthenticationToken(
+                new UserDetailsImpl(user), null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+    }
+
+    @Test
+    @DisplayName("Cursor: encode/decode round trip")
+    void cursor_RoundTrip() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000), 42L);
+
+        assertThat(OrderCursor.decode(cursor.encode())).isEqualTo(cursor);
+    }
+
+    @Test
+    @DisplayName("Cursor: malformed value is rejected")
+    void cursor_Malformed_ThrowsException() {
+        assertThatThrownBy(() -> OrderCursor.decode("not-a-cursor"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid cursor");
+    }
+
+    @Test
+    @DisplayName("Scroll: extra row means next slice exists and cursor points at last returned row")
+    void findAllByFilterAfter_HasNext() {
+        OrderSummary o1 = summary(3L, LocalDateTime.of(2024, 5, 3, 10, 0));
+        OrderSummary o2 = summary(2L, LocalDateTime.of(2024, 5, 2, 10, 0));
+        OrderSummary o3 = summary(1L, LocalDateTime.of(2024, 5, 1, 10, 0));
+
+        given(orderSummaryRepository.findBy(any(Specification.class), any())).willReturn(List.of(o1, o2, o3));
+        given(orderSummaryMapper.toDto(any(OrderSummary.class))).willReturn(new OrderDto());
+
+        OrderSliceDto result = orderService.findAllByFilterAfter(new OrderFilter(null, null), null, 2, auth);
+
+        assertThat(result.content()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        assertThat(OrderCursor.decode(result.nextCursor())).isEqualTo(new OrderCursor(o2.getCreatedAt(), 2L));
+    }
+
+    @Test
+    @DisplayName("Scroll: last slice has no next cursor")
+    void findAllByFilterAfter_LastSlice() {
+        OrderSummary o1 = summary(1L, LocalDateTime.of(2024, 5, 1, 10, 0));
+        String cursor = new OrderCursor(LocalDateTime.of(2024, 5, 2, 10, 0), 2L).encode();
+
+        given(orderSummaryRepository.findBy(any(Specification.class), any())).willReturn(List.of(o1));
+        given(orderSummaryMapper.toDto(any(OrderSummary.class))).willReturn(new OrderDto());
+
+        OrderSliceDto result = orderService.findAllByFilterAfter(new OrderFilter(null, null), cursor, 2, auth);
+
+        assertThat(result.content()).hasSize(1);
+        assertThat(result.hasNext()).isFalse();
+        assertThat(result.nextCursor()).isNull();
+    }
+
+    private OrderSummary summary(Long id, LocalDateTime createdAt) {
+        OrderSummary summary = new OrderSummary();
+        summary.setId(id);
+        summary.setCreatedAt(createdAt);
+        return summary;
+    }
+}
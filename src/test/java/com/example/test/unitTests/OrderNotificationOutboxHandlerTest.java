@@ -0,0 +1,80 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.enums.NotificationStatus;
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.notification.Notification;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.models.entities.user.User;
+import com.example.test.repositories.notiRepo.NotificationRepository;
+import com.example.test.services.notiService.OrderNotificationOutboxHandler;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Order Notification Outbox Handler Unit Tests")
+class OrderNotificationOutboxHandlerTest {
+
+    @Mock
+    private NotificationRepository notificationRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    @InjectMocks
+    private OrderNotificationOutboxHandler handler;
+
+    @Test
+    @DisplayName("DELIVERED adds a delayed review notification next to the status one")
+    @SuppressWarnings("unchecked")
+    void handle_Delivered_CreatesDelayedReview() {
+        LocalDateTime changedAt = LocalDateTime.of(2024, 5, 1, 12, 0);
+        User user = User.builder().id(1L).build();
+        given(entityManager.getReference(User.class, 1L)).willReturn(user);
+
+        handler.handle(List.of(
+                event(100L, OrderStatus.CONFIRMED, changedAt),
+                event(101L, OrderStatus.DELIVERED, changedAt)));
+
+        ArgumentCaptor<List<Notification>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(captor.capture());
+
+        List<Notification> saved = captor.getValue();
+        assertThat(saved).hasSize(3);
+        assertThat(saved).allSatisfy(n -> {
+            assertThat(n.getUser()).isSameAs(user);
+            assertThat(n.getStatus()).isEqualTo(NotificationStatus.PENDING);
+        });
+        assertThat(saved.get(0).getMessage()).contains("№100", "CONFIRMED");
+        assertThat(saved.get(0).getSendAt()).isEqualTo(changedAt);
+        assertThat(saved.get(2).getSendAt()).isEqualTo(changedAt.plusMinutes(30));
+    }
+
+    @Test
+    @DisplayName("Only order status events are supported")
+    void supports_OrderStatusChanged() {
+        assertThat(handler.supports(OutboxEventType.ORDER_STATUS_CHANGED)).isTrue();
+    }
+
+    private OutboxEvent event(Long orderId, OrderStatus status, LocalDateTime createdAt) {
+        return OutboxEvent.builder()
+                .type(OutboxEventType.ORDER_STATUS_CHANGED)
+                .orderId(orderId)
+                .userId(1L)
+                .orderStatus(status)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -7,16 +7,25 @@ import com.example.test.models.entities.cart.CartItem;
 import com.example.test.models.entities.cart.MenuItem;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.enums.PaymentMethod;
+import com.example.test.models.entities.order.ArchivedOrder;
 import com.example.test.models.entities.order.Order;
 import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
+import com.example.test.models.entities.order.OrderSummary;
+import com.example.test.models.mappers.orderMapper.ArchivedOrderMapper;
 import com.example.test.models.mappers.orderMapper.OrderMapper;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
 import com.example.test.repositories.cartRepo.CartItemRepository;
 import com.example.test.repositories.cartRepo.CartRepository;
+import com.example.test.repositories.orderRepo.ArchivedOrderRepository;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.cartService.CartStore;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.orderService.impl.OrderServiceImpl;
+import com.example.test.services.stockService.StockReservationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -50,6 +59,20 @@ class OrderServiceImplTest {
     private RestaurantRepository restaurantRepository;
     @Mock
     private OrderMapper orderMapper;
+    @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private ArchivedOrderRepository archivedOrderRepository;
+    @Mock
+    private ArchivedOrderMapper archivedOrderMapper;
+    @Mock
+    private CartStore cartStore;
+    @Mock
+    private StockReservationService stockReservationService;
 
     @InjectMocks
     private OrderServiceImpl orderService;
@@ -86,8 +109,9 @@ class OrderServiceImplTest {
     @DisplayName("Create Order: Success flow")
     void createOrderFromCart_Success() {
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.of(restaurant));
-        given(cartRepository.findByUserId(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(restaurant));
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findMenuItemIdsInRestaurant(1L, Set.of(10L))).willReturn(Set.of(10L));
 
         given(orderRepository.save(any(Order.class))).willAnswer(invocation -> invocation.getArgument(0));
 
@@ -102,8 +126,12 @@ class OrderServiceImplTest {
             return true;
         }));
 
+        verify(orderSummaryService).onCreated(any(Order.class));
         verify(cartItemRepository).deleteAllByCartId(5L);
         assertThat(cart.getItems()).isEmpty();
+        verify(stockReservationService).convert(1L, Map.of(10L, 2));
+        verify(cartStore).flush(1L);
+        verify(cartStore).evict(1L);
     }
 
     @Test
@@ -117,8 +145,9 @@ class OrderServiceImplTest {
         cart.setItems(List.of(badItem));
 
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.of(restaurant));
-        given(cartRepository.findByUserId(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(restaurant));
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findMenuItemIdsInRestaurant(1L, Set.of(99L))).willReturn(Set.of());
 
 
         assertThatThrownBy(() -> orderService.createOrderFromCart(1L, 1L, PaymentMethod.CARD))
@@ -140,7 +169,7 @@ class OrderServiceImplTest {
     @Test
     void createOrder_RestaurantNotFound_ThrowsException() {
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.empty());
+        given(restaurantRepository.findById(1L)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.createOrderFromCart(1L, 1L, PaymentMethod.CASH))
                 .isInstanceOf(NotFoundException.class)
@@ -150,8 +179,8 @@ class OrderServiceImplTest {
     @Test
     void createOrder_CartMissing_ThrowsException() {
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.of(restaurant));
-        given(cartRepository.findByUserId(1L)).willReturn(Optional.empty());
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(restaurant));
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.empty());
 
         assertThatThrownBy(() -> orderService.createOrderFromCart(1L, 1L, PaymentMethod.CASH))
                 .isInstanceOf(NotFoundException.class)
@@ -163,8 +192,8 @@ class OrderServiceImplTest {
         cart.setItems(Collections.emptyList());
 
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.of(restaurant));
-        given(cartRepository.findByUserId(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(restaurant));
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
 
         assertThatThrownBy(() -> orderService.createOrderFromCart(1L, 1L, PaymentMethod.CASH))
                 .isInstanceOf(IllegalStateException.class)
@@ -190,8 +219,9 @@ class OrderServiceImplTest {
         cart.setItems(new ArrayList<>(List.of(ci1, ci2)));
 
         given(userRepository.findById(1L)).willReturn(Optional.of(user));
-        given(restaurantRepository.findByIdWithMenuItems(1L)).willReturn(Optional.of(restaurant));
-        given(cartRepository.findByUserId(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findById(1L)).willReturn(Optional.of(restaurant));
+        given(cartRepository.findByUserIdWithItems(1L)).willReturn(Optional.of(cart));
+        given(restaurantRepository.findMenuItemIdsInRestaurant(1L, Set.of(10L, 11L))).willReturn(Set.of(10L, 11L));
         given(orderRepository.save(any())).willAnswer(i -> i.getArgument(0));
 
         orderService.createOrderFromCart(1L, 1L, PaymentMethod.CASH);
@@ -222,6 +252,25 @@ class OrderServiceImplTest {
         assertThat(result).isNotNull();
         assertThat(result.getId()).isEqualTo(1L);
         verify(orderRepository).findById(1L);
+        verifyNoInteractions(archivedOrderRepository);
+    }
+
+    @Test
+    @DisplayName("Get By ID: Falls back to the archive")
+    void getById_Archived() {
+        ArchivedOrder archived = ArchivedOrder.builder().id(5L).status(OrderStatus.DELIVERED).build();
+        OrderDto dto = new OrderDto();
+        dto.setId(5L);
+
+        given(orderRepository.findById(5L)).willReturn(Optional.empty());
+        given(archivedOrderRepository.findById(5L)).willReturn(Optional.of(archived));
+        given(archivedOrderMapper.toDto(archived)).willReturn(dto);
+
+
+        OrderDto result = orderService.getById(5L);
+
+
+        assertThat(result.getId()).isEqualTo(5L);
     }
 
     @Test
@@ -239,33 +288,34 @@ class OrderServiceImplTest {
     @DisplayName("Get User Orders: Success with list")
     void getUserOrders_Success() {
         Long userId = 1L;
-        Order order1 = new Order();
-        Order order2 = new Order();
-        List<Order> orders = List.of(order1, order2);
+        OrderSummary summary1 = new OrderSummary();
+        OrderSummary summary2 = new OrderSummary();
+        List<OrderSummary> summaries = List.of(summary1, summary2);
 
-        given(orderRepository.findByUserId(userId)).willReturn(orders);
-        given(orderMapper.toDto(any(Order.class))).willReturn(new OrderDto());
+        given(orderSummaryRepository.findByUserIdOrderByCreatedAtDesc(userId)).willReturn(summaries);
+        given(orderSummaryMapper.toDto(any(OrderSummary.class))).willReturn(new OrderDto());
 
 
         List<OrderDto> result = orderService.getUserOrders(userId);
 
 
         assertThat(result).hasSize(2);
-        verify(orderRepository).findByUserId(userId);
-        verify(orderMapper, times(2)).toDto(any(Order.class));
+        verify(orderSummaryRepository).findByUserIdOrderByCreatedAtDesc(userId);
+        verify(orderSummaryMapper, times(2)).toDto(any(OrderSummary.class));
+        verify(orderRepository, never()).findByUserId(any());
     }
 
     @Test
     @DisplayName("Get User Orders: Return empty list when no orders")
     void getUserOrders_Empty() {
-        given(orderRepository.findByUserId(1L)).willReturn(List.of());
+        given(orderSummaryRepository.findByUserIdOrderByCreatedAtDesc(1L)).willReturn(List.of());
 
 
         List<OrderDto> result = orderService.getUserOrders(1L);
 
 
         assertThat(result).isEmpty();
-        verify(orderMapper, never()).toDto(any());
+        verify(orderSummaryMapper, never()).toDto(any());
     }
 
 
@@ -1,23 +1,31 @@
 package com.example.test.unitTests;
 
-import com.example.test.models.entities.courier.Courier;
+import com.example.test.exceptions.ConflictException;
+import com.example.test.exceptions.NotFoundException;
+import com.example.test.models.dtos.orderDto.OrderDto;
 import com.example.test.models.entities.enums.OrderStatus;
 import com.example.test.models.entities.enums.PaymentMethod;
 import com.example.test.models.entities.enums.PaymentStatus;
 import com.example.test.models.entities.order.Order;
+import com.example.test.models.entities.order.OrderSummary;
 import com.example.test.models.entities.payment.Payment;
+import com.example.test.models.entities.restaurant.Restaurant;
 import com.example.test.models.entities.user.User;
-import com.example.test.models.mappers.orderMapper.OrderMapper;
+import com.example.test.models.mappers.orderMapper.OrderSummaryMapper;
 import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.orderRepo.OrderSummaryRepository;
 import com.example.test.repositories.paymentRepo.PaymentRepository;
-import com.example.test.services.notiService.NotificationServiceImpl;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import com.example.test.services.courierService.CourierWorkloadRegistry;
+import com.example.test.services.etaService.RestaurantPrepTimeService;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.orderService.impl.OrderServiceImpl;
+import com.example.test.services.outboxService.OutboxService;
 import com.example.test.services.userService.impl.UserDetailsImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -28,9 +36,11 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -41,34 +51,46 @@ class OrderStatusUpdateTest {
     @Mock
     private OrderRepository orderRepository;
     @Mock
+    private OrderSummaryRepository orderSummaryRepository;
+    @Mock
+    private OrderSummaryMapper orderSummaryMapper;
+    @Mock
     private PaymentRepository paymentRepository;
     @Mock
-    private NotificationServiceImpl notificationService;
+    private OutboxService outboxService;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private CourierDispatchQueue courierDispatchQueue;
     @Mock
-    private OrderMapper orderMapper;
+    private CourierWorkloadRegistry workloadRegistry;
+    @Mock
+    private RestaurantPrepTimeService prepTimeService;
 
     @InjectMocks
     private OrderServiceImpl orderService;
 
-    private Order testOrder;
+    private OrderSummary summary;
     private User testUser;
     private Authentication auth;
-    private UserDetailsImpl principal;
 
     @BeforeEach
     void setUp() {
         testUser = User.builder().id(1L).build();
-        testOrder = new Order();
-        testOrder.setId(100L);
-        testOrder.setUser(testUser);
-        testOrder.setCreatedAt(LocalDateTime.now().minusMinutes(40));
-        testOrder.setPaymentMethod(PaymentMethod.CASH);
-        testOrder.setStatus(OrderStatus.CREATED);
-
-        principal = mock(UserDetailsImpl.class);
-        given(principal.getUser()).willReturn(testUser);
+        summary = OrderSummary.builder()
+                .id(100L)
+                .userId(1L)
+                .restaurantId(7L)
+                .courierId(5L)
+                .status(OrderStatus.IN_DELIVERY)
+                .paymentMethod(PaymentMethod.CASH)
+                .createdAt(LocalDateTime.now().minusMinutes(40))
+                .build();
+
+        UserDetailsImpl principal = mock(UserDetailsImpl.class);
+        lenient().when(principal.getUser()).thenReturn(testUser);
         auth = mock(Authentication.class);
-        given(auth.getPrincipal()).willReturn(principal);
+        lenient().when(auth.getPrincipal()).thenReturn(principal);
     }
 
     @Test
@@ -77,26 +99,27 @@ class OrderStatusUpdateTest {
         doReturn(List.of(new SimpleGrantedAuthority("ROLE_COURIER")))
                 .when(auth).getAuthorities();
 
-        Courier courier = new Courier();
-        courier.setUser(testUser);
-        testOrder.setCourier(courier);
-
         Payment payment = new Payment();
         payment.setStatus(PaymentStatus.PENDING);
 
-        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        given(orderRepository.transitionStatusAsCourier(eq(100L), eq(OrderStatus.DELIVERED.allowedSources()),
+                eq(OrderStatus.DELIVERED), eq(1L), any())).willReturn(1);
+        given(orderSummaryRepository.findById(100L)).willReturn(Optional.of(summary));
         given(paymentRepository.findByOrderId(100L)).willReturn(Optional.of(payment));
+        given(orderSummaryMapper.toDto(summary)).willReturn(new OrderDto());
 
 
         orderService.updateStatus(auth, 100L, OrderStatus.DELIVERED);
 
 
-        assertThat(testOrder.getStatus()).isEqualTo(OrderStatus.DELIVERED);
-        assertThat(testOrder.getCookTime()).isGreaterThanOrEqualTo(40);
         assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PAID);
-
+        verify(orderRepository).updateCookTime(eq(100L), intThat(minutes -> minutes >= 40));
+        verify(prepTimeService).recordPrepTime(eq(7L), intThat(minutes -> minutes >= 40));
         verify(paymentRepository).save(payment);
-        verify(notificationService, times(2)).createOrderNotification(eq(1L), anyString(), any());
+        verify(orderSummaryService).onStatusChanged(100L, OrderStatus.DELIVERED);
+        verify(outboxService).publishOrderStatusChanged(100L, 1L, OrderStatus.DELIVERED);
+        verify(workloadRegistry).orderFinished(5L);
+        verify(orderRepository, never()).findById(anyLong());
     }
 
     @Test
@@ -104,12 +127,27 @@ class OrderStatusUpdateTest {
     void updateStatus_Courier_WrongStatus_ThrowsException() {
         doReturn(List.of(new SimpleGrantedAuthority("ROLE_COURIER")))
                 .when(auth).getAuthorities();
-        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
 
 
         assertThatThrownBy(() -> orderService.updateStatus(auth, 100L, OrderStatus.CONFIRMED))
                 .isInstanceOf(AccessDeniedException.class)
                 .hasMessage("Courier can only set DELIVERED status");
+        verifyNoInteractions(orderRepository);
+    }
+
+    @Test
+    @DisplayName("Courier: Rejected update on someone else's order is reported as 403")
+    void updateStatus_Courier_NotAssigned_ThrowsException() {
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_COURIER")))
+                .when(auth).getAuthorities();
+        given(orderRepository.transitionStatusAsCourier(eq(100L), any(), eq(OrderStatus.DELIVERED), eq(1L), any()))
+                .willReturn(0);
+        given(orderRepository.findById(100L)).willReturn(Optional.of(order(OrderStatus.IN_DELIVERY, PaymentMethod.CASH)));
+
+
+        assertThatThrownBy(() -> orderService.updateStatus(auth, 100L, OrderStatus.DELIVERED))
+                .isInstanceOf(AccessDeniedException.class)
+                .hasMessage("You are not the assigned courier for this order");
     }
 
     @Test
@@ -117,9 +155,9 @@ class OrderStatusUpdateTest {
     void updateStatus_Owner_CardPayment_ThrowsException() {
         doReturn(List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_OWNER")))
                 .when(auth).getAuthorities();
-        testOrder.setPaymentMethod(PaymentMethod.CARD);
-
-        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        given(orderRepository.transitionStatusAsOwner(eq(100L), eq(Set.of(OrderStatus.CREATED)),
+                eq(OrderStatus.CONFIRMED), eq(1L), eq(false), any())).willReturn(0);
+        given(orderRepository.findById(100L)).willReturn(Optional.of(order(OrderStatus.CREATED, PaymentMethod.CARD)));
 
 
         assertThatThrownBy(() -> orderService.updateStatus(auth, 100L, OrderStatus.CONFIRMED))
@@ -128,22 +166,106 @@ class OrderStatusUpdateTest {
     }
 
     @Test
-    @DisplayName("Notification: Check delayed review notification")
-    void updateStatus_Delivered_CreatesDelayedNotification() {
+    @DisplayName("Owner: Hot transition is a single conditional update")
+    void updateStatus_Owner_Cooked_SingleUpdate() {
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_OWNER")))
+                .when(auth).getAuthorities();
+        given(orderRepository.transitionStatusAsOwner(eq(100L), eq(Set.of(OrderStatus.CONFIRMED)),
+                eq(OrderStatus.COOKED), eq(1L), eq(true), any())).willReturn(1);
+        given(orderSummaryRepository.findById(100L)).willReturn(Optional.of(summary));
+
+
+        orderService.updateStatus(auth, 100L, OrderStatus.COOKED);
+
+
+        verify(orderRepository, never()).findById(anyLong());
+        verify(orderRepository, never()).save(any());
+        verify(orderRepository, never()).updateCookTime(anyLong(), anyInt());
+        verifyNoInteractions(courierDispatchQueue);
+    }
+
+    @Test
+    @DisplayName("Owner: Confirmation requests courier dispatch")
+    void updateStatus_Owner_Confirmed_RequestsDispatch() {
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_RESTAURANT_OWNER")))
+                .when(auth).getAuthorities();
+        given(orderRepository.transitionStatusAsOwner(eq(100L), eq(OrderStatus.CONFIRMED.allowedSources()),
+                eq(OrderStatus.CONFIRMED), eq(1L), eq(false), any())).willReturn(1);
+        given(orderSummaryRepository.findById(100L)).willReturn(Optional.of(summary));
+
+
+        orderService.updateStatus(auth, 100L, OrderStatus.CONFIRMED);
+
+
+        verify(courierDispatchQueue).orderConfirmed(100L);
+    }
+
+    @Test
+    @DisplayName("Admin: Stale status is reported as a conflict")
+    void updateStatus_Admin_StaleStatus_Conflict() {
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                .when(auth).getAuthorities();
+        given(orderRepository.transitionStatus(eq(100L), any(), eq(OrderStatus.COOKED), any())).willReturn(0);
+        given(orderRepository.findById(100L)).willReturn(Optional.of(order(OrderStatus.CANCELLED, PaymentMethod.CASH)));
+
+
+        assertThatThrownBy(() -> orderService.updateStatus(auth, 100L, OrderStatus.COOKED))
+                .isInstanceOf(ConflictException.class)
+                .hasMessageContaining("CANCELLED");
+        verifyNoInteractions(orderSummaryService, outboxService);
+    }
+
+    @Test
+    @DisplayName("Admin: Missing order is still a 404")
+    void updateStatus_Admin_NotFound() {
         doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
                 .when(auth).getAuthorities();
-        given(orderRepository.findById(100L)).willReturn(Optional.of(testOrder));
+        given(orderRepository.transitionStatus(eq(100L), any(), eq(OrderStatus.COOKED), any())).willReturn(0);
+        given(orderRepository.findById(100L)).willReturn(Optional.empty());
+
+
+        assertThatThrownBy(() -> orderService.updateStatus(auth, 100L, OrderStatus.COOKED))
+                .isInstanceOf(NotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Outbox: Status change appends a single event")
+    void updateStatus_PublishesOutboxEvent() {
+        doReturn(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                .when(auth).getAuthorities();
+        given(orderRepository.transitionStatus(eq(100L), any(), eq(OrderStatus.DELIVERED), any())).willReturn(1);
+        given(orderSummaryRepository.findById(100L)).willReturn(Optional.of(summary));
 
 
         orderService.updateStatus(auth, 100L, OrderStatus.DELIVERED);
 
 
-        ArgumentCaptor<LocalDateTime> timeCaptor = ArgumentCaptor.forClass(LocalDateTime.class);
-        verify(notificationService, times(2))
-                .createOrderNotification(eq(1L), anyString(), timeCaptor.capture());
+        verify(outboxService).publishOrderStatusChanged(100L, 1L, OrderStatus.DELIVERED);
+        verifyNoMoreInteractions(outboxService);
+        verifyNoInteractions(paymentRepository);
+    }
+
+    @Test
+    @DisplayName("Transition table: terminal statuses cannot be left")
+    void transitionTable_TerminalStatuses() {
+        assertThat(OrderStatus.CREATED.canTransitionTo(OrderStatus.CONFIRMED)).isTrue();
+        assertThat(OrderStatus.CREATED.canTransitionTo(OrderStatus.COOKED)).isFalse();
+        assertThat(OrderStatus.DELIVERED.canTransitionTo(OrderStatus.CANCELLED)).isFalse();
+        assertThat(OrderStatus.CANCELLED.canTransitionTo(OrderStatus.CONFIRMED)).isFalse();
+        assertThat(OrderStatus.CREATED.allowedSources()).isEmpty();
+    }
 
-        LocalDateTime delayedTime = timeCaptor.getAllValues().get(1);
-        assertThat(delayedTime).isAfter(LocalDateTime.now().plusMinutes(29));
+    private Order order(OrderStatus status, PaymentMethod paymentMethod) {
+        User owner = User.builder().id(1L).build();
+        Restaurant restaurant = new Restaurant();
+        restaurant.setOwner(owner);
+
+        Order order = new Order();
+        order.setId(100L);
+        order.setUser(testUser);
+        order.setRestaurant(restaurant);
+        order.setStatus(status);
+        order.setPaymentMethod(paymentMethod);
+        return order;
     }
 }
-
@@ -0,0 +1,122 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.enums.OrderStatus;
+import com.example.test.models.entities.enums.OutboxEventType;
+import com.example.test.models.entities.outbox.OutboxEvent;
+import com.example.test.repositories.outboxRepo.OutboxEventRepository;
+import com.example.test.services.outboxService.OutboxDispatcher;
+import com.example.test.services.outboxService.OutboxEventHandler;
+import com.example.test.services.outboxService.outboxConfig.OutboxProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Outbox Dispatcher Unit Tests")
+class OutboxDispatcherTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private OutboxEventHandler handler;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+    private OutboxEvent first;
+    private OutboxEvent second;
+
+    @BeforeEach
+    void setUp() {
+        OutboxProperties properties = new OutboxProperties();
+        properties.setBatchSize(2);
+        dispatcher = new OutboxDispatcher(outboxEventRepository, List.of(handler), properties,
+                new TransactionTemplate(transactionManager));
+
+        first = event(1L);
+        second = event(2L);
+        given(handler.supports(OutboxEventType.ORDER_STATUS_CHANGED)).willReturn(true);
+    }
+
+    @Test
+    @DisplayName("Claimed batch is handed to the handler and marked processed in one go")
+    void dispatchBatch_Success() {
+        given(outboxEventRepository.findPendingIds(eq(5), eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(outboxEventRepository.claim(List.of(1L, 2L), 5)).willReturn(List.of(second, first));
+
+        OutboxDispatcher.BatchResult result = dispatcher.dispatchBatch(0L);
+
+        assertThat(result).isEqualTo(new OutboxDispatcher.BatchResult(2, 2L));
+        verify(handler).handle(List.of(first, second));
+        verify(outboxEventRepository).markProcessed(eq(List.of(1L, 2L)), any(LocalDateTime.class));
+        verify(outboxEventRepository, never()).markFailed(anyLong(), anyString());
+    }
+
+    @Test
+    @DisplayName("Events claimed by another instance are skipped, not delivered twice")
+    void dispatchBatch_SkipsEventsClaimedElsewhere() {
+        given(outboxEventRepository.findPendingIds(eq(5), eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(outboxEventRepository.claim(List.of(1L, 2L), 5)).willReturn(List.of(second));
+
+        OutboxDispatcher.BatchResult result = dispatcher.dispatchBatch(0L);
+
+        assertThat(result.scanned()).isEqualTo(2);
+        verify(handler).handle(List.of(second));
+        verify(outboxEventRepository).markProcessed(eq(List.of(2L)), any(LocalDateTime.class));
+    }
+
+    @Test
+    @DisplayName("Failing batch is retried per event and only the bad event loses an attempt")
+    void dispatchBatch_PoisonEvent() {
+        given(outboxEventRepository.findPendingIds(eq(5), eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(outboxEventRepository.claim(List.of(1L, 2L), 5)).willReturn(List.of(first, second));
+        given(outboxEventRepository.claim(List.of(1L), 5)).willReturn(List.of(first));
+        given(outboxEventRepository.claim(List.of(2L), 5)).willReturn(List.of(second));
+        doThrow(new IllegalStateException("boom")).when(handler).handle(argThat(events -> events.contains(second)));
+
+        dispatcher.dispatchBatch(0L);
+
+        verify(outboxEventRepository).markProcessed(eq(List.of(1L)), any(LocalDateTime.class));
+        verify(outboxEventRepository).markFailed(2L, "boom");
+    }
+
+    @Test
+    @DisplayName("Dispatch loop walks past the last scanned id and stops once a batch comes back short")
+    void dispatchPending_DrainsUntilShortBatch() {
+        OutboxEvent third = event(3L);
+        given(outboxEventRepository.findPendingIds(eq(5), eq(0L), any(Pageable.class))).willReturn(List.of(1L, 2L));
+        given(outboxEventRepository.findPendingIds(eq(5), eq(2L), any(Pageable.class))).willReturn(List.of(3L));
+        given(outboxEventRepository.claim(List.of(1L, 2L), 5)).willReturn(List.of(first, second));
+        given(outboxEventRepository.claim(List.of(3L), 5)).willReturn(List.of(third));
+
+        dispatcher.dispatchPending();
+
+        verify(outboxEventRepository, times(2)).findPendingIds(eq(5), anyLong(), any(Pageable.class));
+        verify(handler).handle(List.of(third));
+    }
+
+    private OutboxEvent event(Long id) {
+        return OutboxEvent.builder()
+                .id(id)
+                .type(OutboxEventType.ORDER_STATUS_CHANGED)
+                .orderId(100L + id)
+                .userId(1L)
+                .orderStatus(OrderStatus.CONFIRMED)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
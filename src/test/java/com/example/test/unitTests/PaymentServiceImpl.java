@@ -1,5 +1,6 @@
 package com.example.test.unitTests;
 
+import com.example.test.exceptions.ConflictException;
 import com.example.test.models.dtos.payment.CreatePaymentDto;
 import com.example.test.models.dtos.payment.PaymentDto;
 import com.example.test.models.entities.enums.OrderStatus;
@@ -11,6 +12,8 @@ import com.example.test.models.entities.user.User;
 import com.example.test.models.mappers.payment.PaymentMapper;
 import com.example.test.repositories.orderRepo.OrderRepository;
 import com.example.test.repositories.paymentRepo.PaymentRepository;
+import com.example.test.services.courierService.CourierDispatchQueue;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.paymentService.impl.PaymentServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,9 +26,12 @@ import org.springframework.security.access.AccessDeniedException;
 
 import java.math.BigDecimal;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.*;
 
@@ -39,6 +45,10 @@ class PaymentServiceImplTest {
     private OrderRepository orderRepository;
     @Mock
     private PaymentMapper paymentMapper;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private CourierDispatchQueue courierDispatchQueue;
     @InjectMocks
     private PaymentServiceImpl paymentService;
 
@@ -150,16 +160,46 @@ class PaymentServiceImplTest {
     @DisplayName("Update Status: Success Webhook (PAID) should confirm order")
     void updatePaymentStatus_Paid_ConfirmsOrder() {
         given(paymentRepository.findById(100L)).willReturn(Optional.of(payment1));
-        given(paymentRepository.save(payment1)).willReturn(payment1);
+        given(orderRepository.transitionStatus(eq(10L), eq(Set.of(OrderStatus.CREATED)), eq(OrderStatus.CONFIRMED), any()))
+                .willReturn(1);
 
 
         paymentService.updatePaymentStatus(100L, PaymentStatus.PAID);
 
 
         assertThat(payment1.getStatus()).isEqualTo(PaymentStatus.PAID);
-        assertThat(order1.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
-        verify(orderRepository).save(order1);
-        verify(paymentRepository).save(payment1);
+        verify(orderSummaryService).onStatusChanged(10L, OrderStatus.CONFIRMED);
+        verify(courierDispatchQueue).orderConfirmed(10L);
+        verify(paymentRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("Update Status: repeated PAID webhook is an idempotent no-op")
+    void updatePaymentStatus_Paid_AlreadyPaid() {
+        payment1.setStatus(PaymentStatus.PAID);
+        order1.setStatus(OrderStatus.CONFIRMED);
+        given(paymentRepository.findById(100L)).willReturn(Optional.of(payment1));
+        given(paymentMapper.toDto(payment1)).willReturn(new PaymentDto());
+
+
+        paymentService.updatePaymentStatus(100L, PaymentStatus.PAID);
+
+
+        verify(orderRepository, never()).transitionStatus(any(), any(), any(), any());
+        verifyNoInteractions(orderSummaryService, courierDispatchQueue);
+        verify(paymentMapper).toDto(payment1);
+    }
+
+    @Test
+    @DisplayName("Update Status: PAID for an order that already moved on is a conflict")
+    void updatePaymentStatus_Paid_OrderNoLongerCreated() {
+        given(paymentRepository.findById(100L)).willReturn(Optional.of(payment1));
+        given(orderRepository.transitionStatus(eq(10L), any(), eq(OrderStatus.CONFIRMED), any())).willReturn(0);
+
+
+        assertThatThrownBy(() -> paymentService.updatePaymentStatus(100L, PaymentStatus.PAID))
+                .isInstanceOf(ConflictException.class);
+        verifyNoInteractions(orderSummaryService);
     }
 
     @Test
@@ -0,0 +1,81 @@
+package com.example.test.unitTests;
+
+import com.example.test.services.etaService.sketch.PrepTimeHistogram;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Prep Time Histogram Tests")
+class PrepTimeHistogramTest {
+
+    @Test
+    @DisplayName("Recent samples outweigh old ones once they are several half-lives newer")
+    void percentile_DecaysOldSamples() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram(180, 50);
+        for (int i = 0; i < 1000; i++) {
+            histogram.add(40);
+        }
+        assertThat(histogram.percentile(0.8)).isEqualTo(40);
+
+        for (int i = 0; i < 300; i++) {
+            histogram.add(15);
+        }
+
+        assertThat(histogram.percentile(0.8)).isEqualTo(15);
+        assertThat(histogram.getSampleCount()).isEqualTo(1300);
+    }
+
+    @Test
+    @DisplayName("Times beyond the limit are counted in the last bucket")
+    void add_ClampsToRange() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram(60, 1e12);
+        histogram.add(-5);
+        histogram.add(500);
+
+        assertThat(histogram.percentile(0.5)).isZero();
+        assertThat(histogram.percentile(1)).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Weights stay finite over many half-lives")
+    void add_RescalesBeforeOverflow() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram(180, 1);
+        for (int i = 0; i < 5000; i++) {
+            histogram.add(i % 2 == 0 ? 10 : 20);
+        }
+
+        // With a one-sample half-life the last sample (20) carries two thirds of the weight.
+        assertThat(histogram.percentile(0.3)).isEqualTo(10);
+        assertThat(histogram.percentile(0.5)).isEqualTo(20);
+        assertThat(PrepTimeHistogram.fromBytes(histogram.toBytes(), 180, 1).percentile(0.3)).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("Serialized form restores the same percentiles and folds buckets over a lower limit")
+    void toBytes_RoundTrips() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram(180, 500);
+        for (int minutes = 1; minutes <= 100; minutes++) {
+            histogram.add(minutes);
+        }
+
+        PrepTimeHistogram restored = PrepTimeHistogram.fromBytes(histogram.toBytes(), 180, 500);
+        PrepTimeHistogram folded = PrepTimeHistogram.fromBytes(histogram.toBytes(), 60, 500);
+
+        assertThat(restored.getSampleCount()).isEqualTo(100);
+        assertThat(restored.percentile(0.8)).isEqualTo(histogram.percentile(0.8));
+        assertThat(restored.percentile(0.5)).isEqualTo(histogram.percentile(0.5));
+        assertThat(folded.percentile(0.8)).isEqualTo(60);
+    }
+
+    @Test
+    @DisplayName("Empty histogram and invalid fractions are rejected")
+    void percentile_RejectsInvalidInput() {
+        PrepTimeHistogram histogram = new PrepTimeHistogram(180, 500);
+
+        assertThatThrownBy(() -> histogram.percentile(0.8)).isInstanceOf(IllegalStateException.class);
+        histogram.add(10);
+        assertThatThrownBy(() -> histogram.percentile(1.5)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.restaurant.PrepTimeRing;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("Prep Time Ring Tests")
+class PrepTimeRingTest {
+
+    @Test
+    @DisplayName("Appending returns a new ring and keeps samples oldest first")
+    void append_IsImmutable() {
+        PrepTimeRing empty = PrepTimeRing.empty();
+        PrepTimeRing ring = PrepTimeRing.append(null, 12).append(30);
+
+        assertThat(empty.size()).isZero();
+        assertThat(ring.toArray()).containsExactly(12, 30);
+        assertThat(ring.capacity()).isEqualTo(PrepTimeRing.CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Full ring overwrites its oldest samples")
+    void append_WrapsAround() {
+        PrepTimeRing ring = PrepTimeRing.empty();
+        for (int minutes = 1; minutes <= PrepTimeRing.CAPACITY + 3; minutes++) {
+            ring = ring.append(minutes);
+        }
+
+        assertThat(ring.size()).isEqualTo(PrepTimeRing.CAPACITY);
+        assertThat(ring.toArray()).containsExactly(IntStream.rangeClosed(4, PrepTimeRing.CAPACITY + 3).toArray());
+    }
+
+    @Test
+    @DisplayName("Serialized form has a fixed length and round-trips")
+    void toBytes_RoundTrips() {
+        PrepTimeRing ring = PrepTimeRing.empty().append(-1).append(25).append(100_000);
+
+        byte[] bytes = ring.toBytes();
+
+        assertThat(bytes).hasSize(PrepTimeRing.SERIALIZED_LENGTH);
+        assertThat(PrepTimeRing.fromBytes(bytes)).isEqualTo(ring);
+        assertThat(PrepTimeRing.fromBytes(bytes).toArray()).containsExactly(0, 25, 0xFFFF);
+        assertThatThrownBy(() -> PrepTimeRing.fromBytes(new byte[10])).isInstanceOf(IllegalArgumentException.class);
+    }
+}
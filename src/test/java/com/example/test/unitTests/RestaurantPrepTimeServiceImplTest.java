@@ -1,22 +1,35 @@
 package com.example.test.unitTests;
 
+import com.example.test.models.dtos.restaurantDto.RestaurantCookTime;
+import com.example.test.models.dtos.restaurantDto.RestaurantPrepTimeHistory;
+import com.example.test.models.entities.restaurant.PrepTimeRing;
 import com.example.test.models.entities.restaurant.Restaurant;
+import com.example.test.models.entities.restaurant.RestaurantPrepTimeSketch;
+import com.example.test.repositories.orderRepo.OrderRepository;
+import com.example.test.repositories.resRepo.RestaurantPrepTimeSketchRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
+import com.example.test.services.etaService.etaConfig.PrepTimeProperties;
 import com.example.test.services.etaService.impl.RestaurantPrepTimeServiceImpl;
+import com.example.test.services.etaService.sketch.PrepTimeHistogram;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 
@@ -26,24 +39,56 @@ class RestaurantPrepTimeServiceImplTest {
 
     @Mock
     private RestaurantRepository restaurantRepository;
+    @Mock
+    private OrderRepository orderRepository;
+    @Mock
+    private RestaurantPrepTimeSketchRepository sketchRepository;
 
-    @InjectMocks
+    private PrepTimeProperties props;
     private RestaurantPrepTimeServiceImpl prepTimeService;
 
     private Restaurant testRestaurant;
 
     @BeforeEach
     void setUp() {
+        props = new PrepTimeProperties();
+        props.setHalfLifeSamples(1e12);
+        prepTimeService = new RestaurantPrepTimeServiceImpl(restaurantRepository, orderRepository, sketchRepository, props);
+
         testRestaurant = new Restaurant();
         testRestaurant.setId(1L);
         testRestaurant.setAvgCookingTimeMinutes(25);
     }
 
+    private static List<RestaurantCookTime> cookTimes(Long restaurantId, Integer... minutes) {
+        return Arrays.stream(minutes).<RestaurantCookTime>map(cookTime -> new RestaurantCookTime() {
+            @Override
+            public Long getRestaurantId() {
+                return restaurantId;
+            }
+
+            @Override
+            public Integer getCookTime() {
+                return cookTime;
+            }
+        }).toList();
+    }
+
+    private void givenHistory(List<Integer> samples) {
+        PrepTimeRing history = null;
+        for (int minutes : samples) {
+            history = PrepTimeRing.append(history, minutes);
+        }
+        when(sketchRepository.findAllById(List.of(1L))).thenReturn(List.of());
+        when(restaurantRepository.findPrepTimeHistories(List.of(1L))).thenReturn(history == null
+                ? List.of()
+                : List.of(new RestaurantPrepTimeHistory(1L, history)));
+    }
+
     @Test
     @DisplayName("Calculate P80: Should return default avg time when history is empty")
     void calculateP80_EmptyHistory_ReturnsDefaultAvg() {
-        when(restaurantRepository.prepTimeHistoryMinutes(eq(1L), any(Pageable.class)))
-                .thenReturn(List.of());
+        givenHistory(List.of());
 
 
         int result = prepTimeService.calculateP80PrepTime(testRestaurant);
@@ -55,11 +100,7 @@ class RestaurantPrepTimeServiceImplTest {
     @Test
     @DisplayName("Calculate P80: Should return 80th percentile correctly")
     void calculateP80_WithHistory_ReturnsP80Value() {
-
-        List<Integer> history = List.of(60, 10, 45, 12, 30, 15, 25, 18, 22, 20);
-
-        when(restaurantRepository.prepTimeHistoryMinutes(eq(1L), any(Pageable.class)))
-                .thenReturn(history);
+        givenHistory(List.of(60, 10, 45, 12, 30, 15, 25, 18, 22, 20));
 
         int result = prepTimeService.calculateP80PrepTime(testRestaurant);
 
@@ -69,8 +110,7 @@ class RestaurantPrepTimeServiceImplTest {
     @Test
     @DisplayName("Calculate P80: Single value history")
     void calculateP80_SingleValue_ReturnsThatValue() {
-        when(restaurantRepository.prepTimeHistoryMinutes(eq(1L), any(Pageable.class)))
-                .thenReturn(List.of(40));
+        givenHistory(List.of(40));
 
 
         int result = prepTimeService.calculateP80PrepTime(testRestaurant);
@@ -80,14 +120,176 @@ class RestaurantPrepTimeServiceImplTest {
     }
 
     @Test
-    @DisplayName("Verify Pageable parameter: Should request top 100 records")
-    void calculateP80_RequestsCorrectPageable() {
-        when(restaurantRepository.prepTimeHistoryMinutes(any(), any())).thenReturn(List.of(20));
+    @DisplayName("Percentiles: Any fraction is served from the same history")
+    void calculatePercentile_ServesAnyFraction() {
+        givenHistory(List.of(60, 10, 45, 12, 30, 15, 25, 18, 22, 20));
+
+        assertThat(prepTimeService.calculatePrepTimePercentile(testRestaurant, 0.5)).isEqualTo(20);
+        assertThat(prepTimeService.calculatePrepTimePercentile(testRestaurant, 0.95)).isEqualTo(60);
+        assertThatThrownBy(() -> prepTimeService.calculatePrepTimePercentile(testRestaurant, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Seeding: Stored history is read once")
+    void calculateP80_LoadsHistoryOnce() {
+        givenHistory(List.of(20));
+
+        prepTimeService.calculateP80PrepTime(testRestaurant);
         prepTimeService.calculateP80PrepTime(testRestaurant);
-        verify(restaurantRepository).prepTimeHistoryMinutes(
-                eq(1L),
-                argThat(pageable -> pageable.getPageSize() == 100 && pageable.getPageNumber() == 0)
-        );
+
+        verify(sketchRepository, times(1)).findAllById(List.of(1L));
+        verify(restaurantRepository, times(1)).findPrepTimeHistories(List.of(1L));
     }
-}
 
+    @Test
+    @DisplayName("Seeding: Restaurants without stored history start from their latest orders' cook times")
+    void calculateP80_SeedsFromRecentOrders() {
+        givenHistory(List.of());
+        when(orderRepository.findRecentCookTimes(List.of(1L), PrepTimeRing.CAPACITY)).thenReturn(cookTimes(1L, 10, 40, 40, 40));
+
+        int result = prepTimeService.calculateP80PrepTime(testRestaurant);
+
+        assertThat(result).isEqualTo(40);
+    }
+
+    @Test
+    @DisplayName("Snapshot: Stored histogram is used instead of order history")
+    void calculateP80_RestoresSnapshot() {
+        PrepTimeHistogram stored = new PrepTimeHistogram(props.getMaxMinutes(), props.getHalfLifeSamples());
+        stored.add(35);
+        when(sketchRepository.findAllById(List.of(1L))).thenReturn(List.of(
+                new RestaurantPrepTimeSketch(1L, stored.toBytes(), 1, LocalDateTime.now())));
+
+        int result = prepTimeService.calculateP80PrepTime(testRestaurant);
+
+        assertThat(result).isEqualTo(35);
+        verifyNoInteractions(restaurantRepository);
+    }
+
+    @Test
+    @DisplayName("Bulk: Restaurants not in memory are loaded with one query per source")
+    void calculateP80PrepTimes_LoadsMissingTogether() {
+        PrepTimeHistogram stored = new PrepTimeHistogram(props.getMaxMinutes(), props.getHalfLifeSamples());
+        stored.add(35);
+        givenHistory(List.of(40));
+        prepTimeService.calculateP80PrepTime(testRestaurant);
+
+        Map<Long, Integer> fallbacks = new LinkedHashMap<>();
+        fallbacks.put(1L, 25);
+        fallbacks.put(2L, 25);
+        fallbacks.put(3L, 25);
+        fallbacks.put(4L, 18);
+        fallbacks.put(5L, null);
+        when(sketchRepository.findAllById(List.of(2L, 3L, 4L, 5L))).thenReturn(List.of(
+                new RestaurantPrepTimeSketch(2L, stored.toBytes(), 1, LocalDateTime.now())));
+        when(restaurantRepository.findPrepTimeHistories(List.of(3L, 4L, 5L)))
+                .thenReturn(List.of(new RestaurantPrepTimeHistory(3L, PrepTimeRing.empty().append(12))));
+
+        Map<Long, Integer> result = prepTimeService.calculateP80PrepTimes(fallbacks);
+
+        assertThat(result).containsExactlyInAnyOrderEntriesOf(Map.of(1L, 40, 2L, 35, 3L, 12, 4L, 18));
+        assertThat(prepTimeService.calculateP80PrepTimes(fallbacks)).isEqualTo(result);
+        verify(sketchRepository, times(1)).findAllById(List.of(2L, 3L, 4L, 5L));
+        verify(orderRepository, times(1)).findRecentCookTimes(List.of(4L, 5L), PrepTimeRing.CAPACITY);
+    }
+
+    @Test
+    @DisplayName("Record: Sample is appended to the stored history")
+    void recordPrepTime_AppendsToStoredHistory() {
+        PrepTimeRing stored = PrepTimeRing.empty().append(10);
+        when(restaurantRepository.findPrepTimeHistories(List.of(1L)))
+                .thenReturn(List.of(new RestaurantPrepTimeHistory(1L, stored)));
+        when(restaurantRepository.replacePrepTimeHistory(1L, stored, stored.append(50))).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+
+        verify(restaurantRepository).replacePrepTimeHistory(eq(1L), eq(stored),
+                argThat(next -> Arrays.equals(next.toArray(), new int[]{10, 50})));
+    }
+
+    @Test
+    @DisplayName("Record: A sample reaches a snapshot-restored histogram even before its first read")
+    void recordPrepTime_NotYetLoaded_RestoresSnapshotAndAdds() {
+        PrepTimeHistogram stored = new PrepTimeHistogram(props.getMaxMinutes(), props.getHalfLifeSamples());
+        stored.add(35);
+        when(sketchRepository.findAllById(List.of(1L))).thenReturn(List.of(
+                new RestaurantPrepTimeSketch(1L, stored.toBytes(), 1, LocalDateTime.now())));
+        when(restaurantRepository.findPrepTimeHistories(List.of(1L)))
+                .thenReturn(List.of(new RestaurantPrepTimeHistory(1L, PrepTimeRing.empty().append(35))));
+        when(restaurantRepository.replacePrepTimeHistory(eq(1L), any(), any())).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+        prepTimeService.flushSnapshots();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RestaurantPrepTimeSketch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sketchRepository).saveAll(captor.capture());
+        assertThat(captor.getValue().get(0).getSampleCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Record: A histogram seeded from stored history after the commit does not count the sample twice")
+    void recordPrepTime_NotYetLoaded_SeededFromHistory() {
+        givenHistory(List.of(10, 50));
+        when(restaurantRepository.replacePrepTimeHistory(eq(1L), any(), any())).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+        prepTimeService.flushSnapshots();
+
+        assertThat(prepTimeService.calculatePrepTimePercentile(testRestaurant, 0.5)).isEqualTo(10);
+        verify(sketchRepository, never()).saveAll(any());
+    }
+
+    @Test
+    @DisplayName("Record: A restaurant without a ring is seeded from its latest orders, this one included")
+    void recordPrepTime_SeedsEmptyRing() {
+        when(restaurantRepository.findPrepTimeHistories(List.of(1L))).thenReturn(List.of());
+        when(orderRepository.findRecentCookTimes(List.of(1L), PrepTimeRing.CAPACITY)).thenReturn(cookTimes(1L, 20, 50));
+        when(restaurantRepository.initPrepTimeHistory(eq(1L), any())).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+
+        verify(restaurantRepository).initPrepTimeHistory(eq(1L),
+                argThat(ring -> Arrays.equals(ring.toArray(), new int[]{20, 50})));
+    }
+
+    @Test
+    @DisplayName("Record: A concurrent append is re-read instead of overwritten")
+    void recordPrepTime_RetriesOnConcurrentAppend() {
+        PrepTimeRing stale = PrepTimeRing.empty().append(10);
+        PrepTimeRing fresh = stale.append(30);
+        when(restaurantRepository.findPrepTimeHistories(List.of(1L))).thenReturn(
+                List.of(new RestaurantPrepTimeHistory(1L, stale)),
+                List.of(new RestaurantPrepTimeHistory(1L, fresh)));
+        when(restaurantRepository.replacePrepTimeHistory(1L, stale, stale.append(50))).thenReturn(0);
+        when(restaurantRepository.replacePrepTimeHistory(1L, fresh, fresh.append(50))).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+
+        verify(restaurantRepository).replacePrepTimeHistory(eq(1L), eq(fresh),
+                argThat(next -> Arrays.equals(next.toArray(), new int[]{10, 30, 50})));
+    }
+
+    @Test
+    @DisplayName("Record: New samples move a loaded percentile and are flushed as a snapshot")
+    void recordPrepTime_UpdatesAndFlushes() {
+        givenHistory(List.of(10));
+        prepTimeService.calculateP80PrepTime(testRestaurant);
+        when(restaurantRepository.replacePrepTimeHistory(eq(1L), any(), any())).thenReturn(1);
+
+        prepTimeService.recordPrepTime(1L, 50);
+        prepTimeService.recordPrepTime(1L, 50);
+        prepTimeService.flushSnapshots();
+        prepTimeService.flushSnapshots();
+
+        assertThat(prepTimeService.calculateP80PrepTime(testRestaurant)).isEqualTo(50);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<RestaurantPrepTimeSketch>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sketchRepository, times(1)).saveAll(captor.capture());
+        RestaurantPrepTimeSketch sketch = captor.getValue().get(0);
+        assertThat(sketch.getRestaurantId()).isEqualTo(1L);
+        assertThat(sketch.getSampleCount()).isEqualTo(3);
+    }
+}
@@ -13,6 +13,8 @@ import com.example.test.models.mappers.resMapper.RestaurantMapper;
 import com.example.test.repositories.resRepo.RestaurantApplicationRepository;
 import com.example.test.repositories.resRepo.RestaurantRepository;
 import com.example.test.repositories.userRepo.UserRepository;
+import com.example.test.services.etaService.EtaCalculationService;
+import com.example.test.services.orderService.OrderSummaryService;
 import com.example.test.services.resService.impl.RestaurantServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,7 +25,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.access.AccessDeniedException;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -48,6 +52,10 @@ class RestaurantServiceImplTest {
     private RestaurantApplicationRepository restaurantApplicationRepository;
     @Mock
     private MenuItemMapper menuItemMapper;
+    @Mock
+    private OrderSummaryService orderSummaryService;
+    @Mock
+    private EtaCalculationService etaCalculationService;
 
     @InjectMocks
     private RestaurantServiceImpl restaurantService;
@@ -161,4 +169,26 @@ class RestaurantServiceImplTest {
 
         verify(restaurantRepository).deleteById(10L);
     }
+
+    @Test
+    @DisplayName("Get All Restaurants: ETAs are computed in one bulk call")
+    void getAllRestaurants_AttachesBulkEta() {
+        restaurant.setAvgCookingTimeMinutes(20);
+        Restaurant other = new Restaurant();
+        other.setId(11L);
+
+        Map<Long, Integer> fallbacks = new HashMap<>();
+        fallbacks.put(10L, 20);
+        fallbacks.put(11L, null);
+        given(restaurantRepository.findAll()).willReturn(List.of(restaurant, other));
+        given(restaurantMapper.toDto(any())).willAnswer(invocation -> new RestaurantDto());
+        given(etaCalculationService.calculateEtaMinutes(fallbacks)).willReturn(Map.of(10L, 35));
+
+
+        List<RestaurantDto> result = restaurantService.getAllRestaurants();
+
+
+        assertThat(result).extracting(RestaurantDto::getEtaMinutes).containsExactly(35, null);
+        verify(etaCalculationService, times(1)).calculateEtaMinutes(fallbacks);
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.test.unitTests;
+
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.stockService.StockReservationExpiryJob;
+import com.example.test.services.stockService.stockConfig.StockReservationProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Reservation Expiry Job Unit Tests")
+class StockReservationExpiryJobTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+    @Mock
+    private MenuItemRepository menuItemRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockReservationExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        StockReservationProperties properties = new StockReservationProperties();
+        properties.setChunkSize(2);
+        job = new StockReservationExpiryJob(reservationRepository, menuItemRepository, properties,
+                new TransactionTemplate(transactionManager));
+    }
+
+    @Test
+    @DisplayName("Expired reservations are restocked and deleted chunk by chunk")
+    void releaseExpired_LoopsOverChunks() {
+        given(reservationRepository.lockExpiredIds(any(), any(Pageable.class)))
+                .willReturn(List.of(1L, 2L), List.of(3L));
+        given(reservationRepository.deleteByIds(List.of(1L, 2L))).willReturn(2);
+        given(reservationRepository.deleteByIds(List.of(3L))).willReturn(1);
+
+        job.releaseExpired();
+
+        verify(menuItemRepository).restockFromReservations(List.of(1L, 2L));
+        verify(menuItemRepository).restockFromReservations(List.of(3L));
+    }
+
+    @Test
+    @DisplayName("Nothing expired: no writes")
+    void releaseChunk_Empty() {
+        given(reservationRepository.lockExpiredIds(any(), any(Pageable.class))).willReturn(List.of());
+
+        assertThat(job.releaseChunk(LocalDateTime.now())).isZero();
+
+        verifyNoInteractions(menuItemRepository);
+        verify(reservationRepository, never()).deleteByIds(any());
+    }
+}
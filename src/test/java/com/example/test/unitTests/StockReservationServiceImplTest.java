@@ -0,0 +1,168 @@
+package com.example.test.unitTests;
+
+import com.example.test.models.entities.cart.StockReservation;
+import com.example.test.repositories.cartRepo.MenuItemRepository;
+import com.example.test.repositories.cartRepo.StockReservationRepository;
+import com.example.test.services.stockService.impl.StockReservationServiceImpl;
+import com.example.test.services.stockService.stockConfig.StockReservationProperties;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Stock Reservation Service Unit Tests")
+class StockReservationServiceImplTest {
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+    @Mock
+    private MenuItemRepository menuItemRepository;
+    @Mock
+    private EntityManager entityManager;
+
+    private StockReservationServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new StockReservationServiceImpl(reservationRepository, menuItemRepository,
+                new StockReservationProperties(), entityManager);
+    }
+
+    @Test
+    @DisplayName("Reserve: stock is claimed and a new reservation is recorded")
+    void reserve_NewReservation() {
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(1);
+        given(reservationRepository.extend(eq(1L), eq(50L), eq(2), any())).willReturn(0);
+        given(reservationRepository.insertIfAbsent(eq(1L), eq(50L), eq(2), any())).willReturn(1);
+
+        assertThat(service.reserve(1L, 50L, 2)).isTrue();
+
+        verify(reservationRepository).insertIfAbsent(eq(1L), eq(50L), eq(2),
+                argThat(expiresAt -> expiresAt.isAfter(LocalDateTime.now().plusMinutes(29))));
+    }
+
+    @Test
+    @DisplayName("Reserve: losing a race to insert the first reservation extends the winner's row")
+    void reserve_ConcurrentFirstAdd() {
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(1);
+        given(reservationRepository.extend(eq(1L), eq(50L), eq(2), any())).willReturn(0, 1);
+        given(reservationRepository.insertIfAbsent(eq(1L), eq(50L), eq(2), any())).willReturn(0);
+
+        assertThat(service.reserve(1L, 50L, 2)).isTrue();
+
+        verify(reservationRepository, times(2)).extend(eq(1L), eq(50L), eq(2), any());
+    }
+
+    @Test
+    @DisplayName("Reserve: an existing reservation is extended in place")
+    void reserve_ExtendsReservation() {
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(1);
+        given(reservationRepository.extend(eq(1L), eq(50L), eq(2), any())).willReturn(1);
+
+        assertThat(service.reserve(1L, 50L, 2)).isTrue();
+
+        verify(reservationRepository, never()).insertIfAbsent(any(), any(), anyInt(), any());
+    }
+
+    @Test
+    @DisplayName("Reserve: nothing is recorded when stock runs out")
+    void reserve_OutOfStock() {
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(0);
+
+        assertThat(service.reserve(1L, 50L, 2)).isFalse();
+
+        verifyNoInteractions(reservationRepository);
+    }
+
+    @Test
+    @DisplayName("Release: only what the reservation still holds goes back to stock")
+    void release_CappedByReservation() {
+        given(reservationRepository.findByUserIdAndMenuItemId(1L, 50L))
+                .willReturn(Optional.of(reservation(7L, 50L, 2)));
+        given(reservationRepository.consume(1L, 50L, 2)).willReturn(1);
+
+        service.release(1L, 50L, 5);
+
+        verify(menuItemRepository).returnStock(50L, 2);
+        verify(reservationRepository).deleteEmpty(1L, 50L);
+    }
+
+    @Test
+    @DisplayName("Release: an expired reservation returns nothing")
+    void release_Expired() {
+        given(reservationRepository.findByUserIdAndMenuItemId(1L, 50L)).willReturn(Optional.empty());
+
+        service.release(1L, 50L, 5);
+
+        verifyNoInteractions(menuItemRepository);
+    }
+
+    @Test
+    @DisplayName("Convert: reservations are consumed, shortfalls claimed and leftovers released")
+    void convert_ConsumesReservations() {
+        given(reservationRepository.findByUserId(1L)).willReturn(List.of(
+                reservation(7L, 50L, 2),
+                reservation(8L, 60L, 1),
+                reservation(9L, 70L, 4)));
+        given(reservationRepository.deleteIfHolding(anyLong(), anyInt())).willReturn(1);
+        given(menuItemRepository.claimStock(60L, 2)).willReturn(1);
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(50L, 2);
+        quantities.put(60L, 3);
+        service.convert(1L, quantities);
+
+        verify(menuItemRepository).claimStock(60L, 2);
+        verify(menuItemRepository).returnStock(70L, 4);
+        verify(menuItemRepository, never()).claimStock(eq(50L), anyInt());
+    }
+
+    @Test
+    @DisplayName("Convert: checkout fails when an expired item is sold out")
+    void convert_ExpiredAndSoldOut() {
+        given(reservationRepository.findByUserId(1L)).willReturn(List.of());
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(0);
+
+        assertThatThrownBy(() -> service.convert(1L, Map.of(50L, 2)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Not enough stock for menu item 50");
+    }
+
+    @Test
+    @DisplayName("Convert: a reservation taken by the expiry job is not counted")
+    void convert_LostRaceWithExpiry() {
+        given(reservationRepository.findByUserId(1L)).willReturn(List.of(reservation(7L, 50L, 2)));
+        given(reservationRepository.deleteIfHolding(7L, 2)).willReturn(0);
+        given(menuItemRepository.claimStock(50L, 2)).willReturn(1);
+
+        service.convert(1L, Map.of(50L, 2));
+
+        verify(menuItemRepository).claimStock(50L, 2);
+    }
+
+    private StockReservation reservation(Long id, Long menuItemId, int quantity) {
+        return StockReservation.builder()
+                .id(id)
+                .userId(1L)
+                .menuItemId(menuItemId)
+                .quantity(quantity)
+                .expiresAt(LocalDateTime.now().plusMinutes(10))
+                .build();
+    }
+}